@@ -0,0 +1,28 @@
+package com.translation.system;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * 基准测试入口，所有基准都附带GC分析器，吞吐量旁边同时给出每次操作的分配字节数（gc.alloc.rate.norm）
+ * <p>
+ * 其余参数与JMH自带的入口相同，例如：
+ * <pre>
+ * java -jar target/benchmarks.jar                       # 运行全部基准
+ * java -jar target/benchmarks.jar -l                    # 列出全部基准
+ * java -jar target/benchmarks.jar TextChunking -f 1     # 只运行名称匹配的基准
+ * </pre>
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("gc")) {
+            // 已通过 -prof gc 指定
+            Main.main(args);
+        } else {
+            Main.main(Stream.concat(Stream.of("-prof", "gc"), Arrays.stream(args)).toArray(String[]::new));
+        }
+    }
+}
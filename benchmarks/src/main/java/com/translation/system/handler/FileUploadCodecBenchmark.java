@@ -0,0 +1,96 @@
+package com.translation.system.handler;
+
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.translation.system.config.JacksonConfig;
+import com.translation.system.model.MessageType;
+import com.translation.system.model.TranslationRequest;
+import com.translation.system.model.WebSocketMessage;
+
+/**
+ * WebSocket文件上传的音频编解码：
+ * 收到FILE_UPLOAD消息后解析JSON并Base64解码音频，处理完成后Base64编码合成音频并序列化为AUDIO_RESULT消息
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileUploadCodecBenchmark {
+
+    /**
+     * 音频大小（KB），16kHz 16位单声道时1秒约31KB
+     */
+    @Param({"64", "1024", "8192"})
+    private int audioKb;
+
+    private ObjectMapper objectMapper;
+    private byte[] audio;
+    private String base64Audio;
+    private String uploadJson;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = new JacksonConfig().objectMapper();
+        audio = new byte[audioKb * 1024];
+        new Random(42).nextBytes(audio);
+        base64Audio = Base64.getEncoder().encodeToString(audio);
+        uploadJson = objectMapper.writeValueAsString(WebSocketMessage.builder()
+                .type(MessageType.FILE_UPLOAD)
+                .audio(base64Audio)
+                .filename("speech.wav")
+                .fileType("audio/wav")
+                .request(TranslationRequest.builder()
+                        .sourceLanguage("zh-CN")
+                        .targetLanguage("en-US")
+                        .build())
+                .build());
+    }
+
+    @Benchmark
+    public byte[] decodeBase64() {
+        return Base64.getDecoder().decode(base64Audio);
+    }
+
+    @Benchmark
+    public String encodeBase64() {
+        return Base64.getEncoder().encodeToString(audio);
+    }
+
+    /**
+     * 解析上传消息并解码音频
+     */
+    @Benchmark
+    public byte[] parseAndDecodeUpload() throws Exception {
+        WebSocketMessage message = objectMapper.readValue(uploadJson, WebSocketMessage.class);
+        return Base64.getDecoder().decode(message.getAudio());
+    }
+
+    /**
+     * 编码合成音频并序列化结果消息
+     */
+    @Benchmark
+    public String encodeAudioResult() throws Exception {
+        return objectMapper.writeValueAsString(WebSocketMessage.builder()
+                .type(MessageType.AUDIO_RESULT)
+                .audio(Base64.getEncoder().encodeToString(audio))
+                .isFileUpload(true)
+                .build());
+    }
+}
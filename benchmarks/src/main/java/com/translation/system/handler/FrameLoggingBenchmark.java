@@ -0,0 +1,183 @@
+package com.translation.system.handler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.translation.system.config.TranslationConfig;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+
+/**
+ * 每帧音频的日志开销：TranslationWebSocketHandler 处理一帧时输出的INFO日志
+ * <ul>
+ * <li>legacy：改造前的写法，同步写文件，每帧4条INFO，自己用SimpleDateFormat格式化接收时间，大小换算为KB</li>
+ * <li>async：异步写文件（neverBlock），时间戳由日志框架输出，每帧都输出</li>
+ * <li>asyncSampled：在async的基础上按会话采样，每个会话每5秒输出一帧</li>
+ * </ul>
+ * 多个线程同时写日志，模拟多个会话的回调线程；异步队列写满后事件被丢弃，测得的是业务线程一侧的开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class FrameLoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n";
+
+    /**
+     * 并发会话数
+     */
+    @Param({"100"})
+    private int sessions;
+
+    private String[] sessionIds;
+    private Path logDirectory;
+    private LoggerContext loggerContext;
+    private Logger syncLogger;
+    private Logger asyncLogger;
+    private SessionLogSampler sampler;
+
+    private final byte[] audio = new byte[3200];
+
+    @Setup
+    public void setup() throws IOException {
+        sessionIds = new String[sessions];
+        for (int i = 0; i < sessions; i++) {
+            sessionIds[i] = "session-" + i;
+        }
+        logDirectory = Files.createTempDirectory("frame-logging-benchmark");
+
+        // 独立的日志上下文，不受模块logback.xml的影响
+        loggerContext = new LoggerContext();
+        loggerContext.start();
+
+        syncLogger = loggerContext.getLogger("sync");
+        syncLogger.addAppender(fileAppender("sync.log"));
+
+        AsyncAppender asyncAppender = new AsyncAppender();
+        asyncAppender.setContext(loggerContext);
+        asyncAppender.setName("async");
+        asyncAppender.setQueueSize(8192);
+        asyncAppender.setNeverBlock(true);
+        asyncAppender.addAppender(fileAppender("async.log"));
+        asyncAppender.start();
+        asyncLogger = loggerContext.getLogger("async");
+        asyncLogger.addAppender(asyncAppender);
+
+        for (Logger logger : new Logger[] {syncLogger, asyncLogger}) {
+            logger.setLevel(Level.INFO);
+            logger.setAdditive(false);
+        }
+
+        TranslationConfig config = new TranslationConfig();
+        sampler = new SessionLogSampler(config);
+    }
+
+    private Appender<ILoggingEvent> fileAppender(String fileName) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(loggerContext);
+        appender.setName(fileName);
+        appender.setFile(logDirectory.resolve(fileName).toString());
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+
+    /**
+     * 每个线程轮流处理各会话的帧
+     */
+    @State(Scope.Thread)
+    public static class Frames {
+        int next;
+
+        String nextSession(String[] sessionIds) {
+            next = next + 1 == sessionIds.length ? 0 : next + 1;
+            return sessionIds[next];
+        }
+    }
+
+    @Benchmark
+    public void legacy(Frames frames) {
+        String sessionId = frames.nextSession(sessionIds);
+        syncLogger.info("收到音频数据: 会话ID={}, 数据大小={}KB, 远程地址={}, 接收时间={}",
+                sessionId, audio.length / 1024.0, "/127.0.0.1:52000",
+                new java.text.SimpleDateFormat("HH:mm:ss.SSS").format(new java.util.Date()));
+        syncLogger.info("开始处理音频转译: 会话ID={}, 源语言={}, 目标语言={}, 提供商={}, 数据大小={}KB",
+                sessionId, "zh-CN", "en-US", "microsoft", audio.length / 1024.0);
+        syncLogger.info("发送合成的音频数据: 会话ID={}, 数据大小={}KB, 处理耗时={}毫秒",
+                sessionId, audio.length / 1024.0, 420L);
+        syncLogger.info("转译处理完成: 会话ID={}, Flux处理耗时={}毫秒, 总处理耗时={}毫秒",
+                sessionId, 420L, 435L);
+    }
+
+    @Benchmark
+    public void async(Frames frames) {
+        logFrame(frames.nextSession(sessionIds), asyncLogger.isInfoEnabled());
+    }
+
+    @Benchmark
+    public void asyncSampled(Frames frames) {
+        String sessionId = frames.nextSession(sessionIds);
+        logFrame(sessionId, asyncLogger.isInfoEnabled() && sampler.sample(sessionId));
+    }
+
+    /**
+     * 改造后每帧的日志：开始和完成两条按采样输出，发送音频数据为DEBUG
+     */
+    private void logFrame(String sessionId, boolean sampled) {
+        if (sampled) {
+            asyncLogger.info("开始处理音频转译: 会话ID={}, 源语言={}, 目标语言={}, 提供商={}, 数据大小={}字节",
+                    sessionId, "zh-CN", "en-US", "microsoft", audio.length);
+        }
+        if (asyncLogger.isDebugEnabled()) {
+            asyncLogger.debug("发送合成的音频数据: 会话ID={}, 数据大小={}字节, 处理耗时={}毫秒",
+                    sessionId, audio.length, 420L);
+        }
+        if (sampled) {
+            asyncLogger.info("转译处理完成: 会话ID={}, Flux处理耗时={}毫秒, 总处理耗时={}毫秒",
+                    sessionId, 420L, 435L);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        loggerContext.stop();
+        try (var files = Files.list(logDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(logDirectory);
+    }
+}
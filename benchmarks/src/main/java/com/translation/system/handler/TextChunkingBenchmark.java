@@ -0,0 +1,62 @@
+package com.translation.system.handler;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 大消息分块：中日韩文字、表情符号（代理对）和ASCII混合的文本按UTF-8字节数切分
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextChunkingBenchmark {
+
+    private static final String[] PIECES = {
+        "实时翻译", "リアルタイム翻訳", "실시간 번역", "real-time translation ", "😀", "👍🏽", "🇨🇳", "，", ". "
+    };
+
+    /**
+     * 文本长度（字符数）
+     */
+    @Param({"65536", "1048576"})
+    private int length;
+
+    /**
+     * 每块的字节上限，500KB为服务端发送大消息时使用的值
+     */
+    @Param({"16384", "512000"})
+    private int chunkBytes;
+
+    private String text;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder(length + 16);
+        while (builder.length() < length) {
+            builder.append(PIECES[random.nextInt(PIECES.length)]);
+        }
+        text = builder.toString();
+    }
+
+    @Benchmark
+    public List<String> splitTextIntoChunks() {
+        return TranslationWebSocketHandler.splitTextIntoChunks(text, chunkBytes);
+    }
+}
@@ -0,0 +1,88 @@
+package com.translation.system.model;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.translation.system.config.JacksonConfig;
+
+/**
+ * WebSocket消息的JSON序列化和反序列化，使用与服务端相同配置的ObjectMapper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebSocketMessageJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private WebSocketMessage translation;
+    private WebSocketMessage credit;
+    private String initJson;
+    private String pingJson;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = new JacksonConfig().objectMapper();
+
+        // 服务端最常发送的消息：译文和额度更新
+        translation = WebSocketMessage.builder()
+                .type(MessageType.TRANSLATION)
+                .message("Hello everyone, welcome to today's meeting. 😀 今天的会议现在开始。")
+                .language("en-US")
+                .build();
+        credit = WebSocketMessage.builder()
+                .type(MessageType.CREDIT)
+                .credit(262144L)
+                .build();
+
+        // 客户端发送的消息：初始化配置和心跳
+        initJson = objectMapper.writeValueAsString(WebSocketMessage.builder()
+                .type(MessageType.INIT)
+                .request(TranslationRequest.builder()
+                        .sourceLanguage("zh-CN")
+                        .targetLanguage("en-US")
+                        .targetLanguages(List.of("en-US", "ja-JP", "ko-KR"))
+                        .provider("auto")
+                        .sampleRate(16000)
+                        .build())
+                .build());
+        pingJson = objectMapper.writeValueAsString(WebSocketMessage.builder()
+                .type(MessageType.PING)
+                .timestamp(System.currentTimeMillis())
+                .build());
+    }
+
+    @Benchmark
+    public String serializeTranslation() throws Exception {
+        return objectMapper.writeValueAsString(translation);
+    }
+
+    @Benchmark
+    public String serializeCredit() throws Exception {
+        return objectMapper.writeValueAsString(credit);
+    }
+
+    @Benchmark
+    public WebSocketMessage deserializeInit() throws Exception {
+        return objectMapper.readValue(initJson, WebSocketMessage.class);
+    }
+
+    @Benchmark
+    public WebSocketMessage deserializePing() throws Exception {
+        return objectMapper.readValue(pingJson, WebSocketMessage.class);
+    }
+}
@@ -0,0 +1,123 @@
+package com.translation.system.service.translation;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.translation.system.config.TranslationConfig;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 模糊匹配索引：在大语料上查找近似句段（插入一个语气词）和完全无关的句子，
+ * 采样模式给出查找延迟的分位数；建索引的耗时和索引占用的堆内存在准备阶段输出到日志
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FuzzyTranslationIndexBenchmark {
+
+    private static final int VOCABULARY = 5_000;
+    private static final int QUERIES = 4096;
+
+    /**
+     * 索引中的句段数
+     */
+    @Param({"100000", "1000000"})
+    private int segments;
+
+    private FuzzyTranslationIndex index;
+    private String[] nearQueries;
+    private String[] unrelatedQueries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = randomWord(random);
+        }
+        String[] corpus = new String[segments];
+        for (int i = 0; i < segments; i++) {
+            corpus[i] = randomSentence(random, words) + " " + i;
+        }
+
+        TranslationConfig translationConfig = new TranslationConfig();
+        translationConfig.getFuzzy().setMaxSegments(segments);
+        index = new FuzzyTranslationIndex(translationConfig);
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        for (int i = 0; i < segments; i++) {
+            index.add("en-US", "zh-CN", corpus[i], "译文" + i);
+        }
+        long buildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long indexBytes = usedHeap() - heapBefore;
+        log.info("模糊匹配索引: 句段数={}, 建索引耗时={}ms, 索引内存约={}MB ({}字节/句段，含句段字符串)",
+                index.size(), buildMillis, indexBytes >> 20, indexBytes / segments);
+
+        nearQueries = new String[QUERIES];
+        unrelatedQueries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String segment = corpus[random.nextInt(segments)];
+            int space = segment.indexOf(' ', segment.length() / 2);
+            nearQueries[i] = segment.substring(0, space) + " um" + segment.substring(space);
+            unrelatedQueries[i] = randomSentence(random, words);
+        }
+    }
+
+    @Benchmark
+    public FuzzyTranslationIndex.Match nearDuplicate() {
+        return index.lookup("en-US", "zh-CN", nearQueries[next++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    public FuzzyTranslationIndex.Match unrelated() {
+        return index.lookup("en-US", "zh-CN", unrelatedQueries[next++ & (QUERIES - 1)]);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String randomWord(Random random) {
+        int length = 2 + random.nextInt(8);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+
+    private static String randomSentence(Random random, String[] words) {
+        int length = 6 + random.nextInt(9);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(words[random.nextInt(words.length)]);
+        }
+        return sb.toString();
+    }
+}
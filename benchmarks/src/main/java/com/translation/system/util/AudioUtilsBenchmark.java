@@ -0,0 +1,77 @@
+package com.translation.system.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 调试音频落盘：AudioUtils.saveAudioChunkToFile 写入临时目录
+ * 结果受磁盘和页缓存影响较大，主要用于对比分配量和同一台机器上的前后变化
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AudioUtilsBenchmark {
+
+    /**
+     * 音频大小（KB）
+     */
+    @Param({"32", "512"})
+    private int audioKb;
+
+    private byte[] audio;
+    private Path directory;
+
+    @Setup
+    public void setup() throws IOException {
+        audio = new byte[audioKb * 1024];
+        directory = Files.createTempDirectory("audio-utils-benchmark");
+    }
+
+    @Benchmark
+    public String saveAudioChunkToFile() {
+        return AudioUtils.saveAudioChunkToFile(audio, "benchmark", "input", true, directory.toString());
+    }
+
+    /**
+     * 每轮迭代后清理写出的文件，避免目录无限增长
+     */
+    @TearDown(Level.Iteration)
+    public void cleanFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        AudioUtils.cleanupAllSessionAudioFiles();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.translation.system.util;
+
+import java.net.http.HttpRequest.BodyPublisher;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * OpenAI语音识别请求的multipart请求体：按OpenAISpeechService.speechToText的方式组装，
+ * 并像HttpClient发送时一样把请求体全部读出
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultipartBodyBenchmark {
+
+    /**
+     * 音频大小（KB）
+     */
+    @Param({"64", "1024"})
+    private int audioKb;
+
+    private byte[] audio;
+
+    @Setup
+    public void setup() {
+        audio = new byte[audioKb * 1024];
+    }
+
+    /**
+     * 只组装请求体
+     */
+    @Benchmark
+    public BodyPublisher build() {
+        return newMultipart().build();
+    }
+
+    /**
+     * 组装并读出全部请求体
+     */
+    @Benchmark
+    public long buildAndDrain(Blackhole blackhole) throws InterruptedException {
+        BodyPublisher body = newMultipart().build();
+        DrainingSubscriber subscriber = new DrainingSubscriber(blackhole);
+        body.subscribe(subscriber);
+        subscriber.done.await();
+        return subscriber.bytes;
+    }
+
+    private MultipartBodyBuilder newMultipart() {
+        return new MultipartBodyBuilder()
+                .addField("model", "whisper-1")
+                .addField("language", "zh-CN")
+                .addFile("file", "audio.wav", "audio/wav", audio);
+    }
+
+    /**
+     * 读出请求体的订阅者，每个缓冲区都交给Blackhole防止被优化掉
+     */
+    private static class DrainingSubscriber implements Flow.Subscriber<ByteBuffer> {
+        private final Blackhole blackhole;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private long bytes;
+
+        DrainingSubscriber(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(ByteBuffer buffer) {
+            bytes += buffer.remaining();
+            blackhole.consume(buffer);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.translation.loadgen;
+
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.net.http.WebSocketHandshakeException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 一个压测会话：建立连接、发送INIT，然后按实时速度逐帧发送音频并记录各类结果的到达时间
+ * <p>
+ * 服务端目前不单独推送识别的中间结果，因此"首个中间结果"取本轮收到的第一条结果消息
+ * （音频帧、TRANSLATION或AUDIO_RESULT），"首个最终结果"取第一帧处理完成的时间，
+ * "首个音频"取第一段合成音频的到达时间。所有时间都从本轮第一帧的计划发送时间算起，
+ * 客户端发送被额度或网络拖慢时不会低估延迟。
+ */
+public class LoadClient implements WebSocket.Listener, Runnable {
+
+    // 服务端每帧处理完成后发送的消息
+    static final String FRAME_DONE = "处理完成";
+
+    private final int index;
+    private final LoadConfig config;
+    private final WavAudio audio;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final LoadReport report;
+    private final LoadReport.Stats stats;
+    private final boolean slowReader;
+    private final long endNanos;
+
+    private final CountDownLatch initialized = new CountDownLatch(1);
+    private final StringBuilder text = new StringBuilder();
+    private volatile Pass pass;
+    private volatile boolean closed;
+    private volatile boolean closing;
+    // 服务端授予的剩余额度，未启用流量控制时为null
+    private Long credit;
+
+    /**
+     * 一遍音频的发送和接收状态
+     */
+    private static class Pass {
+        final long startNanos;
+        int sent;
+        int terminated;
+        boolean partialRecorded;
+        boolean finalRecorded;
+        boolean audioRecorded;
+
+        Pass(long startNanos) {
+            this.startNanos = startNanos;
+        }
+    }
+
+    public LoadClient(int index, LoadConfig config, WavAudio audio, HttpClient httpClient, ObjectMapper objectMapper,
+            LoadReport report, long endNanos) {
+        this.index = index;
+        this.config = config;
+        this.audio = audio;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.report = report;
+        this.slowReader = config.isSlowReader(index);
+        this.stats = report.stats(slowReader);
+        this.endNanos = endNanos;
+    }
+
+    @Override
+    public void run() {
+        WebSocket webSocket = connect();
+        if (webSocket == null) {
+            return;
+        }
+        stats.sessions.increment();
+        report.getActiveSessions().incrementAndGet();
+        try {
+            webSocket.sendText(initMessage(), true).get(config.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            if (!initialized.await(config.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS) || closed) {
+                stats.recordError(closed ? "init-closed" : "init-timeout");
+                return;
+            }
+            do {
+                runPass(webSocket);
+            } while (!closed && System.nanoTime() < endNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            stats.recordError("send-failed");
+        } catch (Exception e) {
+            stats.recordError("client-" + e.getClass().getSimpleName());
+        } finally {
+            report.getActiveSessions().decrementAndGet();
+            closing = true;
+            if (!closed) {
+                webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "load test finished");
+            }
+        }
+    }
+
+    private WebSocket connect() {
+        try {
+            return httpClient.newWebSocketBuilder()
+                    .connectTimeout(config.getConnectTimeout())
+                    .buildAsync(config.getUrl(), this)
+                    .get(config.getConnectTimeout().toMillis() * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // 节点饱和时握手阶段返回503
+            if (e.getCause() instanceof WebSocketHandshakeException handshake) {
+                stats.recordError("handshake-" + handshake.getResponse().statusCode());
+            } else {
+                stats.recordError("connect-failed");
+            }
+        } catch (TimeoutException e) {
+            stats.recordError("connect-timeout");
+        }
+        return null;
+    }
+
+    private String initMessage() throws Exception {
+        return objectMapper.writeValueAsString(Map.of(
+                "type", "INIT",
+                "request", Map.of(
+                        "sourceLanguage", config.getSourceLanguage(),
+                        "targetLanguage", config.getTargetLanguage(),
+                        "provider", config.getProvider(),
+                        "mode", config.getMode(),
+                        "audioFormat", "WAV",
+                        "sampleRate", audio.getSampleRate(),
+                        "sessionId", "load-" + index)));
+    }
+
+    /**
+     * 按实时速度发送一遍音频，并等待所有帧处理完成
+     */
+    private void runPass(WebSocket webSocket) throws Exception {
+        long frameNanos = TimeUnit.MILLISECONDS.toNanos(config.getFrameMillis());
+        Pass current = new Pass(System.nanoTime());
+        pass = current;
+        int frames = audio.frameCount(config.getFrameMillis());
+        for (int i = 0; i < frames && !closed; i++) {
+            parkUntil(current.startNanos + i * frameNanos);
+            byte[] frame = audio.frame(i, config.getFrameMillis());
+            if (!awaitCredit(frame.length)) {
+                stats.recordError("credit-timeout");
+                return;
+            }
+            webSocket.sendBinary(ByteBuffer.wrap(frame), true)
+                    .get(config.getPassTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            synchronized (this) {
+                current.sent++;
+            }
+            stats.frames.increment();
+            stats.bytes.add(frame.length);
+        }
+
+        long deadline = System.nanoTime() + config.getPassTimeout().toNanos();
+        synchronized (this) {
+            while (current.terminated < current.sent && !closed) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            if (current.terminated >= current.sent) {
+                stats.passes.increment();
+            } else if (!closed) {
+                stats.recordError("pass-timeout");
+            }
+        }
+    }
+
+    /**
+     * 启用流量控制时，额度不足则等待服务端补充，与行为正常的客户端一致
+     */
+    private synchronized boolean awaitCredit(int bytes) throws InterruptedException {
+        if (credit == null) {
+            return true;
+        }
+        if (credit < bytes) {
+            stats.creditStalls.increment();
+            long deadline = System.nanoTime() + config.getPassTimeout().toNanos();
+            while (credit < bytes && !closed) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        }
+        credit -= bytes;
+        return !closed;
+    }
+
+    private static void parkUntil(long nanos) {
+        long remaining;
+        while ((remaining = nanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        text.append(data);
+        if (last) {
+            String payload = text.toString();
+            text.setLength(0);
+            try {
+                onMessage(objectMapper.readTree(payload));
+            } catch (Exception e) {
+                stats.recordError("invalid-message");
+            }
+        }
+        return requestNext(webSocket);
+    }
+
+    @Override
+    public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
+        if (last) {
+            onResult(!"speech-to-text".equals(config.getMode()));
+        }
+        return requestNext(webSocket);
+    }
+
+    private void onMessage(JsonNode message) {
+        String type = message.path("type").asText();
+        switch (type) {
+            case "INIT" -> {
+                synchronized (this) {
+                    credit = message.hasNonNull("credit") ? message.get("credit").asLong() : null;
+                }
+                initialized.countDown();
+            }
+            case "CREDIT" -> {
+                synchronized (this) {
+                    if (credit != null) {
+                        credit += message.path("credit").asLong();
+                    }
+                    notifyAll();
+                }
+            }
+            case "THROTTLE" -> {
+                // 帧被服务端丢弃，按服务端告知的可用额度校正
+                stats.recordError("throttled");
+                synchronized (this) {
+                    credit = message.path("credit").asLong();
+                    frameTerminated();
+                }
+            }
+            case "ERROR" -> {
+                stats.recordError("error-" + message.path("errorCode").asText("server"));
+                synchronized (this) {
+                    frameTerminated();
+                }
+            }
+            case "TRANSLATION" -> onResult(false);
+            case "AUDIO_RESULT" -> onResult(true);
+            case "TEXT_RESULT" -> {
+                if (FRAME_DONE.equals(message.path("message").asText())) {
+                    synchronized (this) {
+                        Pass current = pass;
+                        if (current != null && !current.finalRecorded) {
+                            current.finalRecorded = true;
+                            stats.recordFirstFinal(System.nanoTime() - current.startNanos);
+                        }
+                        frameTerminated();
+                    }
+                }
+            }
+            default -> {
+                // 欢迎消息、心跳等与结果无关的消息
+            }
+        }
+    }
+
+    private synchronized void onResult(boolean isAudio) {
+        Pass current = pass;
+        if (current == null) {
+            return;
+        }
+        long elapsed = System.nanoTime() - current.startNanos;
+        if (!current.partialRecorded) {
+            current.partialRecorded = true;
+            stats.recordFirstPartial(elapsed);
+        }
+        if (isAudio && !current.audioRecorded) {
+            current.audioRecorded = true;
+            stats.recordFirstAudio(elapsed);
+        }
+    }
+
+    private void frameTerminated() {
+        Pass current = pass;
+        if (current != null) {
+            current.terminated++;
+        }
+        notifyAll();
+    }
+
+    /**
+     * 慢读客户端延迟请求下一条消息，未读取的消息积压在TCP缓冲区，服务端的发送随之变慢
+     */
+    private CompletionStage<?> requestNext(WebSocket webSocket) {
+        if (slowReader) {
+            CompletableFuture.delayedExecutor(config.getReadDelay().toMillis(), TimeUnit.MILLISECONDS)
+                    .execute(() -> webSocket.request(1));
+        } else {
+            webSocket.request(1);
+        }
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        if (!closing) {
+            stats.recordError("closed-" + statusCode);
+        }
+        markClosed();
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        if (!closing) {
+            stats.recordError("transport-" + error.getClass().getSimpleName());
+        }
+        markClosed();
+    }
+
+    private synchronized void markClosed() {
+        closed = true;
+        initialized.countDown();
+        notifyAll();
+    }
+}
@@ -0,0 +1,222 @@
+package com.translation.loadgen;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 压测配置，由命令行参数 --key=value 解析得到
+ * 先按场景设置默认值，再由显式参数覆盖
+ */
+public class LoadConfig {
+
+    /**
+     * 压测场景
+     */
+    public enum Scenario {
+        /**
+         * 在爬坡时间内逐个建立会话，每个会话发送一遍音频后断开，用于寻找并发上限
+         */
+        RAMP_UP,
+
+        /**
+         * 会话建立后循环发送音频直到持续时间结束，用于观察长时间运行下的延迟和错误
+         */
+        SOAK,
+
+        /**
+         * 与SOAK相同，但一部分客户端读取很慢，用于观察慢客户端对其他会话的影响
+         */
+        SLOW_READER;
+
+        static Scenario parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    private URI url = URI.create("ws://localhost:8080/ws/speech");
+    private Scenario scenario = Scenario.RAMP_UP;
+    private int sessions = 50;
+    private Duration rampUp = Duration.ofSeconds(30);
+    /**
+     * 会话循环发送音频的持续时间，为零时每个会话只发送一遍
+     */
+    private Duration duration = Duration.ZERO;
+    private long frameMillis = 1000;
+    private Path audio = Path.of("../src/test/resources/test-audio.wav");
+    private String mode = "speech-to-speech";
+    private String provider = "microsoft";
+    private String sourceLanguage = "zh-CN";
+    private String targetLanguage = "en-US";
+    /**
+     * 慢读客户端所占比例
+     */
+    private double slowReaders = 0;
+    /**
+     * 慢读客户端每读取一条消息后的等待时间
+     */
+    private Duration readDelay = Duration.ofMillis(500);
+    /**
+     * 一遍音频发送完后等待全部帧处理完成的最长时间
+     */
+    private Duration passTimeout = Duration.ofSeconds(60);
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    private Duration reportInterval = Duration.ofSeconds(10);
+
+    /**
+     * 解析命令行参数
+     */
+    public static LoadConfig parse(String... args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("无法识别的参数: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+
+        LoadConfig config = new LoadConfig();
+        String scenario = options.remove("scenario");
+        if (scenario != null) {
+            config.applyScenario(Scenario.parse(scenario));
+        }
+        options.forEach(config::set);
+        return config;
+    }
+
+    private void applyScenario(Scenario scenario) {
+        this.scenario = scenario;
+        if (scenario == Scenario.SOAK || scenario == Scenario.SLOW_READER) {
+            rampUp = Duration.ofSeconds(10);
+            duration = Duration.ofMinutes(10);
+        }
+        if (scenario == Scenario.SLOW_READER) {
+            slowReaders = 0.2;
+        }
+    }
+
+    private void set(String key, String value) {
+        switch (key) {
+            case "url" -> url = URI.create(value);
+            case "sessions" -> sessions = Integer.parseInt(value);
+            case "ramp-up" -> rampUp = parseDuration(value);
+            case "duration" -> duration = parseDuration(value);
+            case "frame-millis" -> frameMillis = Long.parseLong(value);
+            case "audio" -> audio = Path.of(value);
+            case "mode" -> mode = value;
+            case "provider" -> provider = value;
+            case "source-language" -> sourceLanguage = value;
+            case "target-language" -> targetLanguage = value;
+            case "slow-readers" -> slowReaders = Double.parseDouble(value);
+            case "read-delay" -> readDelay = parseDuration(value);
+            case "pass-timeout" -> passTimeout = parseDuration(value);
+            case "connect-timeout" -> connectTimeout = parseDuration(value);
+            case "report-interval" -> reportInterval = parseDuration(value);
+            default -> throw new IllegalArgumentException("未知参数: --" + key);
+        }
+    }
+
+    /**
+     * 解析时长，支持 ms、s、m、h 后缀，不带后缀时按秒计算
+     */
+    static Duration parseDuration(String value) {
+        String text = value.trim().toLowerCase(Locale.ROOT);
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        } else if (text.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(text.substring(0, text.length() - 1)));
+        } else if (text.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(text.substring(0, text.length() - 1)));
+        } else if (text.endsWith("h")) {
+            return Duration.ofHours(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(text));
+    }
+
+    /**
+     * 第index个会话是否为慢读客户端，按比例均匀分布在所有会话中
+     */
+    public boolean isSlowReader(int index) {
+        return Math.floor((index + 1) * slowReaders) > Math.floor(index * slowReaders);
+    }
+
+    public URI getUrl() {
+        return url;
+    }
+
+    public Scenario getScenario() {
+        return scenario;
+    }
+
+    public int getSessions() {
+        return sessions;
+    }
+
+    public Duration getRampUp() {
+        return rampUp;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public long getFrameMillis() {
+        return frameMillis;
+    }
+
+    public Path getAudio() {
+        return audio;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public String getSourceLanguage() {
+        return sourceLanguage;
+    }
+
+    public String getTargetLanguage() {
+        return targetLanguage;
+    }
+
+    public double getSlowReaders() {
+        return slowReaders;
+    }
+
+    public Duration getReadDelay() {
+        return readDelay;
+    }
+
+    public Duration getPassTimeout() {
+        return passTimeout;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public Duration getReportInterval() {
+        return reportInterval;
+    }
+
+    @Override
+    public String toString() {
+        return "场景=" + scenario + ", 地址=" + url + ", 会话数=" + sessions + ", 爬坡=" + rampUp
+                + ", 持续=" + duration + ", 帧时长=" + frameMillis + "ms, 模式=" + mode + ", 提供商=" + provider
+                + ", " + sourceLanguage + "->" + targetLanguage + ", 慢读比例=" + slowReaders
+                + ", 慢读间隔=" + readDelay;
+    }
+}
@@ -0,0 +1,80 @@
+package com.translation.loadgen;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * /ws/speech 的压测入口
+ * <p>
+ * 示例：
+ * <pre>
+ * java -jar target/load-generator.jar --scenario=ramp-up --sessions=200 --ramp-up=60s
+ * java -jar target/load-generator.jar --scenario=soak --sessions=50 --duration=30m
+ * java -jar target/load-generator.jar --scenario=slow-reader --sessions=50 --slow-readers=0.1 --read-delay=2s
+ * </pre>
+ * 被测服务可使用 speech.engine.type=simulated 启动，不消耗云端配额
+ */
+public class LoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.parse(args);
+        WavAudio audio = WavAudio.read(config.getAudio());
+        System.out.printf("开始压测: %s%n音频: %s, 时长=%dms, 每轮%d帧%n", config, config.getAudio(),
+                audio.getDurationMillis(), audio.frameCount(config.getFrameMillis()));
+
+        LoadReport report = new LoadReport();
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + config.getRampUp().toNanos() + config.getDuration().toNanos();
+        AtomicBoolean printed = new AtomicBoolean(false);
+        Runnable printReport = () -> {
+            if (printed.compareAndSet(false, true)) {
+                report.print(System.out, config, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            }
+        };
+        // 提前结束（Ctrl+C）时也输出已收集的结果
+        Runtime.getRuntime().addShutdownHook(new Thread(printReport));
+
+        ExecutorService sessions = Executors.newCachedThreadPool(daemon("load-session"));
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(daemon("load-progress"));
+        long interval = config.getReportInterval().toMillis();
+        progress.scheduleAtFixedRate(
+                () -> report.printProgress(System.out, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)),
+                interval, interval, TimeUnit.MILLISECONDS);
+
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(config.getConnectTimeout()).build();
+        ObjectMapper objectMapper = new ObjectMapper();
+        // 会话在爬坡时间内均匀建立
+        long rampStep = config.getRampUp().toNanos() / Math.max(1, config.getSessions());
+        for (int i = 0; i < config.getSessions(); i++) {
+            long startAt = startNanos + i * rampStep;
+            long remaining;
+            while ((remaining = startAt - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(remaining);
+            }
+            sessions.execute(new LoadClient(i, config, audio, httpClient, objectMapper, report, endNanos));
+        }
+
+        sessions.shutdown();
+        while (!sessions.awaitTermination(1, TimeUnit.SECONDS)) {
+            // 等待所有会话结束
+        }
+        progress.shutdownNow();
+        printReport.run();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
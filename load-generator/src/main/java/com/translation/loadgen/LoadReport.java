@@ -0,0 +1,131 @@
+package com.translation.loadgen;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * 压测结果统计，正常客户端和慢读客户端分开统计
+ * 慢读客户端收到消息的时间受自身读取速度影响，不应混入正常客户端的延迟分布
+ */
+public class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    private final Stats normal = new Stats();
+    private final Stats slow = new Stats();
+    private final AtomicInteger activeSessions = new AtomicInteger();
+
+    public Stats stats(boolean slowReader) {
+        return slowReader ? slow : normal;
+    }
+
+    public AtomicInteger getActiveSessions() {
+        return activeSessions;
+    }
+
+    /**
+     * 一组客户端的统计
+     */
+    public static class Stats {
+        // 以微秒记录，最长10分钟，3位有效数字
+        private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+        final Histogram firstPartial = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        final Histogram firstFinal = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        final Histogram firstAudio = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        final LongAdder sessions = new LongAdder();
+        final LongAdder passes = new LongAdder();
+        final LongAdder frames = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        final LongAdder creditStalls = new LongAdder();
+        final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        void recordFirstPartial(long nanos) {
+            record(firstPartial, nanos);
+        }
+
+        void recordFirstFinal(long nanos) {
+            record(firstFinal, nanos);
+        }
+
+        void recordFirstAudio(long nanos) {
+            record(firstAudio, nanos);
+        }
+
+        void recordError(String kind) {
+            errors.computeIfAbsent(kind, key -> new LongAdder()).increment();
+        }
+
+        long errorCount() {
+            return errors.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+        private static void record(Histogram histogram, long nanos) {
+            histogram.recordValue(Math.min(HIGHEST_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos))));
+        }
+    }
+
+    /**
+     * 运行过程中的简要进度
+     */
+    public void printProgress(PrintStream out, long elapsedMillis) {
+        out.printf("[%6.1fs] 活跃会话=%d, 已发送帧=%d, 完成轮次=%d, 错误=%d, 首个结果p99=%.1fms%n",
+                elapsedMillis / 1000.0, activeSessions.get(),
+                normal.frames.sum() + slow.frames.sum(), normal.passes.sum() + slow.passes.sum(),
+                normal.errorCount() + slow.errorCount(), millis(normal.firstPartial, 99));
+    }
+
+    /**
+     * 输出最终报告
+     */
+    public void print(PrintStream out, LoadConfig config, long elapsedMillis) {
+        out.println();
+        out.println("==== 压测报告 ====");
+        out.println(config);
+        out.printf("总耗时: %.1fs%n", elapsedMillis / 1000.0);
+        print(out, "正常客户端", normal);
+        if (slow.sessions.sum() > 0) {
+            print(out, "慢读客户端", slow);
+        }
+    }
+
+    private void print(PrintStream out, String title, Stats stats) {
+        out.println();
+        out.printf("-- %s: 会话=%d, 完成轮次=%d, 发送帧=%d, 发送音频=%.1fKB, 等待额度=%d次%n", title,
+                stats.sessions.sum(), stats.passes.sum(), stats.frames.sum(), stats.bytes.sum() / 1024.0,
+                stats.creditStalls.sum());
+        out.printf("%-16s %8s %10s %10s %10s %10s %10s %10s%n", "指标(ms)", "样本数", "p50", "p90", "p95", "p99",
+                "p99.9", "max");
+        printHistogram(out, "首个中间结果", stats.firstPartial);
+        printHistogram(out, "首个最终结果", stats.firstFinal);
+        printHistogram(out, "首个音频", stats.firstAudio);
+        if (stats.errors.isEmpty()) {
+            out.println("错误: 无");
+        } else {
+            Map<String, Long> sorted = new TreeMap<>();
+            stats.errors.forEach((kind, count) -> sorted.put(kind, count.sum()));
+            out.println("错误: " + sorted);
+        }
+    }
+
+    private static void printHistogram(PrintStream out, String name, Histogram histogram) {
+        StringBuilder line = new StringBuilder(String.format("%-16s %8d", name, histogram.getTotalCount()));
+        for (double percentile : PERCENTILES) {
+            line.append(String.format(" %10.1f", millis(histogram, percentile)));
+        }
+        line.append(String.format(" %10.1f", histogram.getTotalCount() == 0 ? 0 : histogram.getMaxValue() / 1000.0));
+        out.println(line);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() == 0 ? 0 : histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
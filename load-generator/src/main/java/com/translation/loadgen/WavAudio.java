@@ -0,0 +1,129 @@
+package com.translation.loadgen;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * 压测使用的PCM WAV音频，按时长切分为若干帧
+ * 每帧都带有独立的WAV文件头，与浏览器端每次发送一段完整录音的行为一致
+ */
+public class WavAudio {
+
+    private static final int HEADER_BYTES = 44;
+
+    private final int sampleRate;
+    private final int channels;
+    private final int bitsPerSample;
+    private final byte[] pcm;
+
+    WavAudio(int sampleRate, int channels, int bitsPerSample, byte[] pcm) {
+        this.sampleRate = sampleRate;
+        this.channels = channels;
+        this.bitsPerSample = bitsPerSample;
+        this.pcm = pcm;
+    }
+
+    /**
+     * 读取WAV文件，只支持未压缩的PCM格式
+     */
+    public static WavAudio read(Path path) throws IOException {
+        return parse(Files.readAllBytes(path));
+    }
+
+    static WavAudio parse(byte[] file) {
+        ByteBuffer buffer = ByteBuffer.wrap(file).order(ByteOrder.LITTLE_ENDIAN);
+        if (file.length < 12 || !"RIFF".equals(tag(buffer, 0)) || !"WAVE".equals(tag(buffer, 8))) {
+            throw new IllegalArgumentException("不是WAV文件");
+        }
+        Integer sampleRate = null;
+        int channels = 0;
+        int bitsPerSample = 0;
+        // fmt块的长度不固定（16或18字节等），按块逐个解析
+        int offset = 12;
+        while (offset + 8 <= file.length) {
+            String id = tag(buffer, offset);
+            int size = buffer.getInt(offset + 4);
+            int body = offset + 8;
+            if ("fmt ".equals(id)) {
+                if (buffer.getShort(body) != 1) {
+                    throw new IllegalArgumentException("只支持PCM格式的WAV文件");
+                }
+                channels = buffer.getShort(body + 2);
+                sampleRate = buffer.getInt(body + 4);
+                bitsPerSample = buffer.getShort(body + 14);
+            } else if ("data".equals(id)) {
+                if (sampleRate == null) {
+                    throw new IllegalArgumentException("WAV文件缺少fmt块");
+                }
+                int end = Math.min(file.length, body + size);
+                return new WavAudio(sampleRate, channels, bitsPerSample, Arrays.copyOfRange(file, body, end));
+            }
+            // 块按偶数字节对齐
+            offset = body + size + (size & 1);
+        }
+        throw new IllegalArgumentException("WAV文件缺少data块");
+    }
+
+    private static String tag(ByteBuffer buffer, int offset) {
+        byte[] bytes = new byte[4];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * 每秒的PCM字节数
+     */
+    public int getBytesPerSecond() {
+        return sampleRate * channels * bitsPerSample / 8;
+    }
+
+    /**
+     * 音频时长（毫秒）
+     */
+    public long getDurationMillis() {
+        return pcm.length * 1000L / getBytesPerSecond();
+    }
+
+    /**
+     * 按帧时长切分后的帧数
+     */
+    public int frameCount(long frameMillis) {
+        int frameBytes = frameBytes(frameMillis);
+        return (pcm.length + frameBytes - 1) / frameBytes;
+    }
+
+    /**
+     * 第index帧，带WAV文件头
+     */
+    public byte[] frame(int index, long frameMillis) {
+        int frameBytes = frameBytes(frameMillis);
+        int from = index * frameBytes;
+        int length = Math.min(frameBytes, pcm.length - from);
+        ByteBuffer wav = ByteBuffer.allocate(HEADER_BYTES + length).order(ByteOrder.LITTLE_ENDIAN);
+        int blockAlign = channels * bitsPerSample / 8;
+        wav.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(36 + length)
+                .put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        wav.put("fmt ".getBytes(StandardCharsets.US_ASCII)).putInt(16).putShort((short) 1)
+                .putShort((short) channels).putInt(sampleRate).putInt(getBytesPerSecond())
+                .putShort((short) blockAlign).putShort((short) bitsPerSample);
+        wav.put("data".getBytes(StandardCharsets.US_ASCII)).putInt(length);
+        wav.put(pcm, from, length);
+        return wav.array();
+    }
+
+    private int frameBytes(long frameMillis) {
+        int blockAlign = Math.max(1, channels * bitsPerSample / 8);
+        // 帧边界对齐到采样点
+        long bytes = getBytesPerSecond() * frameMillis / 1000 / blockAlign * blockAlign;
+        return (int) Math.max(blockAlign, bytes);
+    }
+}
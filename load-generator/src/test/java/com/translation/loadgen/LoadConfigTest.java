@@ -0,0 +1,42 @@
+package com.translation.loadgen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+public class LoadConfigTest {
+
+    @Test
+    public void testScenarioDefaultsCanBeOverridden() {
+        LoadConfig config = LoadConfig.parse("--sessions=20", "--scenario=slow-reader", "--duration=90s",
+                "--read-delay=2s");
+
+        assertEquals(LoadConfig.Scenario.SLOW_READER, config.getScenario());
+        assertEquals(20, config.getSessions());
+        assertEquals(Duration.ofSeconds(90), config.getDuration());
+        assertEquals(Duration.ofSeconds(10), config.getRampUp());
+        assertEquals(Duration.ofSeconds(2), config.getReadDelay());
+        assertEquals(0.2, config.getSlowReaders());
+    }
+
+    @Test
+    public void testSlowReadersAreSpreadEvenly() {
+        LoadConfig config = LoadConfig.parse("--sessions=10", "--slow-readers=0.3");
+
+        long slow = IntStream.range(0, 10).filter(config::isSlowReader).count();
+        assertEquals(3, slow);
+        assertEquals(0, IntStream.range(0, 10).filter(LoadConfig.parse()::isSlowReader).count());
+    }
+
+    @Test
+    public void testParseDuration() {
+        assertEquals(Duration.ofMillis(250), LoadConfig.parseDuration("250ms"));
+        assertEquals(Duration.ofSeconds(30), LoadConfig.parseDuration("30"));
+        assertEquals(Duration.ofMinutes(5), LoadConfig.parseDuration("5m"));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parse("--unknown=1"));
+    }
+}
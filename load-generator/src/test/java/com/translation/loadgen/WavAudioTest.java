@@ -0,0 +1,49 @@
+package com.translation.loadgen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+public class WavAudioTest {
+
+    @Test
+    public void testReadsTestAudio() throws Exception {
+        // 仓库中的测试音频：16kHz 16位单声道，fmt块长度为18字节
+        WavAudio audio = WavAudio.read(Path.of("../src/test/resources/test-audio.wav"));
+
+        assertEquals(16000, audio.getSampleRate());
+        assertEquals(32000, audio.getBytesPerSecond());
+        assertEquals(7, audio.frameCount(1000));
+    }
+
+    @Test
+    public void testFramesCarryStandaloneHeaders() {
+        WavAudio audio = new WavAudio(16000, 1, 16, new byte[80000]);
+
+        // 2.5秒音频按1秒切分为3帧，最后一帧不足1秒
+        assertEquals(3, audio.frameCount(1000));
+        byte[] first = audio.frame(0, 1000);
+        byte[] last = audio.frame(2, 1000);
+        assertEquals(44 + 32000, first.length);
+        assertEquals(44 + 16000, last.length);
+
+        ByteBuffer header = ByteBuffer.wrap(last).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals("RIFF", new String(last, 0, 4));
+        assertEquals(36 + 16000, header.getInt(4));
+        assertEquals(16000, header.getInt(24));
+        assertEquals(16000, header.getInt(40));
+
+        // 帧大小对齐到采样点
+        assertEquals(44 + 3232, audio.frame(0, 101).length);
+    }
+
+    @Test
+    public void testRejectsNonPcm() {
+        assertThrows(IllegalArgumentException.class, () -> WavAudio.parse(new byte[] {1, 2, 3}));
+    }
+}
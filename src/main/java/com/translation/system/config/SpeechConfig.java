@@ -1,9 +1,14 @@
 package com.translation.system.config;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 /**
  * 语音服务配置
@@ -27,7 +32,15 @@ public static class Microsoft {
         private String translatorKey;
         // Azure 翻译API区域/位置
         private String translatorRegion;
-        
+        // Azure 翻译API地址
+        private String translatorEndpoint = "https://api.cognitive.microsofttranslator.com";
+        // 单次翻译请求最多包含的文本片段数（API上限1000）
+        private int translatorMaxBatchSize = 100;
+        // 单次翻译请求最多包含的字符数（API上限50000）
+        private int translatorMaxBatchChars = 10000;
+        // 翻译请求超时时间（毫秒）
+        private long translatorTimeoutMillis = 10000;
+
         // 语音识别配置
         private Recognition recognition = new Recognition();
         // 语音合成配置
@@ -45,6 +58,12 @@ public static class Synthesis {
             private String language = "zh-CN";
             // 默认合成声音
             private String voiceName = "zh-CN-XiaoxiaoNeural";
+            // 各目标语言的默认合成声音，请求未指定声音时使用
+            private Map<String, String> voices = new LinkedHashMap<>(Map.of(
+                    "en-US", "en-US-JennyNeural",
+                    "ja-JP", "ja-JP-NanamiNeural",
+                    "ko-KR", "ko-KR-SunHiNeural",
+                    "zh-CN", "zh-CN-XiaoxiaoNeural"));
         }
     }
     
@@ -63,5 +82,149 @@ public static class OpenAI {
         private String voice = "alloy";
         // 默认语速
         private double speed = 1.0;
+
+        // API基础地址（测试时可指向本地桩服务器）
+        private String baseUrl = "https://api.openai.com/v1";
+        // 同时进行中的最大HTTP请求数，超出的请求排队等待
+        private int maxInFlight = 32;
+        // 单个请求超时时间（毫秒），分别作用于排队等待许可和等待响应头
+        private long requestTimeoutMillis = 30000;
+        // 连接超时时间（毫秒）
+        private long connectTimeoutMillis = 10000;
+        // 是否优先使用HTTP/2（服务端不支持时自动回退到HTTP/1.1）
+        private boolean http2 = true;
+    }
+    
+    /**
+     * 对冲请求配置：主服务在动态阈值内没有返回首个结果时，向备用服务发出相同请求，采用先返回的结果
+     */
+    @Data
+    @Configuration
+    @ConfigurationProperties(prefix = "speech.hedging")
+    public static class Hedging {
+        // 是否注册 "hedged" 服务提供者
+        private boolean enabled = true;
+        // 主服务提供者
+        private String primary = "microsoft";
+        // 备用服务提供者
+        private String secondary = "openai";
+        // 对冲阈值取主服务首个结果延迟的分位数
+        private double percentile = 0.95;
+        // 延迟样本不足时使用的对冲阈值（毫秒）
+        private long defaultDelayMillis = 1000;
+        // 对冲阈值下限（毫秒）
+        private long minDelayMillis = 50;
+        // 计算分位数至少需要的样本数
+        private int minSamples = 20;
+        // 每种操作保留的最近延迟样本数
+        private int windowSize = 256;
+        // 对冲请求占总请求的最大比例
+        private double maxHedgeRatio = 0.1;
+        // 允许连续发出的最大对冲请求数
+        private int maxHedgeBurst = 10;
+    }
+    
+    /**
+     * 自适应路由配置：未指定服务提供者（或指定 "auto"）的请求按各服务的预测延迟选择
+     */
+    @Data
+    @Configuration
+    @ConfigurationProperties(prefix = "speech.routing")
+    public static class Routing {
+        // EWMA平滑系数，越大越偏重最近的请求
+        private double ewmaAlpha = 0.2;
+        // 错误率（EWMA）达到该值时熔断
+        private double errorRateThreshold = 0.5;
+        // 至少完成多少次请求后才会熔断
+        private int minRequests = 10;
+        // 熔断持续时间（毫秒），之后放行一个试探请求
+        private long openMillis = 30000;
+        // 是否对空闲的服务发送合成探测请求
+        private boolean probeEnabled = false;
+        // 探测检查间隔（毫秒）
+        private long probeIntervalMillis = 30000;
+        // 服务空闲超过该时间（毫秒）才发送探测请求
+        private long probeIdleMillis = 60000;
+        // 探测使用的合成文本
+        private String probeText = "你好";
+        // 探测使用的合成语言
+        private String probeLanguage = "zh-CN";
+    }
+    
+    /**
+     * 服务提供者隔离舱配置：每个服务提供者的并发上限按观测到的延迟自适应调整（AIMD），
+     * 达到上限的请求立即拒绝而不是排队
+     */
+    @Data
+    @Configuration
+    @ConfigurationProperties(prefix = "speech.bulkhead")
+    public static class Bulkhead {
+        // 是否启用
+        private boolean enabled = true;
+        // 初始并发上限
+        private int initialLimit = 20;
+        // 并发上限的下限
+        private int minLimit = 2;
+        // 并发上限的上限
+        private int maxLimit = 200;
+        // 延迟超出基线或请求失败时并发上限乘以该系数
+        private double backoffRatio = 0.9;
+        // 首个结果延迟超过基线的多少倍视为拥塞
+        private double latencyTolerance = 2.0;
+        // 基线延迟取最近一个窗口内的最小值，窗口包含的样本数
+        private int baselineWindow = 100;
+    }
+    
+    /**
+     * 语音引擎配置：Microsoft语音服务通过引擎端口访问底层引擎，
+     * azure 使用Azure Speech SDK，simulated 使用本地模拟引擎（不访问外部服务，用于离线压测和测试）
+     */
+    @Data
+    @Configuration
+    @ConfigurationProperties(prefix = "speech.engine")
+    public static class Engine {
+        // 引擎类型：azure 或 simulated
+        private String type = "azure";
+        // 模拟引擎配置
+        private Simulated simulated = new Simulated();
+        
+        @Data
+        public static class Simulated {
+            // 随机种子，决定延迟和错误注入的随机序列；识别和翻译的文本只由输入音频决定
+            private long seed = 42;
+            // 每句话对应的音频字节数，决定一段音频识别出几句话（默认16kHz 16位单声道3秒）
+            private int bytesPerUtterance = 96000;
+            // 中间识别结果的发送间隔（毫秒），0表示不发送
+            private long partialIntervalMillis = 200;
+            // 每句话的识别延迟
+            private Latency recognition = new Latency(300, 0.5, 3000);
+            // 每句话的翻译延迟（在识别延迟之后）
+            private Latency translation = new Latency(80, 0.3, 1000);
+            // 合成首帧延迟
+            private Latency synthesis = new Latency(150, 0.4, 2000);
+            // 合成音频每个字符对应的字节数（默认16kHz 16位单声道约150毫秒）
+            private int synthesisBytesPerChar = 4800;
+            // 合成音频每帧的字节数
+            private int synthesisChunkBytes = 8192;
+            // 各阶段的错误注入概率
+            private double recognitionErrorRate = 0.0;
+            private double translationErrorRate = 0.0;
+            private double synthesisErrorRate = 0.0;
+        }
+        
+        /**
+         * 延迟分布：对数正态分布，由中位数和形状参数确定
+         */
+        @Data
+        @NoArgsConstructor
+        @AllArgsConstructor
+        public static class Latency {
+            // 延迟中位数（毫秒）
+            private long medianMillis;
+            // 形状参数，越大长尾越明显，0表示固定延迟
+            private double sigma;
+            // 延迟上限（毫秒）
+            private long maxMillis;
+        }
     }
-} 
\ No newline at end of file
+}
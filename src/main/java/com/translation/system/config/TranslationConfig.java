@@ -0,0 +1,151 @@
+package com.translation.system.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * 文本翻译流水线配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "translation")
+public class TranslationConfig {
+
+    // 翻译记忆配置
+    private Memory memory = new Memory();
+    // 模糊匹配配置
+    private Fuzzy fuzzy = new Fuzzy();
+    // 批量合并配置
+    private Batching batching = new Batching();
+    // 广播房间配置
+    private Broadcast broadcast = new Broadcast();
+    // 离线兜底翻译配置
+    private Fallback fallback = new Fallback();
+    // 音频流量控制配置
+    private FlowControl flowControl = new FlowControl();
+    // 连接准入控制配置
+    private Admission admission = new Admission();
+    // 音频帧日志采样配置
+    private LogSampling logSampling = new LogSampling();
+    // 批量转写配置
+    private BatchTranscription batchTranscription = new BatchTranscription();
+
+    @Data
+    public static class Memory {
+        // 是否启用翻译记忆
+        private boolean enabled = true;
+        // 最多缓存的句段数，超出后按最近最少使用淘汰
+        private long maxEntries = 100000;
+        // 句段未被访问多久后过期（分钟），0表示不过期
+        private long expireAfterAccessMinutes = 1440;
+    }
+
+    @Data
+    public static class Fuzzy {
+        // 是否启用模糊匹配（近似句段复用已有译文）
+        private boolean enabled = false;
+        // 相似度阈值（字符n-gram的Jaccard相似度），达到阈值才复用译文
+        private double threshold = 0.8;
+        // 字符n-gram长度
+        private int ngramSize = 3;
+        // LSH分段数
+        private int bands = 8;
+        // 每段包含的MinHash值个数
+        private int rows = 3;
+        // 每个语言对最多索引的句段数，超出后覆盖最早的句段
+        private int maxSegments = 1000000;
+        // 每次查找最多校验的候选句段数
+        private int maxCandidates = 64;
+    }
+
+    @Data
+    public static class Batching {
+        // 是否合并不同会话同一语言对的翻译请求
+        private boolean enabled = true;
+        // 收集请求的最长等待时间（毫秒）
+        private long windowMillis = 10;
+        // 单批最多句段数，达到后立即发送
+        private int maxBatchSize = 32;
+    }
+
+    @Data
+    public static class Broadcast {
+        // 每个房间最多的听众数
+        private int maxListenersPerRoom = 1000;
+        // 向单个会话（包括广播听众）发送一条消息的最长时间（毫秒），超时后断开该会话
+        private int sendTimeLimitMillis = 5000;
+        // 单个会话待发送消息的缓冲上限（字节），需大于大消息的分块（500KB），超出后断开该会话而不丢弃消息
+        private int sessionBufferSizeLimit = 2 * 1024 * 1024;
+        // 单个听众待发送广播消息的缓冲上限（字节），超出后丢弃该听众最早的广播消息
+        private int bufferSizeLimit = 512 * 1024;
+    }
+
+    @Data
+    public static class Fallback {
+        // 翻译服务失败或处于冷却期时是否使用离线短语表翻译
+        private boolean enabled = true;
+        // 翻译服务失败后多长时间内（毫秒）直接使用离线翻译，不再等待服务超时
+        private long cooldownMillis = 30000;
+        // 语言对（如 zh-en）-> 短语表位置，.tsv 在启动时编译，.phr 为已编译文件直接映射
+        private Map<String, String> tables = new LinkedHashMap<>(Map.of(
+                "zh-en", "classpath:phrases/zh-en.tsv",
+                "en-zh", "classpath:phrases/en-zh.tsv"));
+        // 编译后短语表文件的存放目录，为空时使用系统临时目录
+        private String cacheDirectory;
+    }
+
+    @Data
+    public static class FlowControl {
+        // 是否对WebSocket音频流启用基于额度的流量控制
+        private boolean enabled = true;
+        // 每个会话可以未处理完的音频字节数（窗口大小），初始化时全部授予客户端
+        private long windowBytes = 1024 * 1024;
+        // 累计释放的额度达到窗口的该比例时才发送CREDIT，避免每帧一条消息
+        private double updateRatio = 0.5;
+        // 连续超额多少次后建议客户端降低采样率
+        private int overrunsBeforeDownsample = 3;
+        // 建议客户端使用的采样率
+        private int downsampleRate = 8000;
+    }
+
+    @Data
+    public static class Admission {
+        // 是否在WebSocket握手时检查节点容量
+        private boolean enabled = true;
+        // 最多同时保持的会话数
+        private int maxSessions = 500;
+        // 最多同时处理的音频帧数
+        private int maxInFlightFrames = 200;
+        // 上次GC后堆内存剩余比例低于该值时拒绝新连接
+        private double minHeapHeadroom = 0.1;
+        // 所有语音服务都已饱和时是否拒绝新连接
+        private boolean rejectWhenProvidersSaturated = true;
+        // 拒绝时Retry-After响应头的秒数
+        private int retryAfterSeconds = 5;
+    }
+
+    @Data
+    public static class LogSampling {
+        // 是否对每帧音频的INFO日志按会话采样，关闭时每帧都输出
+        private boolean enabled = true;
+        // 每个会话两次输出之间的最短间隔（毫秒），会话的第一帧总是输出
+        private long intervalMillis = 5000;
+    }
+
+    @Data
+    public static class BatchTranscription {
+        // 一个批量请求中同时处理的文件数上限，请求参数只能调低
+        private int maxConcurrency = 8;
+        // 一个批量请求最多包含的文件数
+        private int maxFiles = 5000;
+        // 服务并发已满时单个文件的重试次数，用尽后该文件记为失败
+        private int overloadRetries = 3;
+        // 第一次重试前的等待时间（毫秒），之后按指数退避
+        private long overloadBackoffMillis = 200;
+    }
+}
@@ -12,6 +12,7 @@
 import org.springframework.web.socket.sockjs.transport.handler.SockJsWebSocketHandler;
 import org.springframework.web.socket.sockjs.transport.TransportHandlingSockJsService;
 
+import com.translation.system.handler.AdmissionControlInterceptor;
 import com.translation.system.handler.TranslationWebSocketHandler;
 
 @Configuration
@@ -20,9 +21,12 @@
 public class WebSocketConfig implements WebSocketConfigurer {
     
     private final TranslationWebSocketHandler translationWebSocketHandler;
+    private final AdmissionControlInterceptor admissionControlInterceptor;
     
-    public WebSocketConfig(TranslationWebSocketHandler translationWebSocketHandler) {
+    public WebSocketConfig(TranslationWebSocketHandler translationWebSocketHandler, 
+            AdmissionControlInterceptor admissionControlInterceptor) {
         this.translationWebSocketHandler = translationWebSocketHandler;
+        this.admissionControlInterceptor = admissionControlInterceptor;
     }
     
     @Override
@@ -30,11 +34,13 @@ public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
         registry.addHandler(translationWebSocketHandler, "/ws/speech")
                 .setAllowedOriginPatterns("*") // 使用模式匹配代替通配符
                 .setHandshakeHandler(new DefaultHandshakeHandler())
-                .addInterceptors(new HttpSessionHandshakeInterceptor());
+                // 容量不足时在握手阶段返回503，不建立连接
+                .addInterceptors(admissionControlInterceptor, new HttpSessionHandshakeInterceptor());
                 
         // 添加SockJS支持
         registry.addHandler(translationWebSocketHandler, "/sockjs/speech")
                 .setAllowedOriginPatterns("*")
+                .addInterceptors(admissionControlInterceptor)
                 .withSockJS();
     }
     
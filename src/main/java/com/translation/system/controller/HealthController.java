@@ -5,9 +5,30 @@
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.translation.system.handler.AdmissionControlInterceptor;
+import com.translation.system.handler.BroadcastRoomManager;
+import com.translation.system.handler.SessionFlowController;
+import com.translation.system.service.SpeechServiceFactory;
+import com.translation.system.service.translation.FuzzyTranslationIndex;
+import com.translation.system.service.translation.OfflinePhraseTranslator;
+import com.translation.system.service.translation.TranslationBatchCoalescer;
+import com.translation.system.service.translation.TranslationMemory;
+
+import lombok.RequiredArgsConstructor;
+
 @RestController
+@RequiredArgsConstructor
 public class HealthController {
 
+    private final TranslationMemory translationMemory;
+    private final FuzzyTranslationIndex fuzzyTranslationIndex;
+    private final TranslationBatchCoalescer translationBatchCoalescer;
+    private final BroadcastRoomManager broadcastRoomManager;
+    private final OfflinePhraseTranslator offlinePhraseTranslator;
+    private final SpeechServiceFactory speechServiceFactory;
+    private final SessionFlowController sessionFlowController;
+    private final AdmissionControlInterceptor admissionControlInterceptor;
+
     @GetMapping("/health")
     public Map<String, String> health() {
         return Map.of(
@@ -16,4 +37,48 @@ public Map<String, String> health() {
             "timestamp", String.valueOf(System.currentTimeMillis())
         );
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/health/translation-memory")
+    public Map<String, Object> translationMemory() {
+        return Map.of(
+            "size", translationMemory.size(),
+            "languagePairs", translationMemory.getStats(),
+            "fuzzy", fuzzyTranslationIndex.getStats()
+        );
+    }
+
+    @GetMapping("/health/translation-batching")
+    public Map<String, Object> translationBatching() {
+        return translationBatchCoalescer.getStats();
+    }
+
+    @GetMapping("/health/translation-fallback")
+    public Map<String, Object> translationFallback() {
+        return offlinePhraseTranslator.getStats();
+    }
+
+    @GetMapping("/health/speech-hedging")
+    public Map<String, Object> speechHedging() {
+        return speechServiceFactory.getHedgingStats();
+    }
+
+    @GetMapping("/health/speech-providers")
+    public Map<String, Object> speechProviders() {
+        return speechServiceFactory.getProviderHealth();
+    }
+
+    @GetMapping("/health/flow-control")
+    public Map<String, Object> flowControl() {
+        return sessionFlowController.getStats();
+    }
+
+    @GetMapping("/health/admission")
+    public Map<String, Object> admission() {
+        return admissionControlInterceptor.getStats();
+    }
+
+    @GetMapping("/health/rooms")
+    public Map<String, Object> rooms() {
+        return broadcastRoomManager.getStats();
+    }
+} 
@@ -1,8 +1,11 @@
 package com.translation.system.controller;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -13,11 +16,23 @@
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.translation.system.config.SpeechConfig;
+import com.translation.system.config.TranslationConfig;
+import com.translation.system.model.BatchTranscriptionResult;
+import com.translation.system.model.SupportedLanguages;
 import com.translation.system.model.TranslationRequest;
+import com.translation.system.service.ErrorFallbackSpeechService;
 import com.translation.system.service.SpeechService;
+import com.translation.system.service.SpeechServiceFactory;
+import com.translation.system.service.TextTranslator;
+import com.translation.system.service.routing.ProviderOverloadedException;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
 /**
  * 翻译系统REST控制器
@@ -29,8 +44,10 @@
 @RequiredArgsConstructor
 public class TranslationController {
 
-    private final SpeechService microsoftSpeechService;
-    private final SpeechService openAISpeechService;
+    private final SpeechServiceFactory speechServiceFactory;
+    private final TextTranslator textTranslator;
+    private final TranslationConfig translationConfig;
+    private final SpeechConfig.Microsoft microsoftConfig;
     
     /**
      * 服务健康状态检查
@@ -39,8 +56,8 @@ public class TranslationController {
     public ResponseEntity<Map<String, Object>> healthCheck() {
         Map<String, Object> status = new HashMap<>();
         status.put("status", "UP");
-        status.put("microsoftService", microsoftSpeechService.isAvailable() ? "UP" : "DOWN");
-        status.put("openaiService", openAISpeechService.isAvailable() ? "UP" : "DOWN");
+        status.put("microsoftService", speechServiceFactory.getSpeechServiceByProvider("microsoft").isAvailable() ? "UP" : "DOWN");
+        status.put("openaiService", speechServiceFactory.getSpeechServiceByProvider("openai").isAvailable() ? "UP" : "DOWN");
         status.put("timestamp", System.currentTimeMillis());
         
         return ResponseEntity.ok(status);
@@ -53,19 +70,15 @@ public ResponseEntity<Map<String, Object>> healthCheck() {
     public ResponseEntity<Map<String, Object>> speechToText(
             @RequestParam("file") MultipartFile file,
             @RequestParam(value = "sourceLanguage", defaultValue = "auto") String sourceLanguage,
-            @RequestParam(value = "provider", defaultValue = "microsoft") String provider) {
+            @RequestParam(value = "provider", defaultValue = "auto") String provider) {
         
         Map<String, Object> response = new HashMap<>();
         
         try {
             byte[] audioData = file.getBytes();
             
-            String text;
-            if ("openai".equalsIgnoreCase(provider)) {
-                text = openAISpeechService.speechToText(audioData, sourceLanguage).blockFirst();
-            } else {
-                text = microsoftSpeechService.speechToText(audioData, sourceLanguage).blockFirst();
-            }
+            String text = speechServiceFactory.getSpeechServiceByProvider(provider)
+                    .speechToText(audioData, sourceLanguage).blockFirst();
             
             response.put("success", true);
             response.put("text", text);
@@ -87,6 +100,104 @@ public ResponseEntity<Map<String, Object>> speechToText(
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * 批量音频转文字接口
+     * 多个文件并行识别，同时处理的文件数不超过配置的上限；每个文件完成后立即作为一行JSON（NDJSON）写出，
+     * 因此结果按完成顺序返回，index 对应文件的上传顺序。单个文件失败只体现在该行，不影响其他文件。
+     * provider 为 auto 时每个文件分别按各服务的延迟和错误率选择服务，各服务自身的并发限制仍然生效，
+     * 服务并发已满时按指数退避重试。识别不支持自动检测语言，sourceLanguage 为 auto 时使用配置的默认识别语言
+     */
+    @PostMapping(value = "/speech-to-text/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<BatchTranscriptionResult>> speechToTextBatch(
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam(value = "sourceLanguage", defaultValue = "auto") String sourceLanguage,
+            @RequestParam(value = "provider", defaultValue = "auto") String provider,
+            @RequestParam(value = "concurrency", required = false) Integer concurrency) {
+        
+        TranslationConfig.BatchTranscription config = translationConfig.getBatchTranscription();
+        if (files.size() > config.getMaxFiles()) {
+            return ResponseEntity.badRequest().body(Flux.just(BatchTranscriptionResult.builder()
+                    .index(-1)
+                    .success(false)
+                    .error("文件数超过上限: " + files.size() + " > " + config.getMaxFiles())
+                    .build()));
+        }
+        int parallelism = concurrency != null && concurrency > 0
+                ? Math.min(concurrency, config.getMaxConcurrency())
+                : config.getMaxConcurrency();
+        log.info("收到批量转写请求: 文件数={}, 源语言={}, 提供商={}, 并发数={}", 
+                files.size(), sourceLanguage, provider, parallelism);
+        
+        TranslationRequest request = TranslationRequest.builder()
+                .sourceLanguage(recognitionLanguage(sourceLanguage))
+                .provider(provider)
+                .mode("speech-to-text")
+                .build();
+        SpeechService speechService = speechServiceFactory.getSpeechService(request);
+        long startTime = System.currentTimeMillis();
+        
+        Flux<BatchTranscriptionResult> results = Flux.range(0, files.size())
+                .flatMap(index -> transcribe(index, files.get(index), speechService, request), parallelism)
+                .doOnComplete(() -> log.info("批量转写完成: 文件数={}, 总耗时={}毫秒", 
+                        files.size(), System.currentTimeMillis() - startTime))
+                .doOnCancel(() -> log.info("批量转写被客户端取消: 文件数={}, 已用时间={}毫秒", 
+                        files.size(), System.currentTimeMillis() - startTime));
+        return ResponseEntity.ok(results);
+    }
+    
+    /**
+     * 识别批量请求中的一个文件，失败时返回失败结果而不是错误信号
+     * 读取上传内容可能访问临时文件，因此在弹性线程池上进行，同时在内存中的音频不超过并发数个文件
+     */
+    private Mono<BatchTranscriptionResult> transcribe(int index, MultipartFile file, SpeechService speechService,
+            TranslationRequest request) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            BatchTranscriptionResult.BatchTranscriptionResultBuilder result = BatchTranscriptionResult.builder()
+                    .index(index)
+                    .filename(file.getOriginalFilename())
+                    .provider(request.getProvider())
+                    .sourceLanguage(request.getSourceLanguage());
+            return Mono.fromCallable(file::getBytes)
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMap(audioData -> Mono.defer(() -> speechService.speechToText(audioData, request, null).next())
+                            .retryWhen(overloadRetry()))
+                    .map(text -> text.startsWith(ErrorFallbackSpeechService.RECOGNITION_FAILED_PREFIX)
+                            ? result.success(false).error(text)
+                            : result.success(true).text(text))
+                    .switchIfEmpty(Mono.fromSupplier(() -> result.success(false).error("没有识别结果")))
+                    .onErrorResume(e -> {
+                        log.warn("批量转写中的文件处理失败: 序号={}, 文件名={}, 错误={}", 
+                                index, file.getOriginalFilename(), e.getMessage());
+                        return Mono.just(result.success(false).error(e.getMessage()));
+                    })
+                    .map(builder -> builder
+                            .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                            .build());
+        });
+    }
+    
+    /**
+     * 服务并发已满时的重试策略，重试用尽后返回原始错误
+     */
+    private Retry overloadRetry() {
+        TranslationConfig.BatchTranscription config = translationConfig.getBatchTranscription();
+        return Retry.backoff(config.getOverloadRetries(), Duration.ofMillis(config.getOverloadBackoffMillis()))
+                .filter(ProviderOverloadedException.class::isInstance)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+    
+    /**
+     * 识别使用的语言：未指定或为 auto 时使用配置的默认识别语言
+     */
+    private String recognitionLanguage(String sourceLanguage) {
+        if (sourceLanguage == null || sourceLanguage.isBlank() || "auto".equalsIgnoreCase(sourceLanguage)) {
+            return microsoftConfig.getRecognition().getLanguage();
+        }
+        return sourceLanguage;
+    }
+    
     /**
      * 文件上传翻译接口
      */
@@ -95,7 +206,7 @@ public ResponseEntity<Map<String, Object>> translateFile(
             @RequestParam("file") MultipartFile file,
             @RequestParam(value = "sourceLanguage", defaultValue = "auto") String sourceLanguage,
             @RequestParam(value = "targetLanguage", defaultValue = "en-US") String targetLanguage,
-            @RequestParam(value = "provider", defaultValue = "microsoft") String provider,
+            @RequestParam(value = "provider", defaultValue = "auto") String provider,
             @RequestParam(value = "voice", required = false) String voice) {
         
         Map<String, Object> response = new HashMap<>();
@@ -116,12 +227,7 @@ public ResponseEntity<Map<String, Object>> translateFile(
                     .build();
             
             // 选择服务提供商
-            SpeechService speechService;
-            if ("openai".equalsIgnoreCase(provider)) {
-                speechService = openAISpeechService;
-            } else {
-                speechService = microsoftSpeechService;
-            }
+            SpeechService speechService = speechServiceFactory.getSpeechService(request);
             
             // 语音转文字
             String recognizedText = speechService.speechToText(audioData, sourceLanguage).blockFirst();
@@ -130,9 +236,8 @@ public ResponseEntity<Map<String, Object>> translateFile(
             // 如果源语言和目标语言不同，则进行翻译
             String translatedText = recognizedText;
             if (!sourceLanguage.equals(targetLanguage) && !"auto".equals(sourceLanguage)) {
-                // 这里可以接入翻译服务
-                // translatedText = translationService.translate(recognizedText, sourceLanguage, targetLanguage);
-                log.info("翻译不同语言的功能暂未实现");
+                translatedText = textTranslator.translate(recognizedText, sourceLanguage, targetLanguage).block();
+                log.info("文本翻译成功: {}", translatedText);
             }
             
             response.put("success", true);
@@ -176,16 +281,6 @@ public ResponseEntity<Map<String, Object>> getSystemInfo() {
      * 获取支持的语言列表
      */
     private Map<String, String> getSupportedLanguages() {
-        Map<String, String> languages = new HashMap<>();
-        languages.put("zh-CN", "简体中文");
-        languages.put("en-US", "英语(美国)");
-        languages.put("ja-JP", "日语");
-        languages.put("ko-KR", "韩语");
-        languages.put("fr-FR", "法语");
-        languages.put("de-DE", "德语");
-        languages.put("es-ES", "西班牙语");
-        languages.put("ru-RU", "俄语");
-        // 可以根据实际支持添加更多
-        return languages;
+        return SupportedLanguages.NAMES;
     }
 } 
\ No newline at end of file
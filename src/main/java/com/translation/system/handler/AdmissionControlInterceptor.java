@@ -0,0 +1,136 @@
+package com.translation.system.handler;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import com.translation.system.config.TranslationConfig;
+import com.translation.system.service.SpeechServiceFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 握手时的准入控制
+ * 在接受WebSocket连接前检查本节点的实时容量：活跃会话数、正在处理的音频帧数、语音服务是否饱和以及堆内存余量。
+ * 超出容量时直接返回503和Retry-After，由负载均衡把新会话分配到其他节点
+ */
+@Slf4j
+@Component
+public class AdmissionControlInterceptor implements HandshakeInterceptor {
+
+    private final TranslationWebSocketHandler handler;
+    private final SpeechServiceFactory speechServiceFactory;
+    private final TranslationConfig.Admission config;
+    private final DoubleSupplier heapHeadroom;
+
+    private final LongAdder admitted = new LongAdder();
+    private final Map<String, LongAdder> rejected = new LinkedHashMap<>();
+
+    @Autowired
+    public AdmissionControlInterceptor(TranslationWebSocketHandler handler, SpeechServiceFactory speechServiceFactory,
+            TranslationConfig translationConfig) {
+        this(handler, speechServiceFactory, translationConfig, AdmissionControlInterceptor::measureHeapHeadroom);
+    }
+
+    AdmissionControlInterceptor(TranslationWebSocketHandler handler, SpeechServiceFactory speechServiceFactory,
+            TranslationConfig translationConfig, DoubleSupplier heapHeadroom) {
+        this.handler = handler;
+        this.speechServiceFactory = speechServiceFactory;
+        this.config = translationConfig.getAdmission();
+        this.heapHeadroom = heapHeadroom;
+        for (String reason : new String[] {"sessions", "inFlightFrames", "providers", "heap"}) {
+            rejected.put(reason, new LongAdder());
+        }
+    }
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+            WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        if (!config.isEnabled()) {
+            return true;
+        }
+        String reason = overCapacityReason();
+        if (reason == null) {
+            admitted.increment();
+            return true;
+        }
+        rejected.get(reason).increment();
+        log.warn("节点容量不足，拒绝新连接: 原因={}, 远程地址={}", reason, request.getRemoteAddress());
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(config.getRetryAfterSeconds()));
+        return false;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+            WebSocketHandler wsHandler, Exception exception) {
+    }
+
+    /**
+     * 检查各项容量指标
+     *
+     * @return 超出容量的指标名称，容量充足时返回null
+     */
+    private String overCapacityReason() {
+        if (handler.getActiveSessionCount() >= config.getMaxSessions()) {
+            return "sessions";
+        }
+        if (handler.getInFlightFrameCount() >= config.getMaxInFlightFrames()) {
+            return "inFlightFrames";
+        }
+        if (config.isRejectWhenProvidersSaturated() && speechServiceFactory.isSaturated()) {
+            return "providers";
+        }
+        if (heapHeadroom.getAsDouble() < config.getMinHeapHeadroom()) {
+            return "heap";
+        }
+        return null;
+    }
+
+    /**
+     * 堆内存余量：优先使用老年代上次GC后的占用，当前占用包含尚未回收的垃圾，会误判为内存不足
+     */
+    private static double measureHeapHeadroom() {
+        MemoryUsage usage = null;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage collected = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+            if (collected != null && collected.getMax() > 0
+                    && (usage == null || collected.getMax() > usage.getMax())) {
+                usage = collected;
+            }
+        }
+        if (usage == null) {
+            usage = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        }
+        long max = usage.getMax() > 0 ? usage.getMax() : Runtime.getRuntime().maxMemory();
+        return 1.0 - (double) usage.getUsed() / max;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> rejections = new LinkedHashMap<>();
+        rejected.forEach((reason, count) -> rejections.put(reason, count.sum()));
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", config.isEnabled());
+        stats.put("activeSessions", handler.getActiveSessionCount());
+        stats.put("inFlightFrames", handler.getInFlightFrameCount());
+        stats.put("saturatedProviders", speechServiceFactory.getSaturatedProviders());
+        stats.put("heapHeadroom", heapHeadroom.getAsDouble());
+        stats.put("admitted", admitted.sum());
+        stats.put("rejected", rejections);
+        return stats;
+    }
+}
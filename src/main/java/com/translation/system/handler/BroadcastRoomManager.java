@@ -0,0 +1,264 @@
+package com.translation.system.handler;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.translation.system.config.TranslationConfig;
+import com.translation.system.model.MessageType;
+import com.translation.system.model.TranslationResult;
+import com.translation.system.model.WebSocketMessage;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 广播房间管理
+ * 一个房间只有一个主讲人，主讲人的音频只识别和翻译一次；听众按目标语言订阅，
+ * 每条结果只编码一次，同一份不可变数据写给该语言的全部听众。
+ * 传入的会话应是连接建立时已包装好的 {@link ConcurrentWebSocketSessionDecorator}（缓冲满时断开）。
+ * 听众的广播另外经过一个缓冲满时丢弃最早消息的装饰器，慢速听众只会丢弃自己的广播消息，不影响其他听众，
+ * 该会话的其他消息（心跳、确认、错误）不会被丢弃。
+ * 加入和离开都在 {@code rooms} 对该房间的原子计算中修改房间，听众数上限和空房间删除不会与并发的加入交错
+ */
+@Slf4j
+@Component
+public class BroadcastRoomManager {
+
+    public static final String ROLE_SPEAKER = "speaker";
+    public static final String ROLE_LISTENER = "listener";
+
+    private final TranslationConfig.Broadcast config;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Room> rooms = new ConcurrentHashMap<>();
+    // 会话ID -> 所在房间ID
+    private final Map<String, String> sessionRooms = new ConcurrentHashMap<>();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder deliveries = new LongAdder();
+    private final LongAdder sendFailures = new LongAdder();
+
+    public BroadcastRoomManager(TranslationConfig translationConfig, ObjectMapper objectMapper) {
+        this.config = translationConfig.getBroadcast();
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 房间状态
+     */
+    private static class Room {
+        final String roomId;
+        final AtomicReference<String> speakerSessionId = new AtomicReference<>();
+        // 目标语言 -> (会话ID -> 听众会话)
+        final Map<String, Map<String, WebSocketSession>> listeners = new ConcurrentHashMap<>();
+
+        Room(String roomId) {
+            this.roomId = roomId;
+        }
+
+        int listenerCount() {
+            return listeners.values().stream().mapToInt(Map::size).sum();
+        }
+
+        boolean isEmpty() {
+            return speakerSessionId.get() == null && listenerCount() == 0;
+        }
+    }
+
+    /**
+     * 以主讲人身份加入房间
+     *
+     * @return 房间已有其他主讲人时返回false
+     */
+    public boolean joinAsSpeaker(String roomId, WebSocketSession session) {
+        String sessionId = session.getId();
+        leave(sessionId);
+        AtomicBoolean joined = new AtomicBoolean(false);
+        rooms.compute(roomId, (id, room) -> {
+            Room target = room != null ? room : new Room(id);
+            if (target.speakerSessionId.compareAndSet(null, sessionId)) {
+                sessionRooms.put(sessionId, id);
+                joined.set(true);
+            }
+            return target.isEmpty() ? null : target;
+        });
+        if (joined.get()) {
+            log.info("主讲人加入房间: 房间={}, 会话ID={}", roomId, sessionId);
+        }
+        return joined.get();
+    }
+
+    /**
+     * 以听众身份加入房间，接收指定目标语言的译文和语音
+     *
+     * @return 房间听众已满时返回false
+     */
+    public boolean joinAsListener(String roomId, String language, WebSocketSession session) {
+        String sessionId = session.getId();
+        leave(sessionId);
+        // 加入后的听众数，未加入时为-1
+        AtomicInteger listenerCount = new AtomicInteger(-1);
+        rooms.compute(roomId, (id, room) -> {
+            Room target = room != null ? room : new Room(id);
+            int count = target.listenerCount();
+            if (count < config.getMaxListenersPerRoom()) {
+                target.listeners.computeIfAbsent(language, l -> new ConcurrentHashMap<>())
+                        .put(sessionId, new ConcurrentWebSocketSessionDecorator(session, config.getSendTimeLimitMillis(),
+                                config.getBufferSizeLimit(), ConcurrentWebSocketSessionDecorator.OverflowStrategy.DROP));
+                sessionRooms.put(sessionId, id);
+                listenerCount.set(count + 1);
+            }
+            return target.isEmpty() ? null : target;
+        });
+        if (listenerCount.get() < 0) {
+            return false;
+        }
+        log.info("听众加入房间: 房间={}, 会话ID={}, 目标语言={}, 听众数={}",
+                roomId, sessionId, language, listenerCount.get());
+        return true;
+    }
+
+    /**
+     * 会话离开所在房间，房间内没有主讲人和听众时删除房间
+     */
+    public void leave(String sessionId) {
+        String roomId = sessionRooms.remove(sessionId);
+        if (roomId == null) {
+            return;
+        }
+        rooms.computeIfPresent(roomId, (id, room) -> {
+            if (room.speakerSessionId.compareAndSet(sessionId, null)) {
+                log.info("主讲人离开房间: 房间={}, 会话ID={}", roomId, sessionId);
+            }
+            room.listeners.values().forEach(sessions -> sessions.remove(sessionId));
+            room.listeners.values().removeIf(Map::isEmpty);
+            return room.isEmpty() ? null : room;
+        });
+    }
+
+    /**
+     * 会话是否为某个房间的主讲人
+     */
+    public boolean isSpeaker(String sessionId) {
+        String roomId = sessionRooms.get(sessionId);
+        Room room = roomId != null ? rooms.get(roomId) : null;
+        return room != null && sessionId.equals(room.speakerSessionId.get());
+    }
+
+    /**
+     * 会话是否为某个房间的听众
+     */
+    public boolean isListener(String sessionId) {
+        return sessionRooms.containsKey(sessionId) && !isSpeaker(sessionId);
+    }
+
+    /**
+     * 房间内听众订阅的全部目标语言
+     */
+    public List<String> getListenerLanguages(String roomId) {
+        Room room = rooms.get(roomId);
+        return room != null ? new ArrayList<>(room.listeners.keySet()) : List.of();
+    }
+
+    /**
+     * 向房间内订阅该语言的听众广播一条结果
+     * 译文编码为一条JSON文本消息，音频包装为只读缓冲区，所有听众共享同一份数据
+     *
+     * @return 成功写入的听众数
+     */
+    public int publish(String roomId, TranslationResult result) {
+        Room room = rooms.get(roomId);
+        Map<String, WebSocketSession> sessions = room != null ? room.listeners.get(result.getLanguage()) : null;
+        if (sessions == null || sessions.isEmpty()) {
+            return 0;
+        }
+
+        TextMessage textMessage = null;
+        ByteBuffer audio = null;
+        if (result.getAudio() == null) {
+            try {
+                textMessage = new TextMessage(objectMapper.writeValueAsString(WebSocketMessage.builder()
+                        .type(MessageType.TRANSLATION)
+                        .message(result.getTranslatedText())
+                        .language(result.getLanguage())
+                        .build()));
+            } catch (JsonProcessingException e) {
+                log.error("编码广播消息失败: 房间={}, 错误={}", roomId, e.getMessage(), e);
+                return 0;
+            }
+        } else {
+            audio = ByteBuffer.wrap(result.getAudio()).asReadOnlyBuffer();
+        }
+        published.increment();
+
+        int delivered = 0;
+        for (Map.Entry<String, WebSocketSession> entry : sessions.entrySet()) {
+            WebSocketSession session = entry.getValue();
+            try {
+                if (!session.isOpen()) {
+                    leave(entry.getKey());
+                    continue;
+                }
+                // 文本消息本身不可变可直接共享；音频每个听众使用独立的只读视图，读取位置互不影响
+                session.sendMessage(textMessage != null ? textMessage : new BinaryMessage(audio.duplicate()));
+                delivered++;
+            } catch (Exception e) {
+                // 发送超时时装饰器已关闭该会话，这里只需移出房间
+                sendFailures.increment();
+                log.warn("向听众发送广播失败，移出房间: 房间={}, 会话ID={}, 错误={}", roomId, entry.getKey(), e.getMessage());
+                leave(entry.getKey());
+                closeQuietly(session);
+            }
+        }
+        deliveries.add(delivered);
+        return delivered;
+    }
+
+    /**
+     * 获取房间统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> roomStats = new TreeMap<>();
+        rooms.forEach((roomId, room) -> {
+            Map<String, Integer> languages = new TreeMap<>();
+            room.listeners.forEach((language, sessions) -> languages.put(language, sessions.size()));
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("hasSpeaker", room.speakerSessionId.get() != null);
+            stats.put("listeners", languages);
+            roomStats.put(roomId, stats);
+        });
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("rooms", roomStats);
+        stats.put("published", published.sum());
+        stats.put("deliveries", deliveries.sum());
+        stats.put("sendFailures", sendFailures.sum());
+        return stats;
+    }
+
+    private static void closeQuietly(WebSocketSession session) {
+        try {
+            if (session.isOpen()) {
+                session.close(CloseStatus.SESSION_NOT_RELIABLE);
+            }
+        } catch (Exception e) {
+            log.debug("关闭听众会话失败: 会话ID={}, 错误={}", session.getId(), e.getMessage());
+        }
+    }
+}
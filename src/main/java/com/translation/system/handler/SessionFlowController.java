@@ -0,0 +1,140 @@
+package com.translation.system.handler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.translation.system.config.TranslationConfig;
+
+/**
+ * 音频流的会话级流量控制（类似HTTP/2的窗口更新）
+ * 初始化时授予客户端一个窗口的字节额度，客户端每发送一帧消耗相应额度；
+ * 识别器处理完音频帧后额度被释放（不等翻译和合成），累计到窗口的一定比例时以CREDIT消息补充给客户端。
+ * 超出额度的帧被直接丢弃并回复THROTTLE，因此每个会话未处理完的音频不超过一个窗口
+ */
+@Component
+public class SessionFlowController {
+
+    private final TranslationConfig.FlowControl config;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+
+    public SessionFlowController(TranslationConfig translationConfig) {
+        this.config = translationConfig.getFlowControl();
+    }
+
+    /**
+     * 单个会话的窗口状态
+     */
+    private static class Window {
+        // 已接收但尚未处理完的字节数
+        long outstanding;
+        // 已释放但尚未通知客户端的字节数
+        long pendingCredit;
+        // 连续超额次数
+        int overruns;
+    }
+
+    /**
+     * 超额时的处理结果
+     *
+     * @param available 当前可用的额度
+     * @param suggestedSampleRate 建议客户端改用的采样率，不需要降低时为null
+     */
+    public record Throttle(long available, Integer suggestedSampleRate) {
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * 为会话建立窗口，会话重新初始化时沿用已有窗口
+     * 之前接收的帧可能仍在处理，不能把它们占用的额度再授予客户端
+     *
+     * @return 授予客户端的初始额度
+     */
+    public long open(String sessionId) {
+        Window window = windows.computeIfAbsent(sessionId, id -> new Window());
+        synchronized (window) {
+            // 待补充的额度已包含在这次授予的额度中
+            window.pendingCredit = 0;
+            window.overruns = 0;
+            return config.getWindowBytes() - window.outstanding;
+        }
+    }
+
+    /**
+     * 接收一帧音频前调用
+     *
+     * @return 额度足够时返回null并占用额度；超额时返回限流信息，该帧应被丢弃
+     */
+    public Throttle tryAcquire(String sessionId, int bytes, Integer currentSampleRate) {
+        Window window = windows.computeIfAbsent(sessionId, id -> new Window());
+        synchronized (window) {
+            // 窗口为空时总是接收一帧，避免单帧大于窗口的客户端永远无法发送
+            if (window.outstanding == 0 || window.outstanding + bytes <= config.getWindowBytes()) {
+                window.outstanding += bytes;
+                window.overruns = 0;
+                accepted.increment();
+                return null;
+            }
+            throttled.increment();
+            Integer sampleRate = null;
+            if (++window.overruns >= config.getOverrunsBeforeDownsample()
+                    && (currentSampleRate == null || currentSampleRate > config.getDownsampleRate())) {
+                sampleRate = config.getDownsampleRate();
+                window.overruns = 0;
+            }
+            return new Throttle(config.getWindowBytes() - window.outstanding, sampleRate);
+        }
+    }
+
+    /**
+     * 一帧音频被识别器处理完（包括失败）后调用
+     *
+     * @return 需要通过CREDIT补充给客户端的额度，暂不补充时返回0
+     */
+    public long release(String sessionId, int bytes) {
+        Window window = windows.get(sessionId);
+        if (window == null) {
+            return 0;
+        }
+        synchronized (window) {
+            window.outstanding = Math.max(0, window.outstanding - bytes);
+            window.pendingCredit += bytes;
+            // 攒够一定比例再补充；窗口清空时立即补充，避免客户端等待
+            if (window.pendingCredit >= config.getWindowBytes() * config.getUpdateRatio() || window.outstanding == 0) {
+                long credit = window.pendingCredit;
+                window.pendingCredit = 0;
+                return credit;
+            }
+            return 0;
+        }
+    }
+
+    public void close(String sessionId) {
+        windows.remove(sessionId);
+    }
+
+    public Map<String, Object> getStats() {
+        long outstanding = windows.values().stream().mapToLong(window -> {
+            synchronized (window) {
+                return window.outstanding;
+            }
+        }).sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", config.isEnabled());
+        stats.put("windowBytes", config.getWindowBytes());
+        stats.put("sessions", windows.size());
+        stats.put("outstandingBytes", outstanding);
+        stats.put("acceptedFrames", accepted.sum());
+        stats.put("throttledFrames", throttled.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,50 @@
+package com.translation.system.handler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.translation.system.config.TranslationConfig;
+
+/**
+ * 每帧音频INFO日志的会话级采样
+ * 会话的第一帧总是输出，之后每个会话在一个间隔内最多输出一帧；判断只有一次CAS，不加锁。
+ * 一帧是否输出在收到时决定一次，同一帧的开始和完成日志要么都输出要么都不输出
+ */
+@Component
+public class SessionLogSampler {
+
+    private final TranslationConfig.LogSampling config;
+    private final long intervalNanos;
+
+    // 会话下一次允许输出的时间（System.nanoTime）
+    private final Map<String, AtomicLong> nextSampleTimes = new ConcurrentHashMap<>();
+
+    public SessionLogSampler(TranslationConfig translationConfig) {
+        this.config = translationConfig.getLogSampling();
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getIntervalMillis());
+    }
+
+    /**
+     * 是否输出会话当前这一帧的日志
+     */
+    public boolean sample(String sessionId) {
+        if (!config.isEnabled()) {
+            return true;
+        }
+        long now = System.nanoTime();
+        AtomicLong nextSampleTime = nextSampleTimes.get(sessionId);
+        if (nextSampleTime == null) {
+            nextSampleTime = nextSampleTimes.computeIfAbsent(sessionId, id -> new AtomicLong(now));
+        }
+        long next = nextSampleTime.get();
+        return now - next >= 0 && nextSampleTime.compareAndSet(next, now + intervalNanos);
+    }
+
+    public void close(String sessionId) {
+        nextSampleTimes.remove(sessionId);
+    }
+}
@@ -1,13 +1,20 @@
 package com.translation.system.handler;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -19,28 +26,48 @@
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.translation.system.config.TranslationConfig;
+import com.translation.system.metrics.PipelineMetrics;
+import com.translation.system.metrics.PipelineMetrics.Stage;
+import com.translation.system.metrics.UtteranceTiming;
 import com.translation.system.model.MessageType;
 import com.translation.system.model.TranslationRequest;
+import com.translation.system.model.TranslationResult;
 import com.translation.system.model.WebSocketMessage;
+import com.translation.system.service.AudioConsumedHook;
 import com.translation.system.service.SpeechService;
+import com.translation.system.service.SpeechServiceFactory;
+import com.translation.system.service.TextTranslator;
 import com.translation.system.service.TranslationService;
-import com.translation.system.service.impl.MicrosoftSpeechService;
+import com.translation.system.service.routing.ProviderOverloadedException;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
 import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class TranslationWebSocketHandler extends AbstractWebSocketHandler {
+public class TranslationWebSocketHandler extends AbstractWebSocketHandler implements MeterBinder {
 
     private final TranslationService translationService;
-    private final SpeechService microsoftSpeechService;
-    private final SpeechService openAISpeechService;
+    private final SpeechServiceFactory speechServiceFactory;
+    private final TextTranslator textTranslator;
     private final ObjectMapper objectMapper;
+    private final BroadcastRoomManager roomManager;
+    private final SessionFlowController flowController;
+    private final SessionLogSampler logSampler;
+    private final PipelineMetrics pipelineMetrics;
+    private final TranslationConfig translationConfig;
     
     // 存储会话对应的请求配置
     private final Map<String, TranslationRequest> sessionConfigs = new ConcurrentHashMap<>();
@@ -54,15 +81,29 @@ public class TranslationWebSocketHandler extends AbstractWebSocketHandler {
     // 心跳间隔时间（毫秒）
     private static final long HEARTBEAT_INTERVAL = 30 * 1000; // 30秒
     
-    // 存储所有WebSocket会话
+    // 存储所有WebSocket会话（连接建立时包装的并发发送装饰器）
     private final Map<String, WebSocketSession> activeSessions = new ConcurrentHashMap<>();
     
+    // 正在处理的音频帧数
+    private final AtomicInteger inFlightFrames = new AtomicInteger();
+    
+    // 每个会话尚未结束的订阅，会话关闭时统一取消
+    private final Map<String, Disposable.Composite> sessionSubscriptions = new ConcurrentHashMap<>();
+    
+    // 开启timing的会话已收到的音频帧数，用于生成音频帧ID
+    private final Map<String, AtomicLong> utteranceSequences = new ConcurrentHashMap<>();
+    
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         String sessionId = session.getId();
         log.info("WebSocket连接已建立: 会话ID={}, 远程地址={}, 本地地址={}", 
                 sessionId, session.getRemoteAddress(), session.getLocalAddress());
         sessionLastActiveTime.put(sessionId, System.currentTimeMillis());
+        // 回调、心跳和广播可能在不同线程同时发送，所有发送都经过同一个装饰器。
+        // 普通消息（音频结果、错误、处理完成）不能丢，超出缓冲时断开会话；只有听众的广播消息允许丢弃，见BroadcastRoomManager
+        TranslationConfig.Broadcast sendConfig = translationConfig.getBroadcast();
+        session = new ConcurrentWebSocketSessionDecorator(session, sendConfig.getSendTimeLimitMillis(),
+                sendConfig.getSessionBufferSizeLimit(), ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE);
         activeSessions.put(sessionId, session); // 保存会话引用
         
         // 发送欢迎消息
@@ -78,7 +119,8 @@ public void afterConnectionEstablished(WebSocketSession session) throws Exceptio
     }
     
     @Override
-    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+    protected void handleTextMessage(WebSocketSession connection, TextMessage message) throws Exception {
+        WebSocketSession session = decorated(connection);
         String sessionId = session.getId();
         String payload = message.getPayload();
         updateSessionActivity(sessionId);
@@ -99,15 +141,21 @@ protected void handleTextMessage(WebSocketSession session, TextMessage message)
                     return;
                 }
                 
+                // 加入广播房间
+                if (request.getRoomId() != null && !joinRoom(session, request)) {
+                    return;
+                }
+                
                 sessionConfigs.put(sessionId, request);
                 log.info("会话初始化成功: 会话ID={}, 配置={}, 源语言={}, 目标语言={}, 提供商={}", 
                         sessionId, request, request.getSourceLanguage(), 
                         request.getTargetLanguage(), request.getProvider());
                 
-                // 发送确认
+                // 发送确认，同时授予音频发送的初始额度
                 sendTextMessage(session, WebSocketMessage.builder()
                         .type(MessageType.INIT)
                         .message("连接已初始化")
+                        .credit(flowController.isEnabled() ? flowController.open(sessionId) : null)
                         .build());
                 log.debug("发送初始化确认: 会话ID={}", sessionId);
             } else if (webSocketMessage.getType() == MessageType.CLOSE) {
@@ -139,17 +187,19 @@ protected void handleTextMessage(WebSocketSession session, TextMessage message)
     }
     
     @Override
-    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
+    protected void handleBinaryMessage(WebSocketSession connection, BinaryMessage message) throws Exception {
+        WebSocketSession session = decorated(connection);
         String sessionId = session.getId();
         long startProcessingTime = System.currentTimeMillis();
+        long receivedNanos = System.nanoTime();
         updateSessionActivity(sessionId);
+        // 每帧的INFO日志按会话采样，未采样的帧不拼接日志参数
+        boolean sampled = log.isInfoEnabled() && logSampler.sample(sessionId);
+        Runnable drained = null;
         
         try {
             // 获取音频数据
             byte[] audioData = message.getPayload().array();
-            log.info("收到音频数据: 会话ID={}, 数据大小={}KB, 远程地址={}, 接收时间={}", 
-                    sessionId, audioData.length / 1024.0, session.getRemoteAddress(), 
-                    new java.text.SimpleDateFormat("HH:mm:ss.SSS").format(new java.util.Date()));
             
             // 获取会话配置
             TranslationRequest request = sessionConfigs.get(sessionId);
@@ -158,6 +208,7 @@ protected void handleBinaryMessage(WebSocketSession session, BinaryMessage messa
                 sendErrorMessage(session, "会话未初始化，请先发送初始化配置");
                 return;
             }
+            UtteranceTiming timing = request.isTiming() ? startUtteranceTiming(sessionId, receivedNanos) : null;
             
             // 音频数据大小检查
             if (audioData.length == 0) {
@@ -170,27 +221,52 @@ protected void handleBinaryMessage(WebSocketSession session, BinaryMessage messa
                 log.warn("音频数据较大: 会话ID={}, 数据大小={}KB", sessionId, audioData.length / 1024.0);
             }
             
-            log.info("开始处理音频转译: 会话ID={}, 源语言={}, 目标语言={}, 提供商={}, 数据大小={}KB", 
-                    sessionId, request.getSourceLanguage(), request.getTargetLanguage(), 
-                    request.getProvider(), audioData.length / 1024.0);
+            if (sampled) {
+                log.info("开始处理音频转译: 会话ID={}, 源语言={}, 目标语言={}, 提供商={}, 数据大小={}字节", 
+                        sessionId, request.getSourceLanguage(), request.getTargetLanguage(), 
+                        request.getProvider(), audioData.length);
+            }
+            
+            // 广播房间：听众不发送音频，主讲人的音频按听众订阅的语言翻译一次后广播
+            if (request.getRoomId() != null && !roomManager.isSpeaker(sessionId)) {
+                sendErrorMessage(session, "听众不能发送音频");
+                return;
+            }
+            
+            // 流量控制：超出额度的帧直接丢弃，处理完成后归还额度
+            drained = acquireCredit(session, request, audioData.length);
+            if (drained == null) {
+                return;
+            }
+            pipelineMetrics.record(Stage.INGEST, null, request, System.nanoTime() - receivedNanos, timing);
+            
+            if (request.getRoomId() != null) {
+                handleRoomAudio(session, audioData, request, drained, sampled);
+                return;
+            }
+            
+            // 多目标语言：只识别一次，按语言分别返回译文和语音
+            if (request.isMultiTarget() && !"speech-to-text".equals(request.getMode())) {
+                handleMultiTargetTranslation(session, audioData, request, false, drained, timing, sampled);
+                return;
+            }
             
             // 处理音频转译
-            long beforeCallService = System.currentTimeMillis();
-            Flux<byte[]> resultFlux = translationService.translateSpeech(audioData, request, session);
-            long afterCallService = System.currentTimeMillis();
-            log.info("转译服务调用完成: 会话ID={}, 调用耗时={}毫秒", 
-                    sessionId, (afterCallService - beforeCallService));
+            Runnable onDrained = drained;
+            // 识别器处理完音频即归还额度，不等翻译和合成结束；流结束时兜底归还
+            Flux<byte[]> resultFlux = translationService.translateSpeech(audioData, request, session)
+                    .doFinally(signal -> onDrained.run())
+                    .contextWrite(Context.of(AudioConsumedHook.CONTEXT_KEY, onDrained));
+            if (timing != null) {
+                resultFlux = resultFlux.contextWrite(Context.of(UtteranceTiming.CONTEXT_KEY, timing));
+            }
             
             // 设置最大处理时间，防止处理时间过长
             final long maxProcessingTime = 60000; // 最长等待60秒
             final long startTime = System.currentTimeMillis();
             
-            // 记录处理开始时间
-            log.debug("开始处理转译结果流: 会话ID={}, 开始时间={}", 
-                    sessionId, new java.text.SimpleDateFormat("HH:mm:ss.SSS").format(new java.util.Date()));
-            
             // 订阅结果流，并将结果发送回客户端
-            resultFlux.subscribe(
+            subscribeForSession(session, resultFlux,
                 data -> {
                     try {
                         long currentTime = System.currentTimeMillis();
@@ -212,20 +288,20 @@ protected void handleBinaryMessage(WebSocketSession session, BinaryMessage messa
                         
                         // 检查数据有效性
                         if (data != null && data.length > 0) {
-                            log.info("发送合成的音频数据: 会话ID={}, 数据大小={}KB, 处理耗时={}毫秒", 
-                                    sessionId, data.length / 1024.0, elapsed);
+                            if (log.isDebugEnabled()) {
+                                log.debug("发送合成的音频数据: 会话ID={}, 数据大小={}字节, 处理耗时={}毫秒", 
+                                        sessionId, data.length, elapsed);
+                            }
                             
-                            // 记录发送时间
-                            long beforeSend = System.currentTimeMillis();
+                            // 记录发送耗时
+                            long beforeSend = System.nanoTime();
                             session.sendMessage(new BinaryMessage(data));
-                            long afterSend = System.currentTimeMillis();
+                            long sendNanos = System.nanoTime() - beforeSend;
+                            pipelineMetrics.record(Stage.WEBSOCKET_SEND, null, request, sendNanos, timing);
                             
-                            if (afterSend - beforeSend > 100) {
+                            if (sendNanos > TimeUnit.MILLISECONDS.toNanos(100)) {
                                 log.warn("发送音频数据耗时较长: 会话ID={}, 发送耗时={}毫秒", 
-                                        sessionId, (afterSend - beforeSend));
-                            } else {
-                                log.debug("音频数据发送完成: 会话ID={}, 发送耗时={}毫秒", 
-                                        sessionId, (afterSend - beforeSend));
+                                        sessionId, TimeUnit.NANOSECONDS.toMillis(sendNanos));
                             }
                         } else {
                             log.warn("合成的音频数据无效: 会话ID={}, 数据={}", 
@@ -240,18 +316,16 @@ protected void handleBinaryMessage(WebSocketSession session, BinaryMessage messa
                     long elapsed = System.currentTimeMillis() - startTime;
                     log.error("转译处理错误: 会话ID={}, 错误类型={}, 错误信息={}, 处理时间={}毫秒", 
                             sessionId, error.getClass().getName(), error.getMessage(), elapsed, error);
-                    sendErrorMessage(session, "转译处理发生错误: " + error.getMessage());
+                    sendErrorMessage(session, "转译处理发生错误: " + error.getMessage(), errorCodeOf(error));
                 },
                 () -> {
-                    long elapsed = System.currentTimeMillis() - startTime;
-                    long totalProcessing = System.currentTimeMillis() - startProcessingTime;
-                    log.info("转译处理完成: 会话ID={}, Flux处理耗时={}毫秒, 总处理耗时={}毫秒", 
-                            sessionId, elapsed, totalProcessing);
+                    if (sampled) {
+                        long now = System.currentTimeMillis();
+                        log.info("转译处理完成: 会话ID={}, Flux处理耗时={}毫秒, 总处理耗时={}毫秒", 
+                                sessionId, now - startTime, now - startProcessingTime);
+                    }
                     try {
-                        sendTextMessage(session, WebSocketMessage.builder()
-                                .type(MessageType.TEXT_RESULT)
-                                .message("处理完成")
-                                .build());
+                        sendCompletion(session, timing);
                     } catch (Exception e) {
                         log.error("发送完成消息失败: 会话ID={}, 错误={}", sessionId, e.getMessage(), e);
                     }
@@ -262,6 +336,137 @@ protected void handleBinaryMessage(WebSocketSession session, BinaryMessage messa
             log.error("处理二进制消息异常: 会话ID={}, 错误类型={}, 错误信息={}", 
                     sessionId, e.getClass().getSimpleName(), e.getMessage(), e);
             sendErrorMessage(session, "处理音频数据时发生错误: " + e.getMessage());
+            if (drained != null) {
+                drained.run();
+            }
+        }
+    }
+    
+    /**
+     * 为一帧音频占用流量控制额度
+     * 
+     * @return 该帧处理完成后需要调用的回调（可重复调用），超出额度时发送THROTTLE并返回null
+     */
+    private Runnable acquireCredit(WebSocketSession session, TranslationRequest request, int bytes) {
+        if (!flowController.isEnabled()) {
+            inFlightFrames.incrementAndGet();
+            AtomicBoolean released = new AtomicBoolean(false);
+            return () -> {
+                if (released.compareAndSet(false, true)) {
+                    inFlightFrames.decrementAndGet();
+                }
+            };
+        }
+        String sessionId = session.getId();
+        SessionFlowController.Throttle throttle = flowController.tryAcquire(sessionId, bytes, request.getSampleRate());
+        if (throttle != null) {
+            log.warn("音频发送超出额度，丢弃该帧: 会话ID={}, 数据大小={}字节, 可用额度={}字节, 建议采样率={}", 
+                    sessionId, bytes, throttle.available(), throttle.suggestedSampleRate());
+            try {
+                sendTextMessage(session, WebSocketMessage.builder()
+                        .type(MessageType.THROTTLE)
+                        .message(throttle.suggestedSampleRate() != null 
+                                ? "音频发送过快，请降低采样率并等待服务端授予额度" 
+                                : "音频发送过快，请等待服务端授予额度")
+                        .credit(throttle.available())
+                        .sampleRate(throttle.suggestedSampleRate())
+                        .build());
+            } catch (IOException e) {
+                log.error("发送限流消息失败: 会话ID={}, 错误={}", sessionId, e.getMessage());
+            }
+            return null;
+        }
+        inFlightFrames.incrementAndGet();
+        AtomicBoolean released = new AtomicBoolean(false);
+        return () -> {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            inFlightFrames.decrementAndGet();
+            long credit = flowController.release(sessionId, bytes);
+            if (credit > 0) {
+                try {
+                    sendTextMessage(session, WebSocketMessage.builder()
+                            .type(MessageType.CREDIT)
+                            .credit(credit)
+                            .build());
+                } catch (IOException e) {
+                    log.error("发送额度更新失败: 会话ID={}, 错误={}", sessionId, e.getMessage());
+                }
+            }
+        };
+    }
+    
+    /**
+     * 为开启timing的会话创建音频帧计时，音频帧ID为会话ID加会话内序号
+     */
+    private UtteranceTiming startUtteranceTiming(String sessionId, long receivedNanos) {
+        long sequence = utteranceSequences.computeIfAbsent(sessionId, id -> new AtomicLong()).incrementAndGet();
+        return new UtteranceTiming(sessionId + "-" + sequence, receivedNanos);
+    }
+    
+    /**
+     * 发送音频帧的处理完成消息，开启timing时带上音频帧ID，并随后发送各阶段耗时
+     */
+    private void sendCompletion(WebSocketSession session, UtteranceTiming timing) throws IOException {
+        if (timing == null) {
+            sendTextMessage(session, WebSocketMessage.builder()
+                    .type(MessageType.TEXT_RESULT)
+                    .message("处理完成")
+                    .build());
+            return;
+        }
+        sendTextMessage(session, WebSocketMessage.builder()
+                .type(MessageType.TEXT_RESULT)
+                .message("处理完成")
+                .utteranceId(timing.getUtteranceId())
+                .build(), timing);
+        sendTextMessage(session, WebSocketMessage.builder()
+                .type(MessageType.TIMING)
+                .utteranceId(timing.getUtteranceId())
+                .timings(timing.toStages())
+                .build());
+    }
+    
+    /**
+     * 订阅会话产生的结果流并登记到会话上，会话关闭时取消，进行中的识别、合成和HTTP请求随之停止
+     */
+    private <T> void subscribeForSession(WebSocketSession session, Flux<T> flux) {
+        subscribeForSession(session, flux, null, null, null);
+    }
+    
+    private <T> void subscribeForSession(WebSocketSession session, Flux<T> flux, Consumer<? super T> onNext,
+            Consumer<? super Throwable> onError, Runnable onComplete) {
+        Disposable.Composite subscriptions = sessionSubscriptions.computeIfAbsent(session.getId(), id -> Disposables.composite());
+        AtomicReference<Disposable> self = new AtomicReference<>();
+        // 结束后从会话中移除，避免长连接上累积已完成的订阅
+        Disposable subscription = flux
+                .doFinally(signal -> {
+                    Disposable finished = self.get();
+                    if (finished != null) {
+                        subscriptions.remove(finished);
+                    }
+                })
+                .subscribe(onNext, onError, onComplete);
+        self.set(subscription);
+        // 会话已关闭时add会直接取消该订阅；同步完成的订阅不需要登记
+        subscriptions.add(subscription);
+        if (subscription.isDisposed()) {
+            subscriptions.remove(subscription);
+        }
+    }
+    
+    /**
+     * 取消会话所有尚未结束的订阅
+     */
+    private void cancelSubscriptions(String sessionId) {
+        Disposable.Composite subscriptions = sessionSubscriptions.remove(sessionId);
+        if (subscriptions != null) {
+            int active = subscriptions.size();
+            subscriptions.dispose();
+            if (active > 0) {
+                log.info("会话关闭，取消进行中的处理: 会话ID={}, 订阅数={}", sessionId, active);
+            }
         }
     }
     
@@ -277,13 +482,19 @@ public void afterConnectionClosed(WebSocketSession session, CloseStatus status)
         log.info("WebSocket connection closed: {} with status: {}", sessionId, status);
         
         // 清理会话资源
+        roomManager.leave(sessionId);
+        flowController.close(sessionId);
+        logSampler.close(sessionId);
+        cancelSubscriptions(sessionId);
         sessionConfigs.remove(sessionId);
+        utteranceSequences.remove(sessionId);
         sessionLastActiveTime.remove(sessionId);
         activeSessions.remove(sessionId); // 移除会话引用
     }
     
     @Override
-    public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+    public void handleTransportError(WebSocketSession connection, Throwable exception) throws Exception {
+        WebSocketSession session = decorated(connection);
         String sessionId = session.getId();
         log.error("Transport error for session {}: {}", sessionId, exception.getMessage());
         
@@ -304,13 +515,17 @@ public void handleTransportError(WebSocketSession session, Throwable exception)
      * 发送错误消息
      */
     private void sendErrorMessage(WebSocketSession session, String errorMessage) {
+        sendErrorMessage(session, errorMessage, null);
+    }
+    
+    /**
+     * 发送带错误码的错误消息，客户端可根据错误码决定是否重试
+     */
+    private void sendErrorMessage(WebSocketSession session, String errorMessage, String errorCode) {
         try {
             if (session != null && session.isOpen()) {
                 String message = objectMapper.writeValueAsString(
-                        WebSocketMessage.builder()
-                            .type(MessageType.ERROR)
-                            .message(errorMessage)
-                            .build());
+                        WebSocketMessage.error(errorMessage, errorCode));
                 session.sendMessage(new TextMessage(message));
             }
         } catch (IOException e) {
@@ -319,10 +534,29 @@ private void sendErrorMessage(WebSocketSession session, String errorMessage) {
         }
     }
     
+    /**
+     * 根据异常确定错误码，没有对应的错误码时返回null
+     */
+    private static String errorCodeOf(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof ProviderOverloadedException overloaded) {
+                return overloaded.getErrorCode();
+            }
+        }
+        return null;
+    }
+    
     /**
      * 发送文本消息
      */
     private void sendTextMessage(WebSocketSession session, WebSocketMessage message) throws IOException {
+        sendTextMessage(session, message, null);
+    }
+    
+    /**
+     * 发送文本消息，发送耗时同时累加到音频帧的计时中
+     */
+    private void sendTextMessage(WebSocketSession session, WebSocketMessage message, UtteranceTiming timing) throws IOException {
         if (session != null && session.isOpen()) {
             String messageJson = objectMapper.writeValueAsString(message);
             
@@ -331,7 +565,10 @@ private void sendTextMessage(WebSocketSession session, WebSocketMessage message)
             if (messageBytes.length > 1024 * 1024) { // 如果消息超过1MB
                 sendLargeTextMessage(session, message, messageJson);
             } else {
+                long beforeSend = System.nanoTime();
                 session.sendMessage(new TextMessage(messageJson));
+                pipelineMetrics.record(Stage.WEBSOCKET_SEND, null, sessionConfigs.get(session.getId()), 
+                        System.nanoTime() - beforeSend, timing);
             }
         }
     }
@@ -383,7 +620,7 @@ private void sendLargeTextMessage(WebSocketSession session, WebSocketMessage ori
     /**
      * 将文本按字节大小分割成多个块
      */
-    private List<String> splitTextIntoChunks(String text, int maxChunkSizeBytes) {
+    static List<String> splitTextIntoChunks(String text, int maxChunkSizeBytes) {
         List<String> chunks = new ArrayList<>();
         byte[] textBytes = text.getBytes(StandardCharsets.UTF_8);
         int textLength = textBytes.length;
@@ -434,6 +671,13 @@ private List<String> splitTextIntoChunks(String text, int maxChunkSizeBytes) {
         return chunks;
     }
     
+    /**
+     * 连接建立时包装的会话，之后的所有发送都使用它
+     */
+    private WebSocketSession decorated(WebSocketSession session) {
+        return activeSessions.getOrDefault(session.getId(), session);
+    }
+    
     /**
      * 更新会话活跃时间
      */
@@ -462,6 +706,33 @@ private void closeSession(WebSocketSession session, CloseStatus status) {
         }
     }
     
+    /**
+     * 当前活跃的会话数
+     */
+    public int getActiveSessionCount() {
+        return activeSessions.size();
+    }
+    
+    /**
+     * 当前正在处理的音频帧数
+     */
+    public int getInFlightFrameCount() {
+        return inFlightFrames.get();
+    }
+    
+    /**
+     * 会话和处理中音频帧的数量
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("websocket.sessions.active", activeSessions, Map::size)
+                .description("Open WebSocket sessions").register(registry);
+        Gauge.builder("websocket.sessions.initialized", sessionConfigs, Map::size)
+                .description("WebSocket sessions that have sent INIT").register(registry);
+        Gauge.builder("websocket.frames.in_flight", inFlightFrames, AtomicInteger::get)
+                .description("Audio frames being processed").register(registry);
+    }
+    
     /**
      * 定时检查并清理超时的会话
      */
@@ -614,20 +885,23 @@ private void handleFileUpload(WebSocketSession session, WebSocketMessage message
             sendProgressMessage(session, 30, "正在进行语音识别和翻译...");
             
             // 选择服务提供商
-            SpeechService speechService;
-            if ("openai".equalsIgnoreCase(request.getProvider())) {
-                speechService = openAISpeechService;
-            } else {
-                speechService = microsoftSpeechService;
-            }
+            SpeechService speechService = speechServiceFactory.getSpeechService(request);
             
             // 检查请求模式，如果是speech-to-speech，就进行完整的语音转语音翻译
-            if ("speech-to-speech".equals(request.getMode())) {
+            if ("speech-to-speech".equals(request.getMode()) && request.isMultiTarget()) {
+                handleMultiTargetTranslation(session, audioData, request, true, () -> { }, null, true);
+            } else if ("speech-to-speech".equals(request.getMode())) {
                 // 直接调用语音转语音翻译
                 log.info("开始进行语音转语音翻译: 会话ID={}, 源语言={}, 目标语言={}", 
                         sessionId, request.getSourceLanguage(), request.getTargetLanguage());
                 
-                speechService.translateSpeechToSpeech(audioData, request, session)
+                // 合成音频可能以多帧流式返回，文件上传结果需合并为一条完整音频
+                subscribeForSession(session, speechService.translateSpeechToSpeech(audioData, request, session)
+                    .reduce(new ByteArrayOutputStream(), (out, frame) -> {
+                        out.writeBytes(frame);
+                        return out;
+                    })
+                    .map(ByteArrayOutputStream::toByteArray)
                     .doOnNext(translatedAudioData -> {
                         try {
                             log.info("语音转语音翻译完成: 会话ID={}, 音频数据大小={}KB", 
@@ -657,12 +931,12 @@ private void handleFileUpload(WebSocketSession session, WebSocketMessage message
                     })
                     .doOnError(error -> {
                         log.error("语音转语音翻译错误: 会话ID={}, 错误={}", sessionId, error.getMessage(), error);
-                        sendErrorMessage(session, "语音转语音翻译错误: " + error.getMessage());
+                        sendErrorMessage(session, "语音转语音翻译错误: " + error.getMessage(), errorCodeOf(error));
                     })
-                    .subscribe();
+                    .flux());
             } else {
                 // 原有的语音转文字处理逻辑
-                speechService.speechToText(audioData, request.getSourceLanguage())
+                subscribeForSession(session, speechService.speechToText(audioData, request.getSourceLanguage())
                     .doOnNext(text -> {
                         try {
                             log.debug("语音识别结果: 会话ID={}, 文本={}", sessionId, text);
@@ -683,20 +957,16 @@ private void handleFileUpload(WebSocketSession session, WebSocketMessage message
                             if (!request.getSourceLanguage().equals(request.getTargetLanguage()) && 
                                 !"auto".equals(request.getSourceLanguage())) {
                                 
-                                // 使用MicrosoftSpeechService的翻译功能
-                                log.info("开始翻译文本: 会话ID={}, 源语言={}, 目标语言={}, 文本=\"{}\"", 
+                                log.debug("开始翻译文本: 会话ID={}, 源语言={}, 目标语言={}, 文本=\"{}\"", 
                                         sessionId, request.getSourceLanguage(), request.getTargetLanguage(), text);
                                 
-                                // 获取具体的MicrosoftSpeechService实例
-                                MicrosoftSpeechService microsoftService = (MicrosoftSpeechService) microsoftSpeechService;
-                                
                                 // 翻译文本
-                                microsoftService.translateTextWithMicrosoftAPI(text, 
+                                subscribeForSession(session, textTranslator.translate(text, 
                                         request.getSourceLanguage(), 
-                                        request.getTargetLanguage())
-                                    .subscribe(translatedText -> {
+                                        request.getTargetLanguage()).flux(),
+                                    translatedText -> {
                                         try {
-                                            log.info("翻译完成: 会话ID={}, 原文=\"{}\", 译文=\"{}\"", 
+                                            log.debug("翻译完成: 会话ID={}, 原文=\"{}\", 译文=\"{}\"", 
                                                     sessionId, text, translatedText);
                                             
                                             // 发送翻译进度消息
@@ -713,7 +983,7 @@ private void handleFileUpload(WebSocketSession session, WebSocketMessage message
                                         }
                                     }, error -> {
                                         log.error("翻译过程出错: 会话ID={}, 错误={}", sessionId, error.getMessage(), error);
-                                        sendErrorMessage(session, "翻译过程出错: " + error.getMessage());
+                                        sendErrorMessage(session, "翻译过程出错: " + error.getMessage(), errorCodeOf(error));
                                         
                                         // 即使翻译失败也发送原文
                                         try {
@@ -728,7 +998,7 @@ private void handleFileUpload(WebSocketSession session, WebSocketMessage message
                                         } catch (Exception e) {
                                             log.error("发送原文失败: 会话ID={}, 错误={}", sessionId, e.getMessage(), e);
                                         }
-                                    });
+                                    }, null);
                             } else {
                                 // 源语言和目标语言相同，不需要翻译
                                 log.info("源语言和目标语言相同，不需要翻译: {}={}", 
@@ -743,9 +1013,8 @@ private void handleFileUpload(WebSocketSession session, WebSocketMessage message
                     })
                     .doOnError(error -> {
                         log.error("语音识别错误: 会话ID={}, 错误={}", sessionId, error.getMessage(), error);
-                        sendErrorMessage(session, "语音识别错误: " + error.getMessage());
-                    })
-                    .subscribe();
+                        sendErrorMessage(session, "语音识别错误: " + error.getMessage(), errorCodeOf(error));
+                    }));
             }
                 
         } catch (Exception e) {
@@ -754,6 +1023,160 @@ private void handleFileUpload(WebSocketSession session, WebSocketMessage message
         }
     }
     
+    /**
+     * 按请求中的角色加入广播房间，加入失败时发送错误消息
+     * 
+     * @return 是否加入成功
+     */
+    private boolean joinRoom(WebSocketSession session, TranslationRequest request) {
+        String roomId = request.getRoomId();
+        if (BroadcastRoomManager.ROLE_SPEAKER.equals(request.getRoomRole())) {
+            if (!roomManager.joinAsSpeaker(roomId, session)) {
+                log.warn("加入房间失败-已有主讲人: 会话ID={}, 房间={}", session.getId(), roomId);
+                sendErrorMessage(session, "初始化失败：房间已有主讲人");
+                return false;
+            }
+        } else if (BroadcastRoomManager.ROLE_LISTENER.equals(request.getRoomRole())) {
+            if (request.getTargetLanguage() == null) {
+                sendErrorMessage(session, "初始化失败：听众需要指定目标语言");
+                return false;
+            }
+            if (!roomManager.joinAsListener(roomId, request.getTargetLanguage(), session)) {
+                log.warn("加入房间失败-听众已满: 会话ID={}, 房间={}", session.getId(), roomId);
+                sendErrorMessage(session, "初始化失败：房间听众已满");
+                return false;
+            }
+        } else {
+            sendErrorMessage(session, "初始化失败：无效的房间角色 " + request.getRoomRole());
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * 处理主讲人的音频：按听众订阅的全部语言只识别和翻译一次，结果广播给房间内的听众
+     */
+    private void handleRoomAudio(WebSocketSession session, byte[] audioData, TranslationRequest request, Runnable onDrained,
+            boolean sampled) {
+        String sessionId = session.getId();
+        String roomId = request.getRoomId();
+        List<String> languages = roomManager.getListenerLanguages(roomId);
+        if (languages.isEmpty()) {
+            log.debug("房间内没有听众，跳过翻译: 房间={}, 会话ID={}", roomId, sessionId);
+            onDrained.run();
+            return;
+        }
+        
+        long startTime = System.currentTimeMillis();
+        TranslationRequest roomRequest = request.toBuilder().targetLanguages(languages).build();
+        subscribeForSession(session, translationService.translateSpeechToTargets(audioData, roomRequest, session)
+                .doFinally(signal -> onDrained.run())
+                .contextWrite(Context.of(AudioConsumedHook.CONTEXT_KEY, onDrained)),
+                result -> roomManager.publish(roomId, result),
+                error -> {
+                    log.error("房间翻译错误: 房间={}, 会话ID={}, 错误={}", roomId, sessionId, error.getMessage(), error);
+                    sendErrorMessage(session, "转译处理发生错误: " + error.getMessage(), errorCodeOf(error));
+                },
+                () -> {
+                    if (sampled) {
+                        log.info("房间翻译完成: 房间={}, 目标语言={}, 处理耗时={}毫秒", 
+                                roomId, languages, System.currentTimeMillis() - startTime);
+                    }
+                    try {
+                        sendTextMessage(session, WebSocketMessage.builder()
+                                .type(MessageType.TEXT_RESULT)
+                                .message("处理完成")
+                                .build());
+                    } catch (Exception e) {
+                        log.error("发送完成消息失败: 会话ID={}, 错误={}", sessionId, e.getMessage(), e);
+                    }
+                }
+            );
+    }
+    
+    /**
+     * 处理多目标语言翻译
+     * 译文以带语言的TRANSLATION消息发送；音频以带语言的AUDIO_RESULT消息发送，
+     * 文件上传时每种语言合并为一条完整音频，实时音频则逐帧发送
+     * 
+     * @param session WebSocket会话
+     * @param audioData 音频数据
+     * @param request 翻译请求配置
+     * @param isFileUpload 是否为文件上传
+     */
+    private void handleMultiTargetTranslation(WebSocketSession session, byte[] audioData, TranslationRequest request, 
+            boolean isFileUpload, Runnable onDrained, UtteranceTiming timing, boolean sampled) {
+        String sessionId = session.getId();
+        long startTime = System.currentTimeMillis();
+        Map<String, ByteArrayOutputStream> fileAudio = new LinkedHashMap<>();
+        
+        Flux<TranslationResult> results = translationService.translateSpeechToTargets(audioData, request, session)
+                .doFinally(signal -> onDrained.run())
+                .contextWrite(Context.of(AudioConsumedHook.CONTEXT_KEY, onDrained));
+        if (timing != null) {
+            results = results.contextWrite(Context.of(UtteranceTiming.CONTEXT_KEY, timing));
+        }
+        subscribeForSession(session, results,
+                result -> {
+                    try {
+                        if (!session.isOpen()) {
+                            return;
+                        }
+                        if (result.getAudio() == null) {
+                            log.debug("发送译文: 会话ID={}, 目标语言={}, 译文=\"{}\"", 
+                                    sessionId, result.getLanguage(), result.getTranslatedText());
+                            sendTextMessage(session, WebSocketMessage.builder()
+                                    .type(MessageType.TRANSLATION)
+                                    .message(result.getTranslatedText())
+                                    .language(result.getLanguage())
+                                    .isFileUpload(isFileUpload)
+                                    .build(), timing);
+                        } else if (isFileUpload) {
+                            fileAudio.computeIfAbsent(result.getLanguage(), language -> new ByteArrayOutputStream())
+                                    .writeBytes(result.getAudio());
+                        } else {
+                            sendTextMessage(session, WebSocketMessage.builder()
+                                    .type(MessageType.AUDIO_RESULT)
+                                    .audio(Base64.getEncoder().encodeToString(result.getAudio()))
+                                    .language(result.getLanguage())
+                                    .build(), timing);
+                        }
+                    } catch (IOException e) {
+                        log.error("发送多目标语言翻译结果失败: 会话ID={}, 目标语言={}, 错误={}", 
+                                sessionId, result.getLanguage(), e.getMessage(), e);
+                    }
+                },
+                error -> {
+                    log.error("多目标语言翻译错误: 会话ID={}, 错误={}", sessionId, error.getMessage(), error);
+                    sendErrorMessage(session, "转译处理发生错误: " + error.getMessage(), errorCodeOf(error));
+                },
+                () -> {
+                    if (sampled) {
+                        log.info("多目标语言翻译完成: 会话ID={}, 目标语言={}, 处理耗时={}毫秒", 
+                                sessionId, request.getEffectiveTargetLanguages(), System.currentTimeMillis() - startTime);
+                    }
+                    try {
+                        if (isFileUpload) {
+                            sendProgressMessage(session, 90, "语音翻译完成，准备播放...");
+                            for (Map.Entry<String, ByteArrayOutputStream> entry : fileAudio.entrySet()) {
+                                sendTextMessage(session, WebSocketMessage.builder()
+                                        .type(MessageType.AUDIO_RESULT)
+                                        .audio(Base64.getEncoder().encodeToString(entry.getValue().toByteArray()))
+                                        .language(entry.getKey())
+                                        .isFileUpload(true)
+                                        .build());
+                            }
+                            sendProgressMessage(session, 100, "处理完成", true);
+                        } else {
+                            sendCompletion(session, timing);
+                        }
+                    } catch (Exception e) {
+                        log.error("发送完成消息失败: 会话ID={}, 错误={}", sessionId, e.getMessage(), e);
+                    }
+                }
+            );
+    }
+    
     /**
      * 发送处理进度消息
      */
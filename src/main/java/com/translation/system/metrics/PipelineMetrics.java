@@ -0,0 +1,220 @@
+package com.translation.system.metrics;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.stereotype.Component;
+
+import com.translation.system.model.SupportedLanguages;
+import com.translation.system.model.TranslationRequest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 翻译流水线各阶段的耗时指标
+ * 所有阶段记录到同一个直方图 translation.pipeline.stage，按 stage、provider、mode、language_pair 标签区分，
+ * Prometheus中可按阶段或语言对聚合分位数。标签值来自客户端请求，只保留已知的服务提供者、模式和支持的语言，
+ * 其余记为 other，避免时间序列无限增长。
+ * 识别、翻译和合成的耗时从对应操作被订阅时算起，包含其中的排队时间，排队部分另以 queue 阶段单独记录。
+ * 订阅方的Context中带有 {@link UtteranceTiming} 时，耗时同时累加到该音频帧的计时中
+ */
+@Component
+@RequiredArgsConstructor
+public class PipelineMetrics {
+
+    public static final String STAGE_METRIC = "translation.pipeline.stage";
+
+    private static final String UNKNOWN = "unknown";
+    private static final String OTHER = "other";
+
+    private static final Set<String> KNOWN_PROVIDERS = Set.of("microsoft", "openai", "auto", "hedged");
+    private static final Set<String> KNOWN_MODES = Set.of("speech-to-speech", "speech-to-text");
+
+    private final MeterRegistry meterRegistry;
+
+    // 标签组合有限，按组合缓存计时器，避免每次记录都重新构建
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * 流水线阶段
+     */
+    public enum Stage {
+        /**
+         * 收到音频帧到交给翻译服务：解析、校验和流量控制
+         */
+        INGEST("ingest"),
+
+        /**
+         * 请求等待执行资源：对象池中的引擎配置、并发许可、调度线程
+         */
+        QUEUE("queue"),
+
+        /**
+         * 第一个识别中间结果
+         */
+        RECOGNITION_FIRST_PARTIAL("recognition_first_partial"),
+
+        /**
+         * 第一句识别最终结果
+         */
+        RECOGNITION_FINAL("recognition_final"),
+
+        /**
+         * 文本翻译
+         */
+        TEXT_TRANSLATION("text_translation"),
+
+        /**
+         * 合成音频的第一帧
+         */
+        SYNTHESIS_FIRST_BYTE("synthesis_first_byte"),
+
+        /**
+         * 合成全部完成
+         */
+        SYNTHESIS_COMPLETE("synthesis_complete"),
+
+        /**
+         * 向WebSocket会话写出一条消息
+         */
+        WEBSOCKET_SEND("websocket_send");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+    }
+
+    /**
+     * 记录一个阶段的耗时
+     *
+     * @param provider 实际处理的服务提供者，未知时为null
+     * @param request 翻译请求，用于模式和语言对标签，可为null
+     */
+    public void record(Stage stage, String provider, TranslationRequest request, long nanos) {
+        timer(stage, provider, request).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一个阶段的耗时，并累加到音频帧的计时中
+     *
+     * @param timing 音频帧计时，未开启时为null
+     */
+    public void record(Stage stage, String provider, TranslationRequest request, long nanos, UtteranceTiming timing) {
+        record(stage, provider, request, nanos);
+        if (timing != null) {
+            timing.add(stage, nanos);
+        }
+    }
+
+    /**
+     * 记录从订阅到第一个元素、从订阅到正常结束的耗时，两个阶段都可以为null
+     */
+    public <T> Flux<T> timeFlux(Flux<T> flux, Stage first, Stage complete, String provider, TranslationRequest request) {
+        return Flux.deferContextual(context -> {
+            long start = System.nanoTime();
+            UtteranceTiming timing = UtteranceTiming.from(context);
+            AtomicBoolean emitted = new AtomicBoolean();
+            Flux<T> timed = flux;
+            if (first != null) {
+                timed = timed.doOnNext(value -> {
+                    if (emitted.compareAndSet(false, true)) {
+                        record(first, provider, request, System.nanoTime() - start, timing);
+                    }
+                });
+            }
+            if (complete != null) {
+                timed = timed.doOnComplete(() -> record(complete, provider, request, System.nanoTime() - start, timing));
+            }
+            return timed;
+        });
+    }
+
+    /**
+     * 记录从订阅到成功返回结果的耗时
+     */
+    public <T> Mono<T> timeMono(Mono<T> mono, Stage stage, String provider, TranslationRequest request) {
+        return Mono.deferContextual(context -> {
+            long start = System.nanoTime();
+            UtteranceTiming timing = UtteranceTiming.from(context);
+            return mono.doOnSuccess(value -> record(stage, provider, request, System.nanoTime() - start, timing));
+        });
+    }
+
+    /**
+     * 计时器的标签组合
+     */
+    record TimerKey(Stage stage, String provider, String mode, String languagePair) {
+
+        Tags tags() {
+            return Tags.of("stage", stage.getTag(),
+                    "provider", provider,
+                    "mode", mode,
+                    "language_pair", languagePair);
+        }
+    }
+
+    private Timer timer(Stage stage, String provider, TranslationRequest request) {
+        return timers.computeIfAbsent(key(stage, provider, request), key -> Timer.builder(STAGE_METRIC)
+                .description("Latency of each translation pipeline stage")
+                .tags(key.tags())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(60))
+                .register(meterRegistry));
+    }
+
+    static Tags tags(Stage stage, String provider, TranslationRequest request) {
+        return key(stage, provider, request).tags();
+    }
+
+    static TimerKey key(Stage stage, String provider, TranslationRequest request) {
+        String mode = UNKNOWN;
+        String languagePair = UNKNOWN;
+        if (request != null) {
+            mode = known(request.getMode(), KNOWN_MODES);
+            languagePair = language(request.getSourceLanguage()) + "->" + language(request.getTargetLanguage());
+            if (provider == null) {
+                provider = request.getProvider();
+            }
+        }
+        return new TimerKey(stage, known(provider, KNOWN_PROVIDERS), mode, languagePair);
+    }
+
+    private static String known(String value, Set<String> allowed) {
+        String normalized = value != null ? value.toLowerCase(Locale.ROOT) : null;
+        return known(value, normalized != null && allowed.contains(normalized) ? normalized : null);
+    }
+
+    private static String language(String code) {
+        if (code != null && code.equalsIgnoreCase("auto")) {
+            return "auto";
+        }
+        return known(code, SupportedLanguages.canonical(code));
+    }
+
+    /**
+     * 空值记为 unknown，不在已知范围内的值记为 other
+     */
+    private static String known(String value, String canonical) {
+        if (value == null || value.isEmpty()) {
+            return UNKNOWN;
+        }
+        return canonical != null ? canonical : OTHER;
+    }
+}
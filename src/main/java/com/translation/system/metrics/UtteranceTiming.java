@@ -0,0 +1,97 @@
+package com.translation.system.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.translation.system.metrics.PipelineMetrics.Stage;
+
+import reactor.util.context.ContextView;
+
+/**
+ * 一个音频帧（一段话）在服务端各阶段的耗时，单位纳秒
+ * 仅在会话开启 timing 时创建，通过Reactor Context传给语音服务，PipelineMetrics记录阶段耗时时顺带累加到这里；
+ * 未开启时Context中没有该对象，各阶段只多一次Context查找
+ */
+public class UtteranceTiming {
+
+    /**
+     * Reactor Context中的键
+     */
+    public static final String CONTEXT_KEY = UtteranceTiming.class.getName();
+
+    private static final long NOT_RECORDED = -1;
+
+    private final String utteranceId;
+    private final long receivedNanos;
+
+    private final AtomicLong receive = new AtomicLong(NOT_RECORDED);
+    private final AtomicLong queue = new AtomicLong(NOT_RECORDED);
+    private final AtomicLong recognizerFirstEvent = new AtomicLong(NOT_RECORDED);
+    private final AtomicLong translation = new AtomicLong(NOT_RECORDED);
+    private final AtomicLong synthesis = new AtomicLong(NOT_RECORDED);
+    private final AtomicLong send = new AtomicLong(NOT_RECORDED);
+
+    /**
+     * @param receivedNanos 音频帧进入服务端时的 System.nanoTime()
+     */
+    public UtteranceTiming(String utteranceId, long receivedNanos) {
+        this.utteranceId = utteranceId;
+        this.receivedNanos = receivedNanos;
+    }
+
+    /**
+     * 从Context中取出当前音频帧的计时，未开启时返回null
+     */
+    public static UtteranceTiming from(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, null);
+    }
+
+    public String getUtteranceId() {
+        return utteranceId;
+    }
+
+    /**
+     * 累加一个阶段的耗时
+     * 识别器首个事件只取最先到达的中间结果或最终结果；排队、翻译、合成和发送可能发生多次（如多目标语言），取累计值
+     */
+    public void add(Stage stage, long nanos) {
+        switch (stage) {
+            case INGEST -> accumulate(receive, nanos);
+            case QUEUE -> accumulate(queue, nanos);
+            case RECOGNITION_FIRST_PARTIAL, RECOGNITION_FINAL -> recognizerFirstEvent.compareAndSet(NOT_RECORDED, nanos);
+            case TEXT_TRANSLATION -> accumulate(translation, nanos);
+            case SYNTHESIS_COMPLETE -> accumulate(synthesis, nanos);
+            case WEBSOCKET_SEND -> accumulate(send, nanos);
+            default -> {
+                // 合成首帧等阶段不单独返回给客户端
+            }
+        }
+    }
+
+    /**
+     * 各阶段耗时，未经历的阶段不出现；total 为从收到音频帧到现在的时间
+     */
+    public Map<String, Long> toStages() {
+        Map<String, Long> stages = new LinkedHashMap<>();
+        put(stages, "receive", receive);
+        put(stages, "queue", queue);
+        put(stages, "recognizerFirstEvent", recognizerFirstEvent);
+        put(stages, "translation", translation);
+        put(stages, "synthesis", synthesis);
+        put(stages, "send", send);
+        stages.put("total", System.nanoTime() - receivedNanos);
+        return stages;
+    }
+
+    private static void accumulate(AtomicLong stage, long nanos) {
+        stage.accumulateAndGet(nanos, (current, added) -> current == NOT_RECORDED ? added : current + added);
+    }
+
+    private static void put(Map<String, Long> stages, String name, AtomicLong stage) {
+        long nanos = stage.get();
+        if (nanos != NOT_RECORDED) {
+            stages.put(name, nanos);
+        }
+    }
+}
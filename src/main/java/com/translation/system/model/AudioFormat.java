@@ -22,5 +22,10 @@ public enum AudioFormat {
     /**
      * WEBM 格式
      */
-    WEBM
+    WEBM,
+    
+    /**
+     * 原始PCM格式（24kHz、16位单声道小端，无文件头），各服务提供者输出的采样率一致，适合边接收边播放
+     */
+    PCM
 } 
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.translation.system.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量转写中单个文件的结果，每个结果作为NDJSON的一行返回
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(Include.NON_NULL)
+public class BatchTranscriptionResult {
+
+    /**
+     * 文件在请求中的序号（从0开始），结果按完成顺序返回，客户端据此对应上传的文件
+     */
+    private int index;
+
+    /**
+     * 上传时的文件名
+     */
+    private String filename;
+
+    /**
+     * 是否识别成功
+     */
+    private boolean success;
+
+    /**
+     * 识别出的文本
+     */
+    private String text;
+
+    /**
+     * 失败原因（仅失败时）
+     */
+    private String error;
+
+    /**
+     * 服务提供者
+     */
+    private String provider;
+
+    /**
+     * 源语言
+     */
+    private String sourceLanguage;
+
+    /**
+     * 从开始处理该文件到得到结果的时间（毫秒），不含排队等待其他文件的时间
+     */
+    private long elapsedMillis;
+}
@@ -52,5 +52,20 @@ public enum MessageType {
     /**
      * 音频结果
      */
-    AUDIO_RESULT
+    AUDIO_RESULT,
+    
+    /**
+     * 服务端授予的音频发送额度（字节）
+     */
+    CREDIT,
+    
+    /**
+     * 客户端超出额度，音频帧被丢弃
+     */
+    THROTTLE,
+    
+    /**
+     * 音频帧在服务端各阶段的耗时（会话开启timing时发送）
+     */
+    TIMING
 } 
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.translation.system.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 系统支持的语言，与页面上可选的语言一致
+ */
+public final class SupportedLanguages {
+
+    /**
+     * 语言代码到显示名称
+     */
+    public static final Map<String, String> NAMES;
+
+    static {
+        Map<String, String> names = new LinkedHashMap<>();
+        names.put("zh-CN", "简体中文");
+        names.put("en-US", "英语(美国)");
+        names.put("ja-JP", "日语");
+        names.put("ko-KR", "韩语");
+        names.put("fr-FR", "法语");
+        names.put("de-DE", "德语");
+        names.put("es-ES", "西班牙语");
+        names.put("ru-RU", "俄语");
+        NAMES = Collections.unmodifiableMap(names);
+    }
+
+    // 小写语言代码到规范写法，客户端传入的大小写不一定规范
+    private static final Map<String, String> CANONICAL = new LinkedHashMap<>();
+
+    static {
+        NAMES.keySet().forEach(code -> CANONICAL.put(code.toLowerCase(Locale.ROOT), code));
+    }
+
+    private SupportedLanguages() {
+    }
+
+    /**
+     * 返回规范写法的语言代码，不支持的语言返回null
+     */
+    public static String canonical(String code) {
+        return code == null ? null : CANONICAL.get(code.toLowerCase(Locale.ROOT));
+    }
+}
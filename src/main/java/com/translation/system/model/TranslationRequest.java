@@ -1,5 +1,10 @@
 package com.translation.system.model;
 
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,7 +14,7 @@
  * 翻译请求模型，包含各种配置选项
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class TranslationRequest {
@@ -25,10 +30,22 @@ public class TranslationRequest {
     private String targetLanguage;
     
     /**
-     * 服务提供者，例如 "microsoft", "openai"
+     * 多个目标语言，例如 ["en-US", "ja-JP", "ko-KR"]，一次识别同时输出各语言的译文和语音
+     * 为空时使用 targetLanguage
+     */
+    private List<String> targetLanguages;
+    
+    /**
+     * 各目标语言使用的声音，键为目标语言，例如 {"ja-JP": "ja-JP-NanamiNeural"}
+     */
+    private Map<String, String> voices;
+    
+    /**
+     * 服务提供者，例如 "microsoft", "openai"；"hedged" 表示主服务响应慢时同时请求备用服务；
+     * "auto"（默认）表示按各服务的延迟和错误率自适应选择
      */
     @Builder.Default
-    private String provider = "microsoft";
+    private String provider = "auto";
     
     /**
      * 是否保留原始声音特征（例如音调、语速等）
@@ -80,6 +97,16 @@ public class TranslationRequest {
      */
     private String sessionId;
     
+    /**
+     * 广播房间ID，设置后会话加入该房间（一个主讲人，多个听众）
+     */
+    private String roomId;
+    
+    /**
+     * 房间角色："speaker"（主讲人，发送音频）, "listener"（听众，按 targetLanguage 接收结果）
+     */
+    private String roomRole;
+    
     /**
      * 语速
      */
@@ -97,6 +124,52 @@ public class TranslationRequest {
     @Builder.Default
     private Boolean returnAudio = false;
     
+    /**
+     * 是否在每个音频帧处理完成后返回TIMING消息，包含服务端各阶段耗时（纳秒）
+     */
+    @Builder.Default
+    private boolean timing = false;
+    
+    /**
+     * 实际生效的目标语言列表
+     */
+    @JsonIgnore
+    public List<String> getEffectiveTargetLanguages() {
+        if (targetLanguages != null && !targetLanguages.isEmpty()) {
+            return targetLanguages.stream().distinct().toList();
+        }
+        return targetLanguage != null ? List.of(targetLanguage) : List.of();
+    }
+    
+    /**
+     * 是否同时翻译到多个目标语言
+     */
+    @JsonIgnore
+    public boolean isMultiTarget() {
+        return getEffectiveTargetLanguages().size() > 1;
+    }
+    
+    /**
+     * 获取指定目标语言使用的声音，未配置时返回null由服务选择默认声音
+     */
+    public String voiceFor(String language) {
+        if (voices != null && voices.containsKey(language)) {
+            return voices.get(language);
+        }
+        return language != null && language.equals(targetLanguage) ? voice : null;
+    }
+    
+    /**
+     * 复制出只针对单个目标语言的请求，用于按语言分别合成语音
+     */
+    public TranslationRequest forTargetLanguage(String language) {
+        return toBuilder()
+                .targetLanguage(language)
+                .targetLanguages(null)
+                .voice(voiceFor(language))
+                .build();
+    }
+    
     /**
      * 自定义配置选项
      */
@@ -0,0 +1,37 @@
+package com.translation.system.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 单个目标语言的翻译结果
+ * 多目标语言翻译时，每句话先按语言输出一条译文结果（audio为空），随后输出该语言的合成音频
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TranslationResult {
+
+    /**
+     * 目标语言，例如 "en-US"
+     */
+    private String language;
+
+    /**
+     * 识别出的原文
+     */
+    private String sourceText;
+
+    /**
+     * 译文
+     */
+    private String translatedText;
+
+    /**
+     * 合成的音频数据，译文结果为null
+     */
+    private byte[] audio;
+}
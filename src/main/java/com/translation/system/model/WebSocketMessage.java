@@ -1,5 +1,7 @@
 package com.translation.system.model;
 
+import java.util.Map;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
@@ -47,6 +49,21 @@ public class WebSocketMessage {
      */
     private String audio;
     
+    /**
+     * 结果所属的目标语言（多目标语言翻译时使用）
+     */
+    private String language;
+    
+    /**
+     * 授予的音频发送额度（字节），用于INIT确认、CREDIT和THROTTLE消息
+     */
+    private Long credit;
+    
+    /**
+     * 建议客户端使用的采样率（THROTTLE消息）
+     */
+    private Integer sampleRate;
+    
     /**
      * 进度百分比（用于文件上传进度）
      */
@@ -105,6 +122,16 @@ public class WebSocketMessage {
      */
     private String errorCode;
     
+    /**
+     * 音频帧ID，会话开启timing时用于关联处理完成消息和TIMING消息
+     */
+    private String utteranceId;
+    
+    /**
+     * 各阶段耗时（纳秒），键为阶段名称（仅TIMING消息使用）
+     */
+    private Map<String, Long> timings;
+    
     /**
      * 创建错误消息
      */
@@ -0,0 +1,27 @@
+package com.translation.system.service;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * 输入音频已被识别器处理完的通知
+ * 调用方把回调放入Reactor上下文，服务实现在识别流结束（不再需要输入音频）时调用，
+ * 后续的翻译和合成仍在进行；WebSocket的流量控制据此提前归还该帧的额度。
+ * 回调可能被调用多次（如对冲请求的两路识别），调用方需保证幂等
+ */
+public final class AudioConsumedHook {
+
+    public static final String CONTEXT_KEY = AudioConsumedHook.class.getName();
+
+    private AudioConsumedHook() {
+    }
+
+    /**
+     * 识别流结束（完成、出错或取消）时调用上下文中的回调，没有回调时原样返回
+     */
+    public static <T> Flux<T> onRecognitionDone(Flux<T> recognition) {
+        return Flux.deferContextual(context -> {
+            Runnable callback = context.getOrDefault(CONTEXT_KEY, null);
+            return callback != null ? recognition.doFinally(signal -> callback.run()) : recognition;
+        });
+    }
+}
@@ -0,0 +1,118 @@
+package com.translation.system.service;
+
+import org.springframework.web.socket.WebSocketSession;
+
+import com.translation.system.model.TranslationRequest;
+import com.translation.system.model.TranslationResult;
+import com.translation.system.service.routing.ProviderOverloadedException;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * 把语音服务的失败转换为降级结果的装饰器
+ * 识别失败时返回以“语音识别失败”开头的文本，合成失败时返回空音频，语音翻译失败时返回致歉语音。
+ * 服务实现本身只发出错误，降级放在路由、健康状态和隔离舱之外，这些层才能看到失败；
+ * 隔离舱拒绝的请求原样返回错误，客户端据此稍后重试
+ */
+@Slf4j
+public class ErrorFallbackSpeechService implements SpeechService {
+
+    public static final String RECOGNITION_FAILED_PREFIX = "语音识别失败";
+
+    private final SpeechService delegate;
+
+    public ErrorFallbackSpeechService(SpeechService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Flux<String> speechToText(byte[] audioData, String sourceLanguage) {
+        return recognitionFallback(delegate.speechToText(audioData, sourceLanguage));
+    }
+
+    @Override
+    public Flux<String> speechToText(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        return recognitionFallback(delegate.speechToText(audioData, request, session));
+    }
+
+    @Override
+    public Flux<byte[]> textToSpeech(String text, String targetLanguage) {
+        return synthesisFallback(delegate.textToSpeech(text, targetLanguage));
+    }
+
+    @Override
+    public Flux<byte[]> textToSpeech(String text, String targetLanguage, TranslationRequest request) {
+        return synthesisFallback(delegate.textToSpeech(text, targetLanguage, request));
+    }
+
+    @Override
+    public Flux<byte[]> textToSpeech(String text, TranslationRequest request, WebSocketSession session) {
+        return synthesisFallback(delegate.textToSpeech(text, request, session));
+    }
+
+    @Override
+    public Flux<byte[]> translateSpeechToSpeech(byte[] audioData, String sourceLanguage, String targetLanguage) {
+        return delegate.translateSpeechToSpeech(audioData, sourceLanguage, targetLanguage)
+                .onErrorResume(this::isFallbackAllowed, e -> {
+                    log.error("语音到语音翻译出错，返回致歉语音: 服务={}, 错误={}", getProviderName(), e.getMessage(), e);
+                    return textToSpeech(apology(targetLanguage), targetLanguage);
+                });
+    }
+
+    @Override
+    public Flux<byte[]> translateSpeechToSpeech(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        return delegate.translateSpeechToSpeech(audioData, request, session)
+                .onErrorResume(this::isFallbackAllowed, e -> {
+                    log.error("语音到语音翻译出错，返回致歉语音: 会话ID={}, 服务={}, 错误={}",
+                            session != null ? session.getId() : "unknown", getProviderName(), e.getMessage(), e);
+                    return textToSpeech(apology(request.getTargetLanguage()), request, session);
+                });
+    }
+
+    @Override
+    public Flux<TranslationResult> translateSpeechToTargets(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        // 多目标翻译的错误由调用方按语言处理，不做降级
+        return delegate.translateSpeechToTargets(audioData, request, session);
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return delegate.isAvailable();
+    }
+
+    @Override
+    public boolean isSaturated() {
+        return delegate.isSaturated();
+    }
+
+    @Override
+    public String getProviderName() {
+        return delegate.getProviderName();
+    }
+
+    private Flux<String> recognitionFallback(Flux<String> recognition) {
+        return recognition.onErrorResume(this::isFallbackAllowed, e -> {
+            log.error("Error in speech-to-text: provider={}", getProviderName(), e);
+            return Flux.just(RECOGNITION_FAILED_PREFIX + ": " + e.getMessage());
+        });
+    }
+
+    private Flux<byte[]> synthesisFallback(Flux<byte[]> synthesis) {
+        return synthesis.onErrorResume(this::isFallbackAllowed, e -> {
+            log.error("Error in text-to-speech: provider={}", getProviderName(), e);
+            return Flux.just(new byte[0]);
+        });
+    }
+
+    private boolean isFallbackAllowed(Throwable error) {
+        return !(error instanceof ProviderOverloadedException);
+    }
+
+    private static String apology(String targetLanguage) {
+        if (targetLanguage != null && (targetLanguage.equals("en") || targetLanguage.startsWith("en-"))) {
+            return "Sorry, there was an issue with the speech translation";
+        }
+        return "很抱歉，语音翻译过程中出现了问题";
+    }
+}
@@ -0,0 +1,134 @@
+package com.translation.system.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.web.socket.WebSocketSession;
+
+import com.translation.system.model.TranslationRequest;
+import com.translation.system.model.TranslationResult;
+import com.translation.system.util.SingleFlight;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 合并相同请求的语音服务装饰器
+ * 多个调用方同时发起完全相同的识别、合成或翻译请求时只调用一次语音服务，
+ * 请求键由操作类型、输入数据和除会话ID外的全部请求配置组成。
+ * 只合并结果可以整体共享的调用：识别文本和完整的合成音频；
+ * 带会话的调用有按会话处理的工作（调试音频、计时、额度回调），直接交给下层服务
+ */
+public class SingleFlightSpeechService implements SpeechService {
+
+    private final SpeechService delegate;
+    private final SingleFlight<List<Object>, List<String>> textFlights = new SingleFlight<>();
+    private final SingleFlight<List<Object>, byte[]> audioFlights = new SingleFlight<>();
+
+    public SingleFlightSpeechService(SpeechService delegate) {
+        this.delegate = delegate;
+    }
+
+    public SpeechService getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Flux<String> speechToText(byte[] audioData, String sourceLanguage) {
+        return textFlights.execute(key("speech-to-text", ByteBuffer.wrap(audioData), sourceLanguage),
+                        () -> delegate.speechToText(audioData, sourceLanguage).collectList())
+                .flatMapIterable(texts -> texts);
+    }
+
+    @Override
+    public Flux<String> speechToText(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        return delegate.speechToText(audioData, request, session);
+    }
+
+    @Override
+    public Flux<byte[]> textToSpeech(String text, String targetLanguage) {
+        return audioFlights.execute(key("text-to-speech", text, targetLanguage),
+                () -> joined(delegate.textToSpeech(text, targetLanguage))).flux();
+    }
+
+    @Override
+    public Flux<byte[]> textToSpeech(String text, String targetLanguage, TranslationRequest request) {
+        return audioFlights.execute(key("text-to-speech", text, targetLanguage, requestKey(request)),
+                () -> joined(delegate.textToSpeech(text, targetLanguage, request))).flux();
+    }
+
+    @Override
+    public Flux<byte[]> textToSpeech(String text, TranslationRequest request, WebSocketSession session) {
+        return delegate.textToSpeech(text, request, session);
+    }
+
+    @Override
+    public Flux<byte[]> translateSpeechToSpeech(byte[] audioData, String sourceLanguage, String targetLanguage) {
+        return audioFlights.execute(key("speech-to-speech", ByteBuffer.wrap(audioData), sourceLanguage, targetLanguage),
+                () -> joined(delegate.translateSpeechToSpeech(audioData, sourceLanguage, targetLanguage))).flux();
+    }
+
+    @Override
+    public Flux<byte[]> translateSpeechToSpeech(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        return delegate.translateSpeechToSpeech(audioData, request, session);
+    }
+
+    @Override
+    public Flux<TranslationResult> translateSpeechToTargets(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        return delegate.translateSpeechToTargets(audioData, request, session);
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return delegate.isAvailable();
+    }
+
+    @Override
+    public String getProviderName() {
+        return delegate.getProviderName();
+    }
+
+    /**
+     * 正在执行的请求数
+     */
+    public int getInFlight() {
+        return textFlights.getInFlight() + audioFlights.getInFlight();
+    }
+
+    /**
+     * 复用已有调用的请求次数
+     */
+    public long getShared() {
+        return textFlights.getShared() + audioFlights.getShared();
+    }
+
+    /**
+     * 把分块的音频合并为一个完整结果再共享，没有音频时为空
+     */
+    private static Mono<byte[]> joined(Flux<byte[]> chunks) {
+        return chunks.collectList()
+                .filter(list -> !list.isEmpty())
+                .map(list -> {
+                    ByteArrayOutputStream audio = new ByteArrayOutputStream();
+                    list.forEach(audio::writeBytes);
+                    return audio.toByteArray();
+                });
+    }
+
+    private static List<Object> key(Object... parts) {
+        return Arrays.asList(parts);
+    }
+
+    /**
+     * 去掉会话ID后的请求配置，用于比较两个请求是否相同
+     */
+    private static TranslationRequest requestKey(TranslationRequest request) {
+        if (request == null) {
+            return null;
+        }
+        // 复制一份，避免调用方之后修改请求对象影响键
+        return request.toBuilder().sessionId(null).build();
+    }
+}
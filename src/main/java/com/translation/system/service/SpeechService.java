@@ -3,6 +3,7 @@
 import org.springframework.web.socket.WebSocketSession;
 
 import com.translation.system.model.TranslationRequest;
+import com.translation.system.model.TranslationResult;
 import reactor.core.publisher.Flux;
 
 /**
@@ -65,6 +66,15 @@ public interface SpeechService {
      */
     boolean isAvailable();
     
+    /**
+     * 检查服务是否已饱和（连接池或并发许可已耗尽，新请求需要排队）
+     * 
+     * @return 服务是否饱和
+     */
+    default boolean isSaturated() {
+        return false;
+    }
+    
     /**
      * 获取服务提供者名称
      * 
@@ -91,4 +101,14 @@ public interface SpeechService {
      * @return 翻译后的语音数据流
      */
     Flux<byte[]> translateSpeechToSpeech(byte[] audioData, TranslationRequest request, WebSocketSession session);
-} 
\ No newline at end of file
+    
+    /**
+     * 多目标语言语音翻译 - 只识别一次，按目标语言分别输出译文和合成语音
+     * 
+     * @param audioData 输入的音频数据
+     * @param request 翻译请求配置，目标语言取 {@link TranslationRequest#getEffectiveTargetLanguages()}
+     * @param session WebSocket会话
+     * @return 各目标语言的译文和音频结果
+     */
+    Flux<TranslationResult> translateSpeechToTargets(byte[] audioData, TranslationRequest request, WebSocketSession session);
+} 
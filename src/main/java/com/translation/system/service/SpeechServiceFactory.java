@@ -1,12 +1,22 @@
 package com.translation.system.service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import com.translation.system.config.SpeechConfig;
 import com.translation.system.model.TranslationRequest;
+import com.translation.system.service.routing.AdaptiveConcurrencyLimiter;
+import com.translation.system.service.routing.BulkheadSpeechService;
+import com.translation.system.service.routing.HealthTrackingSpeechService;
+import com.translation.system.service.routing.HedgingSpeechService;
+import com.translation.system.service.routing.ProviderHealth;
+import com.translation.system.service.routing.RoutingSpeechService;
 
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
@@ -18,14 +28,127 @@
 public class SpeechServiceFactory {
     
     private final List<SpeechService> speechServices;
+    private final SpeechConfig.Hedging hedgingConfig;
+    private final SpeechConfig.Routing routingConfig;
+    private final SpeechConfig.Bulkhead bulkheadConfig;
     private final Map<String, SpeechService> serviceMap = new ConcurrentHashMap<>();
+    // 服务提供者 -> 记录健康状态的服务（不经过single-flight，探测请求不会与用户请求合并）
+    private final Map<String, HealthTrackingSpeechService> trackedServices = new LinkedHashMap<>();
+    // 服务提供者 -> 并发上限
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new LinkedHashMap<>();
+    
+    private HedgingSpeechService hedgingService;
+    private RoutingSpeechService routingService;
     
     @PostConstruct
     public void init() {
+        List<RoutingSpeechService.Route> routes = new ArrayList<>();
         speechServices.forEach(service -> {
-            serviceMap.put(service.getProviderName().toLowerCase(), service);
+            String name = service.getProviderName().toLowerCase();
+            // 健康状态只记录实际发往服务的请求，因此放在single-flight之内
+            ProviderHealth health = new ProviderHealth(name, routingConfig);
+            HealthTrackingSpeechService tracked = new HealthTrackingSpeechService(service, health);
+            trackedServices.put(name, tracked);
+            SpeechService guarded = tracked;
+            AdaptiveConcurrencyLimiter limiter = null;
+            if (bulkheadConfig.isEnabled()) {
+                // 隔离舱在健康状态记录之外，被拒绝的请求不计入服务的错误率
+                limiter = new AdaptiveConcurrencyLimiter(bulkheadConfig);
+                limiters.put(name, limiter);
+                guarded = new BulkheadSpeechService(tracked, limiter);
+            }
+            // 相同的请求同时到达时只调用一次语音服务
+            SpeechService shared = new SingleFlightSpeechService(guarded);
+            serviceMap.put(name, shared);
+            routes.add(new RoutingSpeechService.Route(shared, health, limiter));
             log.info("Registered speech service provider: {}", service.getProviderName());
         });
+        
+        // 自适应路由：未指定服务提供者的请求按预测延迟选择服务
+        routingService = new RoutingSpeechService(routes);
+        serviceMap.put(routingService.getProviderName(), routingService);
+        
+        // 对冲模式：主服务响应慢时同时请求备用服务，采用先返回的结果
+        SpeechService primary = serviceMap.get(hedgingConfig.getPrimary().toLowerCase());
+        SpeechService secondary = serviceMap.get(hedgingConfig.getSecondary().toLowerCase());
+        if (hedgingConfig.isEnabled() && primary != null && secondary != null && primary != secondary) {
+            hedgingService = new HedgingSpeechService(primary, secondary, hedgingConfig);
+            serviceMap.put(hedgingService.getProviderName(), hedgingService);
+            log.info("Registered hedged speech service: primary={}, secondary={}, maxHedgeRatio={}", 
+                    hedgingConfig.getPrimary(), hedgingConfig.getSecondary(), hedgingConfig.getMaxHedgeRatio());
+        }
+        
+        // 失败降级放在最外层，路由、对冲、健康状态和隔离舱都能看到服务实现发出的错误
+        serviceMap.replaceAll((name, service) -> new ErrorFallbackSpeechService(service));
+    }
+    
+    /**
+     * 对空闲的服务发送合成探测请求，使其健康状态保持最新；默认关闭
+     */
+    @Scheduled(fixedDelayString = "${speech.routing.probe-interval-millis:30000}")
+    public void probeIdleProviders() {
+        if (!routingConfig.isProbeEnabled()) {
+            return;
+        }
+        trackedServices.forEach((name, service) -> {
+            if (!service.isAvailable() || service.getHealth().getIdleMillis() < routingConfig.getProbeIdleMillis()) {
+                return;
+            }
+            log.debug("发送语音服务探测请求: {}", name);
+            service.textToSpeech(routingConfig.getProbeText(), routingConfig.getProbeLanguage())
+                    .then()
+                    .subscribe(null, error -> log.warn("语音服务探测失败: 服务={}, 错误={}", name, error.getMessage()));
+        });
+    }
+    
+    /**
+     * 获取各服务提供者按操作类型的健康状态和并发上限
+     */
+    public Map<String, Object> getProviderHealth() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        trackedServices.forEach((name, service) -> {
+            Map<String, Object> provider = new LinkedHashMap<>();
+            provider.put("available", service.isAvailable());
+            provider.put("idleMillis", service.getHealth().getIdleMillis());
+            provider.put("operations", service.getHealth().getStats());
+            AdaptiveConcurrencyLimiter limiter = limiters.get(name);
+            if (limiter != null) {
+                provider.put("concurrency", limiter.getStats());
+            }
+            result.put(name, provider);
+        });
+        return result;
+    }
+    
+    /**
+     * 获取已饱和的服务提供者：连接池或并发许可耗尽，或者并发数已达到隔离舱上限
+     */
+    public List<String> getSaturatedProviders() {
+        List<String> saturated = new ArrayList<>();
+        for (SpeechService service : speechServices) {
+            String name = service.getProviderName().toLowerCase();
+            AdaptiveConcurrencyLimiter limiter = limiters.get(name);
+            if (service.isAvailable() && (service.isSaturated()
+                    || (limiter != null && limiter.isFull()))) {
+                saturated.add(name);
+            }
+        }
+        return saturated;
+    }
+    
+    /**
+     * 所有可用的服务提供者是否都已饱和
+     */
+    public boolean isSaturated() {
+        long available = speechServices.stream().filter(SpeechService::isAvailable).count();
+        return available > 0 && getSaturatedProviders().size() >= available;
+    }
+    
+    /**
+     * 获取对冲请求统计，未启用对冲模式时返回空
+     */
+    public Map<String, Object> getHedgingStats() {
+        return hedgingService != null ? hedgingService.getStats() : Map.of();
     }
     
     /**
@@ -35,14 +158,23 @@ public void init() {
      * @return 语音服务
      */
     public SpeechService getSpeechService(TranslationRequest request) {
-        if (request == null || request.getProvider() == null) {
-            // 默认使用Microsoft
-            return serviceMap.get("microsoft");
+        return getSpeechServiceByProvider(request != null ? request.getProvider() : null);
+    }
+    
+    /**
+     * 按名称获取语音服务提供者
+     * 
+     * @param provider 服务提供者名称，例如 "microsoft", "openai", "hedged", "auto"；为空时自适应路由
+     * @return 语音服务
+     */
+    public SpeechService getSpeechServiceByProvider(String provider) {
+        if (provider == null) {
+            return serviceMap.get(routingService.getProviderName());
         }
         
-        SpeechService service = serviceMap.get(request.getProvider().toLowerCase());
+        SpeechService service = serviceMap.get(provider.toLowerCase());
         if (service == null) {
-            log.warn("Unsupported speech provider: {}, falling back to Microsoft", request.getProvider());
+            log.warn("Unsupported speech provider: {}, falling back to Microsoft", provider);
             return serviceMap.get("microsoft");
         }
         
@@ -0,0 +1,35 @@
+package com.translation.system.service;
+
+import java.util.List;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 文本翻译服务接口
+ * 语音服务提供者在识别出文本后通过该接口完成文本翻译，实现类负责具体的翻译引擎
+ */
+public interface TextTranslator {
+
+    /**
+     * 批量翻译文本
+     *
+     * @param texts 需要翻译的文本片段
+     * @param sourceLanguage 源语言，例如 "zh-CN"；为空或 "auto" 表示自动检测
+     * @param targetLanguage 目标语言，例如 "en-US"
+     * @return 翻译结果，顺序与输入一致
+     */
+    Mono<List<String>> translate(List<String> texts, String sourceLanguage, String targetLanguage);
+
+    /**
+     * 翻译单条文本
+     *
+     * @param text 需要翻译的文本
+     * @param sourceLanguage 源语言
+     * @param targetLanguage 目标语言
+     * @return 翻译后的文本
+     */
+    default Mono<String> translate(String text, String sourceLanguage, String targetLanguage) {
+        return translate(List.of(text), sourceLanguage, targetLanguage)
+                .map(translations -> translations.get(0));
+    }
+}
@@ -2,6 +2,7 @@
 
 import org.springframework.web.socket.WebSocketSession;
 import com.translation.system.model.TranslationRequest;
+import com.translation.system.model.TranslationResult;
 import reactor.core.publisher.Flux;
 
 /**
@@ -18,4 +19,14 @@ public interface TranslationService {
      * @return 处理结果的Flux
      */
     Flux<byte[]> translateSpeech(byte[] audioData, TranslationRequest request, WebSocketSession session);
-} 
\ No newline at end of file
+    
+    /**
+     * 处理多目标语言翻译请求，一次识别输出各目标语言的译文和语音
+     * 
+     * @param audioData 音频数据
+     * @param request 翻译请求参数
+     * @param session WebSocket会话
+     * @return 各目标语言的翻译结果
+     */
+    Flux<TranslationResult> translateSpeechToTargets(byte[] audioData, TranslationRequest request, WebSocketSession session);
+}
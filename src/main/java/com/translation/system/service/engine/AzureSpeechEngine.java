@@ -0,0 +1,514 @@
+package com.translation.system.service.engine;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.microsoft.cognitiveservices.speech.CancellationDetails;
+import com.microsoft.cognitiveservices.speech.CancellationReason;
+import com.microsoft.cognitiveservices.speech.ResultReason;
+import com.microsoft.cognitiveservices.speech.SpeechConfig;
+import com.microsoft.cognitiveservices.speech.SpeechRecognizer;
+import com.microsoft.cognitiveservices.speech.SpeechSynthesisCancellationDetails;
+import com.microsoft.cognitiveservices.speech.SpeechSynthesisOutputFormat;
+import com.microsoft.cognitiveservices.speech.SpeechSynthesisResult;
+import com.microsoft.cognitiveservices.speech.SpeechSynthesizer;
+import com.microsoft.cognitiveservices.speech.audio.AudioConfig;
+import com.microsoft.cognitiveservices.speech.audio.AudioInputStream;
+import com.microsoft.cognitiveservices.speech.audio.PushAudioInputStream;
+import com.microsoft.cognitiveservices.speech.translation.SpeechTranslationConfig;
+import com.microsoft.cognitiveservices.speech.translation.TranslationRecognizer;
+import com.translation.system.config.PoolConfig;
+import com.translation.system.config.SpeechConfig.Microsoft;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * 基于Azure Speech SDK的语音引擎
+ * SpeechConfig通过对象池复用，借用可能阻塞（受pool.max-wait-millis限制），调用方应在弹性线程池上发起操作。
+ * 识别自然结束（sessionStopped或canceled）后直接释放SDK资源；订阅方提前dispose时先停止识别器再释放。
+ * 释放放在弹性线程池上进行，不在SDK回调线程里关闭SDK对象。
+ * SDK的异步方法返回普通Future，这里通过定时检查完成状态桥接，不占用线程等待
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "speech.engine", name = "type", havingValue = "azure", matchIfMissing = true)
+public class AzureSpeechEngine implements SpeechEngine, MeterBinder {
+
+    // 启动识别器的最长等待时间，超时按识别失败处理
+    private static final Duration RECOGNIZER_START_TIMEOUT = Duration.ofSeconds(10);
+
+    // 停止识别器的最长等待时间，超时后直接释放资源
+    private static final Duration RECOGNIZER_STOP_TIMEOUT = Duration.ofSeconds(5);
+
+    // 检查SDK返回的Future是否完成的间隔
+    private static final Duration FUTURE_POLL_INTERVAL = Duration.ofMillis(20);
+
+    private final Microsoft microsoftConfig;
+    private final PoolConfig poolConfig;
+
+    private GenericObjectPool<SpeechConfig> speechConfigPool;
+
+    @PostConstruct
+    public void init() {
+        // 初始化SpeechConfig对象池
+        GenericObjectPoolConfig<SpeechConfig> poolConfig = new GenericObjectPoolConfig<>();
+        poolConfig.setMaxIdle(this.poolConfig.getMaxIdle());
+        poolConfig.setMinIdle(this.poolConfig.getMinIdle());
+        poolConfig.setMaxTotal(this.poolConfig.getMaxTotal());
+        poolConfig.setMaxWait(Duration.ofMillis(this.poolConfig.getMaxWaitMillis()));
+        poolConfig.setBlockWhenExhausted(true);
+
+        speechConfigPool = new GenericObjectPool<>(new BasePooledObjectFactory<SpeechConfig>() {
+            @Override
+            public SpeechConfig create() {
+                log.info("Creating new SpeechConfig, region={}", microsoftConfig.getRegion());
+
+                // 创建SpeechConfig实例
+                SpeechConfig config = SpeechConfig.fromSubscription(
+                        microsoftConfig.getSubscriptionKey(),
+                        microsoftConfig.getRegion());
+
+                // 设置默认语音识别语言
+                config.setSpeechRecognitionLanguage(microsoftConfig.getRecognition().getLanguage());
+
+                // 设置默认语音合成语言和声音
+                config.setSpeechSynthesisLanguage(microsoftConfig.getSynthesis().getLanguage());
+                config.setSpeechSynthesisVoiceName(microsoftConfig.getSynthesis().getVoiceName());
+
+                return config;
+            }
+
+            @Override
+            public PooledObject<SpeechConfig> wrap(SpeechConfig config) {
+                return new DefaultPooledObject<>(config);
+            }
+
+            @Override
+            public void destroyObject(PooledObject<SpeechConfig> p) {
+                SpeechConfig config = p.getObject();
+                if (config != null) {
+                    try {
+                        config.close();
+                    } catch (Exception e) {
+                        log.error("Error closing SpeechConfig", e);
+                    }
+                }
+            }
+        }, poolConfig);
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        if (speechConfigPool != null) {
+            try {
+                speechConfigPool.close();
+                log.info("Speech config pool closed");
+            } catch (Exception e) {
+                log.error("Error closing speech config pool", e);
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "azure";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        // 检查是否配置了必要的参数
+        if (microsoftConfig.getSubscriptionKey() == null || microsoftConfig.getSubscriptionKey().isEmpty() ||
+            microsoftConfig.getRegion() == null || microsoftConfig.getRegion().isEmpty()) {
+            return false;
+        }
+
+        // 检查对象池是否已初始化
+        return speechConfigPool != null && !speechConfigPool.isClosed();
+    }
+
+    @Override
+    public boolean isSaturated() {
+        // 所有配置对象都已借出且有请求在等待
+        return speechConfigPool != null && speechConfigPool.getNumActive() >= speechConfigPool.getMaxTotal()
+                && speechConfigPool.getNumWaiters() > 0;
+    }
+
+    /**
+     * SpeechConfig对象池的使用情况
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Tags tags = Tags.of("pool", "azure-speech-config");
+        Gauge.builder("speech.pool.active", this, engine -> engine.speechConfigPool != null ? engine.speechConfigPool.getNumActive() : 0)
+                .description("Objects currently borrowed from the pool").tags(tags).register(registry);
+        Gauge.builder("speech.pool.idle", this, engine -> engine.speechConfigPool != null ? engine.speechConfigPool.getNumIdle() : 0)
+                .description("Idle objects in the pool").tags(tags).register(registry);
+        Gauge.builder("speech.pool.waiters", this, engine -> engine.speechConfigPool != null ? engine.speechConfigPool.getNumWaiters() : 0)
+                .description("Callers waiting to borrow from the pool").tags(tags).register(registry);
+        Gauge.builder("speech.pool.max", poolConfig, PoolConfig::getMaxTotal)
+                .description("Maximum size of the pool").tags(tags).register(registry);
+    }
+
+    @Override
+    public Disposable recognize(String language, byte[] audioData, EngineListener<String> listener) {
+        SpeechConfig speechConfig = null;
+        AudioConfig audioConfig = null;
+        SpeechRecognizer recognizer = null;
+        try {
+            speechConfig = speechConfigPool.borrowObject();
+            // 池中的配置会被复用，每次都要设置识别语言，避免沿用上一个请求的语言
+            speechConfig.setSpeechRecognitionLanguage(language);
+
+            PushAudioInputStream pushStream = AudioInputStream.createPushStream();
+            audioConfig = AudioConfig.fromStreamInput(pushStream);
+            recognizer = new SpeechRecognizer(speechConfig, audioConfig);
+
+            final SpeechConfig configToReturn = speechConfig;
+            final AudioConfig audioToClose = audioConfig;
+            final SpeechRecognizer recognizerToClose = recognizer;
+            RecognizerRelease release = new RecognizerRelease(recognizerToClose::stopContinuousRecognitionAsync,
+                    recognizerToClose, audioToClose, () -> speechConfigPool.returnObject(configToReturn));
+            EngineListener<String> target = terminateOnce(listener, release::onTerminated);
+
+            recognizer.recognizing.addEventListener((s, e) -> target.onPartial(e.getResult().getText()));
+            recognizer.recognized.addEventListener((s, e) -> {
+                if (e.getResult().getReason() == ResultReason.RecognizedSpeech
+                        && e.getResult().getText() != null && !e.getResult().getText().isEmpty()) {
+                    log.debug("RECOGNIZED: {}", e.getResult().getText());
+                    target.onResult(e.getResult().getText());
+                }
+            });
+            recognizer.canceled.addEventListener((s, e) -> {
+                CancellationDetails details = CancellationDetails.fromResult(e.getResult());
+                if (details.getReason() == CancellationReason.Error) {
+                    log.error("CANCELED: Reason={}, ErrorDetails={}", details.getReason(), details.getErrorDetails());
+                    target.onError(new RuntimeException("Speech recognition canceled: " + details.getErrorDetails()));
+                } else {
+                    target.onComplete();
+                }
+            });
+            recognizer.sessionStopped.addEventListener((s, e) -> {
+                log.debug("Speech recognition stopped.");
+                target.onComplete();
+            });
+
+            // 一次写入全部音频后关闭输入流，识别器处理完后触发 sessionStopped
+            release.watch(fromSdkFuture(recognizer::startContinuousRecognitionAsync, RECOGNIZER_START_TIMEOUT)
+                    .subscribe(null, target::onError));
+            pushStream.write(audioData);
+            pushStream.close();
+            return release;
+        } catch (Exception e) {
+            log.error("Error starting speech recognizer", e);
+            final SpeechConfig configToReturn = speechConfig;
+            closeQuietly(recognizer, audioConfig, () -> {
+                if (configToReturn != null) {
+                    speechConfigPool.returnObject(configToReturn);
+                }
+            });
+            listener.onError(e);
+            return Disposables.disposed();
+        }
+    }
+
+    @Override
+    public Disposable translate(String sourceLanguage, Collection<String> targetCodes, byte[] audioData,
+            EngineListener<TranslatedUtterance> listener) {
+        SpeechTranslationConfig translationConfig = null;
+        AudioConfig audioConfig = null;
+        TranslationRecognizer recognizer = null;
+        try {
+            translationConfig = SpeechTranslationConfig.fromSubscription(
+                    microsoftConfig.getSubscriptionKey(), microsoftConfig.getRegion());
+            translationConfig.setSpeechRecognitionLanguage(sourceLanguage);
+            for (String code : targetCodes) {
+                translationConfig.addTargetLanguage(code);
+            }
+
+            PushAudioInputStream pushStream = AudioInputStream.createPushStream();
+            audioConfig = AudioConfig.fromStreamInput(pushStream);
+            recognizer = new TranslationRecognizer(translationConfig, audioConfig);
+
+            final SpeechTranslationConfig configToClose = translationConfig;
+            final AudioConfig audioToClose = audioConfig;
+            final TranslationRecognizer recognizerToClose = recognizer;
+            RecognizerRelease release = new RecognizerRelease(recognizerToClose::stopContinuousRecognitionAsync,
+                    recognizerToClose, audioToClose, configToClose);
+            EngineListener<TranslatedUtterance> target = terminateOnce(listener, release::onTerminated);
+
+            recognizer.recognizing.addEventListener((s, e) -> target.onPartial(e.getResult().getText()));
+            recognizer.recognized.addEventListener((s, e) -> {
+                if (e.getResult().getReason() == ResultReason.TranslatedSpeech
+                        && e.getResult().getText() != null && !e.getResult().getText().isEmpty()) {
+                    target.onResult(new TranslatedUtterance(e.getResult().getText(),
+                            Map.copyOf(e.getResult().getTranslations())));
+                }
+            });
+            recognizer.canceled.addEventListener((s, e) -> {
+                CancellationDetails details = CancellationDetails.fromResult(e.getResult());
+                if (details.getReason() == CancellationReason.Error) {
+                    target.onError(new RuntimeException("Translation recognition canceled: " + details.getErrorDetails()));
+                } else {
+                    target.onComplete();
+                }
+            });
+            recognizer.sessionStopped.addEventListener((s, e) -> target.onComplete());
+
+            release.watch(fromSdkFuture(recognizer::startContinuousRecognitionAsync, RECOGNIZER_START_TIMEOUT)
+                    .subscribe(null, target::onError));
+            pushStream.write(audioData);
+            pushStream.close();
+            return release;
+        } catch (Exception e) {
+            log.error("Error starting translation recognizer", e);
+            closeQuietly(recognizer, audioConfig, translationConfig);
+            listener.onError(e);
+            return Disposables.disposed();
+        }
+    }
+
+    @Override
+    public Disposable synthesize(SynthesisSpec spec, EngineListener<byte[]> listener) {
+        SpeechConfig speechConfig = null;
+        SpeechSynthesizer synthesizer = null;
+        try {
+            speechConfig = speechConfigPool.borrowObject();
+            if (spec.language() != null) {
+                speechConfig.setSpeechSynthesisLanguage(spec.language());
+            }
+            // 池中的配置会被复用，每次都要设置声音，避免沿用上一个请求的声音
+            speechConfig.setSpeechSynthesisVoiceName(spec.voice());
+            speechConfig.setSpeechSynthesisOutputFormat(outputFormat(spec));
+            synthesizer = new SpeechSynthesizer(speechConfig, null);
+
+            final SpeechConfig configToReturn = speechConfig;
+            final SpeechSynthesizer synthesizerToClose = synthesizer;
+            // 不能在SDK的事件回调线程里关闭合成器，统一放到弹性线程池上释放
+            Disposable release = once(() -> Schedulers.boundedElastic().schedule(() -> closeQuietly(
+                    synthesizerToClose, () -> speechConfigPool.returnObject(configToReturn))));
+            EngineListener<byte[]> target = terminateOnce(listener, release::dispose);
+
+            synthesizer.SynthesisCompleted.addEventListener((s, e) -> {
+                target.onResult(e.getResult().getAudioData());
+                target.onComplete();
+            });
+            synthesizer.SynthesisCanceled.addEventListener((s, e) -> {
+                SpeechSynthesisCancellationDetails details = SpeechSynthesisCancellationDetails.fromResult(e.getResult());
+                log.error("Speech synthesis canceled: Reason={}, ErrorDetails={}",
+                        details.getReason(), details.getErrorDetails());
+                target.onError(new RuntimeException("Speech synthesis canceled: " + details.getErrorDetails()));
+            });
+
+            // 音频通过事件返回，这里只关注合成请求本身的失败；Future的结果持有原生资源，合成结束后也要等它完成并关闭
+            fromSdkFuture(() -> synthesizerToClose.SpeakTextAsync(spec.text()), null)
+                    .doOnNext(SpeechSynthesisResult::close)
+                    .subscribe(null, target::onError);
+            return release;
+        } catch (Exception e) {
+            log.error("Error starting speech synthesizer", e);
+            final SpeechConfig configToReturn = speechConfig;
+            closeQuietly(synthesizer, () -> {
+                if (configToReturn != null) {
+                    speechConfigPool.returnObject(configToReturn);
+                }
+            });
+            listener.onError(e);
+            return Disposables.disposed();
+        }
+    }
+
+    private static SpeechSynthesisOutputFormat outputFormat(SynthesisSpec spec) {
+        if (spec.format() == null) {
+            // 默认使用WAV格式
+            return SpeechSynthesisOutputFormat.Riff16Khz16BitMonoPcm;
+        }
+        switch (spec.format()) {
+            case MP3:
+                return SpeechSynthesisOutputFormat.Audio16Khz32KBitRateMonoMp3;
+            case OGG:
+                return SpeechSynthesisOutputFormat.Ogg24Khz16BitMonoOpus;
+            case WEBM:
+                return SpeechSynthesisOutputFormat.Webm24Khz16BitMonoOpus;
+            case PCM:
+                return SpeechSynthesisOutputFormat.Raw24Khz16BitMonoPcm;
+            case WAV:
+            default:
+                return SpeechSynthesisOutputFormat.Riff16Khz16BitMonoPcm;
+        }
+    }
+
+    /**
+     * 只执行一次的释放操作
+     */
+    private static Disposable once(Runnable action) {
+        AtomicBoolean disposed = new AtomicBoolean(false);
+        return new Disposable() {
+            @Override
+            public void dispose() {
+                if (disposed.compareAndSet(false, true)) {
+                    action.run();
+                }
+            }
+
+            @Override
+            public boolean isDisposed() {
+                return disposed.get();
+            }
+        };
+    }
+
+    /**
+     * SDK可能先后触发 canceled 和 sessionStopped，这里保证只回调一次结束事件，结束后释放资源
+     */
+    private static <T> EngineListener<T> terminateOnce(EngineListener<T> listener, Runnable onTerminated) {
+        AtomicBoolean terminated = new AtomicBoolean(false);
+        return new EngineListener<T>() {
+            @Override
+            public void onPartial(String text) {
+                if (!terminated.get() && text != null && !text.isEmpty()) {
+                    listener.onPartial(text);
+                }
+            }
+
+            @Override
+            public void onResult(T result) {
+                if (!terminated.get()) {
+                    listener.onResult(result);
+                }
+            }
+
+            @Override
+            public void onComplete() {
+                if (terminated.compareAndSet(false, true)) {
+                    listener.onComplete();
+                    onTerminated.run();
+                }
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                if (terminated.compareAndSet(false, true)) {
+                    listener.onError(error);
+                    onTerminated.run();
+                }
+            }
+        };
+    }
+
+    /**
+     * 识别器的资源释放
+     * 识别自然结束时识别器已经停止，直接释放资源；订阅方提前dispose时先停止识别再释放。两者只执行其一
+     */
+    private static final class RecognizerRelease implements Disposable {
+
+        private final AtomicBoolean released = new AtomicBoolean(false);
+        private final Disposable.Swap starting = Disposables.swap();
+        private final Callable<Future<Void>> stop;
+        private final AutoCloseable[] resources;
+
+        RecognizerRelease(Callable<Future<Void>> stop, AutoCloseable... resources) {
+            this.stop = stop;
+            this.resources = resources;
+        }
+
+        /**
+         * 跟踪启动识别器的Future，释放时不再关注
+         */
+        void watch(Disposable start) {
+            starting.update(start);
+        }
+
+        /**
+         * 识别已结束（sessionStopped、canceled或出错）
+         */
+        void onTerminated() {
+            if (released.compareAndSet(false, true)) {
+                starting.dispose();
+                Schedulers.boundedElastic().schedule(() -> closeQuietly(resources));
+            }
+        }
+
+        @Override
+        public void dispose() {
+            if (released.compareAndSet(false, true)) {
+                starting.dispose();
+                stopAndClose(stop, resources);
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return released.get();
+        }
+    }
+
+    /**
+     * 将SDK返回的Future桥接为Mono
+     * SDK的Future不支持完成回调，定时检查完成状态，完成后取结果不会阻塞；timeout为null时不限时
+     */
+    private static <T> Mono<T> fromSdkFuture(Callable<Future<T>> action, Duration timeout) {
+        Mono<T> result = Mono.fromCallable(action)
+                .flatMap(future -> Flux.interval(Duration.ZERO, FUTURE_POLL_INTERVAL)
+                        .filter(tick -> future.isDone())
+                        .next()
+                        .flatMap(tick -> Mono.fromCallable(() -> {
+                            try {
+                                return future.get();
+                            } catch (ExecutionException e) {
+                                throw e.getCause() instanceof Exception cause ? cause : e;
+                            }
+                        })));
+        return timeout != null ? result.timeout(timeout) : result;
+    }
+
+    /**
+     * 异步停止识别器，停止完成（或超时）后在弹性线程池上按顺序释放资源
+     */
+    private static void stopAndClose(Callable<Future<Void>> stop, AutoCloseable... resources) {
+        fromSdkFuture(stop, RECOGNIZER_STOP_TIMEOUT)
+                .doOnError(e -> log.debug("Error stopping recognizer: {}", e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .publishOn(Schedulers.boundedElastic())
+                .doFinally(signal -> closeQuietly(resources))
+                .subscribe();
+    }
+
+    private static void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource == null) {
+                continue;
+            }
+            try {
+                resource.close();
+            } catch (Exception e) {
+                log.warn("Failed to close speech resource: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.translation.system.service.engine;
+
+/**
+ * 引擎操作的回调，onComplete和onError只会回调其中一个，且只回调一次
+ *
+ * @param <T> 结果类型
+ */
+public interface EngineListener<T> {
+
+    /**
+     * 中间识别结果（同一句话识别过程中的临时文本）
+     */
+    default void onPartial(String text) {
+    }
+
+    /**
+     * 一个最终结果
+     */
+    void onResult(T result);
+
+    /**
+     * 操作正常结束
+     */
+    void onComplete();
+
+    /**
+     * 操作失败
+     */
+    void onError(Throwable error);
+}
@@ -0,0 +1,191 @@
+package com.translation.system.service.engine;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.translation.system.config.SpeechConfig.Engine;
+import com.translation.system.model.AudioFormat;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 本地模拟语音引擎，不访问任何外部服务，用于离线压测和测试
+ * 各阶段延迟按配置的对数正态分布采样，可按概率注入错误；
+ * 识别和翻译的文本只由输入音频内容决定，相同音频总是得到相同结果，合成输出为静音
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "speech.engine", name = "type", havingValue = "simulated")
+public class SimulatedSpeechEngine implements SpeechEngine {
+
+    // 合成音频的采样率，与Azure默认输出格式一致（16kHz 16位单声道）
+    private static final int SAMPLE_RATE = 16000;
+
+    private final Engine.Simulated config;
+    private final Random random;
+
+    public SimulatedSpeechEngine(Engine engineConfig) {
+        this.config = engineConfig.getSimulated();
+        this.random = new Random(config.getSeed());
+        log.info("使用模拟语音引擎: 识别延迟中位数={}ms, 翻译延迟中位数={}ms, 合成延迟中位数={}ms",
+                config.getRecognition().getMedianMillis(), config.getTranslation().getMedianMillis(),
+                config.getSynthesis().getMedianMillis());
+    }
+
+    /**
+     * 引擎注入的错误
+     */
+    public static class SimulatedEngineException extends RuntimeException {
+        public SimulatedEngineException(String message) {
+            super(message);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "simulated";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public Disposable recognize(String language, byte[] audioData, EngineListener<String> listener) {
+        return utterances(audioData)
+                .concatMap(index -> recognizeUtterance(language, audioData, index, listener))
+                .subscribe(listener::onResult, listener::onError, listener::onComplete);
+    }
+
+    @Override
+    public Disposable translate(String sourceLanguage, Collection<String> targetCodes, byte[] audioData,
+            EngineListener<TranslatedUtterance> listener) {
+        return utterances(audioData)
+                .concatMap(index -> recognizeUtterance(sourceLanguage, audioData, index, listener)
+                        .flatMap(text -> stage(config.getTranslation(), config.getTranslationErrorRate(), "translation")
+                                .then(Mono.fromCallable(() -> {
+                                    Map<String, String> translations = new LinkedHashMap<>();
+                                    for (String code : targetCodes) {
+                                        translations.put(code, "[" + code + "] " + text);
+                                    }
+                                    return new TranslatedUtterance(text, translations);
+                                }))))
+                .subscribe(listener::onResult, listener::onError, listener::onComplete);
+    }
+
+    @Override
+    public Disposable synthesize(SynthesisSpec spec, EngineListener<byte[]> listener) {
+        int length = spec.text() == null ? 0 : spec.text().length();
+        byte[] audio = silence(spec.format(), Math.max(1, length) * config.getSynthesisBytesPerChar());
+        int chunkBytes = Math.max(1, config.getSynthesisChunkBytes());
+        // 首帧延迟之后各帧连续发出，模拟流式合成
+        return stage(config.getSynthesis(), config.getSynthesisErrorRate(), "synthesis")
+                .thenMany(Flux.range(0, (audio.length + chunkBytes - 1) / chunkBytes))
+                .map(chunk -> Arrays.copyOfRange(audio, chunk * chunkBytes,
+                        Math.min(audio.length, (chunk + 1) * chunkBytes)))
+                .subscribe(listener::onResult, listener::onError, listener::onComplete);
+    }
+
+    /**
+     * 一段音频按配置的每句字节数切分为若干句
+     */
+    private Flux<Integer> utterances(byte[] audioData) {
+        if (audioData == null || audioData.length == 0) {
+            return Flux.empty();
+        }
+        int bytesPerUtterance = Math.max(1, config.getBytesPerUtterance());
+        return Flux.range(0, (audioData.length + bytesPerUtterance - 1) / bytesPerUtterance);
+    }
+
+    /**
+     * 识别一句话：识别延迟内按间隔发出逐渐变长的中间结果，延迟结束后发出最终结果
+     */
+    private Mono<String> recognizeUtterance(String language, byte[] audioData, int index, EngineListener<?> listener) {
+        String text = utteranceText(language, audioData, index);
+        long latency = sample(config.getRecognition());
+        long interval = config.getPartialIntervalMillis();
+        // 中间结果都在最终结果之前发出
+        int partials = interval > 0 && latency > 0 ? (int) Math.min(text.length() - 1, (latency - 1) / interval) : 0;
+        Mono<Void> partialResults = Flux.range(1, partials)
+                .concatMap(step -> Mono.delay(Duration.ofMillis(interval))
+                        .doOnNext(tick -> listener.onPartial(text.substring(0, text.length() * step / (partials + 1)))))
+                .then();
+        return partialResults
+                .then(Mono.delay(Duration.ofMillis(latency - partials * interval)))
+                .then(fail(config.getRecognitionErrorRate(), "recognition"))
+                .thenReturn(text);
+    }
+
+    /**
+     * 等待一个阶段的延迟，并按概率注入错误
+     */
+    private Mono<Void> stage(Engine.Latency latency, double errorRate, String stage) {
+        return Mono.defer(() -> Mono.delay(Duration.ofMillis(sample(latency))))
+                .then(fail(errorRate, stage));
+    }
+
+    private Mono<Void> fail(double errorRate, String stage) {
+        return Mono.defer(() -> errorRate > 0 && nextDouble() < errorRate
+                ? Mono.error(new SimulatedEngineException("Simulated " + stage + " failure"))
+                : Mono.empty());
+    }
+
+    /**
+     * 按对数正态分布采样延迟：median * exp(sigma * N(0,1))，不超过上限
+     */
+    long sample(Engine.Latency latency) {
+        if (latency.getMedianMillis() <= 0) {
+            return 0;
+        }
+        double gaussian;
+        synchronized (random) {
+            gaussian = random.nextGaussian();
+        }
+        long millis = Math.round(latency.getMedianMillis() * Math.exp(latency.getSigma() * gaussian));
+        return latency.getMaxMillis() > 0 ? Math.min(millis, latency.getMaxMillis()) : millis;
+    }
+
+    private double nextDouble() {
+        synchronized (random) {
+            return random.nextDouble();
+        }
+    }
+
+    /**
+     * 由该句对应的音频内容生成确定的识别文本
+     */
+    private String utteranceText(String language, byte[] audioData, int index) {
+        int bytesPerUtterance = Math.max(1, config.getBytesPerUtterance());
+        int from = index * bytesPerUtterance;
+        int hash = Arrays.hashCode(Arrays.copyOfRange(audioData, from, Math.min(audioData.length, from + bytesPerUtterance)));
+        return String.format("模拟识别结果 %s 第%d句 %08x", language, index + 1, hash);
+    }
+
+    /**
+     * 生成静音音频，WAV格式附带文件头
+     */
+    private static byte[] silence(AudioFormat format, int dataBytes) {
+        if (format != null && format != AudioFormat.WAV) {
+            return new byte[dataBytes];
+        }
+        ByteBuffer wav = ByteBuffer.allocate(44 + dataBytes).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put("RIFF".getBytes()).putInt(36 + dataBytes).put("WAVE".getBytes());
+        wav.put("fmt ".getBytes()).putInt(16).putShort((short) 1).putShort((short) 1)
+                .putInt(SAMPLE_RATE).putInt(SAMPLE_RATE * 2).putShort((short) 2).putShort((short) 16);
+        wav.put("data".getBytes()).putInt(dataBytes);
+        return wav.array();
+    }
+}
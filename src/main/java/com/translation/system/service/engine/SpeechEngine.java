@@ -0,0 +1,62 @@
+package com.translation.system.service.engine;
+
+import java.util.Collection;
+
+import reactor.core.Disposable;
+
+/**
+ * 语音引擎端口
+ * 只负责驱动底层引擎完成识别、翻译识别和合成，结果通过回调流式返回；
+ * 语言和声音的选择、错误兜底等业务逻辑由SpeechService负责。
+ * 每个操作返回一个Disposable，调用dispose可提前停止操作并释放引擎资源
+ */
+public interface SpeechEngine {
+
+    /**
+     * 引擎名称
+     */
+    String getName();
+
+    /**
+     * 引擎是否可用
+     */
+    boolean isAvailable();
+
+    /**
+     * 引擎资源是否已经耗尽，新请求需要排队
+     */
+    default boolean isSaturated() {
+        return false;
+    }
+
+    /**
+     * 识别整段音频
+     *
+     * @param language 识别语言
+     * @param audioData 音频数据
+     * @param listener 每识别出一句话回调一次onResult，全部音频处理完后回调onComplete
+     * @return 用于停止识别的Disposable
+     */
+    Disposable recognize(String language, byte[] audioData, EngineListener<String> listener);
+
+    /**
+     * 识别整段音频并翻译为多个目标语言
+     *
+     * @param sourceLanguage 源语言
+     * @param targetCodes 目标语言（翻译API的语言代码）
+     * @param audioData 音频数据
+     * @param listener 每识别出一句话回调一次onResult，携带各目标语言译文
+     * @return 用于停止识别的Disposable
+     */
+    Disposable translate(String sourceLanguage, Collection<String> targetCodes, byte[] audioData,
+            EngineListener<TranslatedUtterance> listener);
+
+    /**
+     * 合成语音
+     *
+     * @param spec 合成参数
+     * @param listener 每合成一帧音频回调一次onResult
+     * @return 用于停止合成的Disposable
+     */
+    Disposable synthesize(SynthesisSpec spec, EngineListener<byte[]> listener);
+}
@@ -0,0 +1,14 @@
+package com.translation.system.service.engine;
+
+import com.translation.system.model.AudioFormat;
+
+/**
+ * 语音合成参数
+ *
+ * @param text 合成文本
+ * @param language 合成语言
+ * @param voice 合成声音
+ * @param format 输出音频格式，为null时使用WAV
+ */
+public record SynthesisSpec(String text, String language, String voice, AudioFormat format) {
+}
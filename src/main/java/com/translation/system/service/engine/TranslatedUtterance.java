@@ -0,0 +1,12 @@
+package com.translation.system.service.engine;
+
+import java.util.Map;
+
+/**
+ * 识别出的一句话及其各目标语言译文
+ *
+ * @param text 识别出的原文
+ * @param translations 译文，键为目标语言代码
+ */
+public record TranslatedUtterance(String text, Map<String, String> translations) {
+}
@@ -0,0 +1,201 @@
+package com.translation.system.service.impl;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.translation.system.config.SpeechConfig.Microsoft;
+import com.translation.system.service.TextTranslator;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 基于Microsoft Translator REST API (v3.0) 的文本翻译实现
+ * 多个文本片段以数组形式放在同一个请求中，所有请求共用一个HttpClient以保持长连接
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MicrosoftTextTranslator implements TextTranslator {
+
+    private static final String TRANSLATE_PATH = "/translate?api-version=3.0";
+
+    private final Microsoft microsoftConfig;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private HttpClient httpClient;
+
+    @PostConstruct
+    public void init() {
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * 检查是否配置了翻译API密钥
+     */
+    public boolean isAvailable() {
+        String key = getKey();
+        return key != null && !key.isEmpty();
+    }
+
+    @Override
+    public Mono<List<String>> translate(List<String> texts, String sourceLanguage, String targetLanguage) {
+        if (texts.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        if (!isAvailable()) {
+            return Mono.error(new IllegalStateException("Microsoft Translator API密钥未配置"));
+        }
+
+        // 空文本不发送，直接按原位置返回空串
+        String[] results = new String[texts.size()];
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < texts.size(); i++) {
+            String text = texts.get(i);
+            if (text == null || text.isEmpty()) {
+                results[i] = "";
+            } else {
+                pending.add(i);
+            }
+        }
+
+        // 按条数和字符数上限切分批次，批次并发发送、按顺序合并
+        return Flux.fromIterable(splitBatches(texts, pending))
+                .flatMapSequential(batch -> translateBatch(batch, texts, sourceLanguage, targetLanguage)
+                        .map(translations -> {
+                            for (int i = 0; i < batch.size(); i++) {
+                                results[batch.get(i)] = translations.get(i);
+                            }
+                            return batch.size();
+                        }))
+                .then(Mono.fromSupplier(() -> Arrays.asList(results)));
+    }
+
+    private List<List<Integer>> splitBatches(List<String> texts, List<Integer> indices) {
+        List<List<Integer>> batches = new ArrayList<>();
+        List<Integer> current = new ArrayList<>();
+        int chars = 0;
+        for (Integer index : indices) {
+            int length = texts.get(index).length();
+            if (!current.isEmpty() && (current.size() >= microsoftConfig.getTranslatorMaxBatchSize()
+                    || chars + length > microsoftConfig.getTranslatorMaxBatchChars())) {
+                batches.add(current);
+                current = new ArrayList<>();
+                chars = 0;
+            }
+            current.add(index);
+            chars += length;
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    private Mono<List<String>> translateBatch(List<Integer> batch, List<String> texts,
+            String sourceLanguage, String targetLanguage) {
+        return Mono.defer(() -> {
+            ArrayNode body = objectMapper.createArrayNode();
+            for (Integer index : batch) {
+                body.addObject().put("Text", texts.get(index));
+            }
+
+            StringBuilder uri = new StringBuilder(microsoftConfig.getTranslatorEndpoint())
+                    .append(TRANSLATE_PATH)
+                    .append("&to=").append(encode(toTranslatorLanguage(targetLanguage)));
+            String from = toTranslatorLanguage(sourceLanguage);
+            if (from != null) {
+                uri.append("&from=").append(encode(from));
+            }
+
+            HttpRequest.Builder builder = HttpRequest.newBuilder()
+                    .uri(URI.create(uri.toString()))
+                    .timeout(Duration.ofMillis(microsoftConfig.getTranslatorTimeoutMillis()))
+                    .header("Ocp-Apim-Subscription-Key", getKey())
+                    .header("Content-Type", "application/json; charset=UTF-8")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString(), StandardCharsets.UTF_8));
+            String region = getRegion();
+            if (region != null && !region.isEmpty()) {
+                builder.header("Ocp-Apim-Subscription-Region", region);
+            }
+
+            log.debug("发送文本翻译请求: 片段数={}, 源语言={}, 目标语言={}", batch.size(), from, targetLanguage);
+            return Mono.fromFuture(() -> httpClient.sendAsync(builder.build(),
+                    HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8)));
+        }).flatMap(response -> {
+            if (response.statusCode() != 200) {
+                log.error("Microsoft Translator API错误: status={}, body={}", response.statusCode(), response.body());
+                return Mono.error(new IllegalStateException(
+                        "Microsoft Translator API returned " + response.statusCode()));
+            }
+            try {
+                JsonNode root = objectMapper.readTree(response.body());
+                List<String> translations = new ArrayList<>(root.size());
+                for (JsonNode item : root) {
+                    translations.add(item.path("translations").path(0).path("text").asText(""));
+                }
+                if (translations.size() != batch.size()) {
+                    return Mono.error(new IllegalStateException("翻译结果数量不匹配: 期望="
+                            + batch.size() + ", 实际=" + translations.size()));
+                }
+                return Mono.just(translations);
+            } catch (Exception e) {
+                return Mono.error(e);
+            }
+        });
+    }
+
+    /**
+     * 将语音服务使用的语言区域代码转换为Translator语言代码
+     * 例如 zh-CN → zh-Hans，zh-TW → zh-Hant，en-US → en；auto或空返回null表示自动检测
+     */
+    static String toTranslatorLanguage(String language) {
+        if (language == null || language.isEmpty() || "auto".equalsIgnoreCase(language)) {
+            return null;
+        }
+        String lower = language.toLowerCase();
+        if (lower.startsWith("zh")) {
+            if (lower.contains("hant") || lower.endsWith("-tw") || lower.endsWith("-hk") || lower.endsWith("-mo")) {
+                return "zh-Hant";
+            }
+            return "zh-Hans";
+        }
+        int dash = language.indexOf('-');
+        return dash > 0 ? language.substring(0, dash) : language;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 未单独配置翻译密钥时使用语音服务密钥（适用于多服务资源）
+     */
+    private String getKey() {
+        String key = microsoftConfig.getTranslatorKey();
+        return key != null && !key.isEmpty() ? key : microsoftConfig.getSubscriptionKey();
+    }
+
+    private String getRegion() {
+        String region = microsoftConfig.getTranslatorRegion();
+        return region != null && !region.isEmpty() ? region : microsoftConfig.getRegion();
+    }
+}
@@ -5,8 +5,11 @@
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Flow;
 
 import org.springframework.stereotype.Service;
 import org.springframework.web.socket.WebSocketSession;
@@ -15,32 +18,56 @@
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.translation.system.config.SpeechConfig.OpenAI;
+import com.translation.system.metrics.PipelineMetrics;
+import com.translation.system.metrics.PipelineMetrics.Stage;
+import com.translation.system.metrics.UtteranceTiming;
 import com.translation.system.model.TranslationRequest;
+import com.translation.system.model.TranslationResult;
+import com.translation.system.service.AudioConsumedHook;
 import com.translation.system.service.SpeechService;
+import com.translation.system.service.TextTranslator;
+import com.translation.system.util.InFlightLimiter;
+import com.translation.system.util.MultipartBodyBuilder;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.adapter.JdkFlowAdapter;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
-public class OpenAISpeechService implements SpeechService {
+public class OpenAISpeechService implements SpeechService, MeterBinder {
 
     private final OpenAI openaiConfig;
+    private final TextTranslator textTranslator;
+    private final PipelineMetrics pipelineMetrics;
     private ObjectMapper objectMapper = new ObjectMapper();
     
-    private static final String WHISPER_API_URL = "https://api.openai.com/v1/audio/transcriptions";
-    private static final String TTS_API_URL = "https://api.openai.com/v1/audio/speech";
+    private static final String WHISPER_API_PATH = "/audio/transcriptions";
+    private static final String TTS_API_PATH = "/audio/speech";
     
     private HttpClient httpClient;
+    private InFlightLimiter requestLimiter;
+    private Duration requestTimeout;
     
     @PostConstruct
     public void init() {
+        // 所有请求共用一个客户端以复用连接；HTTP/2下同一连接上可多路复用多个请求
         httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
+                .version(openaiConfig.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(openaiConfig.getConnectTimeoutMillis()))
                 .build();
+        requestLimiter = new InFlightLimiter(openaiConfig.getMaxInFlight());
+        requestTimeout = Duration.ofMillis(openaiConfig.getRequestTimeoutMillis());
+        log.info("OpenAI客户端已初始化: baseUrl={}, 最大并发请求数={}, 请求超时={}ms",
+                openaiConfig.getBaseUrl(), openaiConfig.getMaxInFlight(), openaiConfig.getRequestTimeoutMillis());
     }
 
     @Override
@@ -53,57 +80,39 @@ public Flux<String> speechToText(byte[] audioData, String sourceLanguage) {
 
     @Override
     public Flux<String> speechToText(byte[] audioData, TranslationRequest request, WebSocketSession session) {
-        try {
-            // 构建请求体
-            var boundary = "----WebKitFormBoundary" + System.currentTimeMillis();
-            var requestBody = new ByteArrayOutputStream();
-            
-            // 添加模型信息
-            String modelLine = "--" + boundary + "\r\n" +
-                    "Content-Disposition: form-data; name=\"model\"\r\n\r\n" +
-                    "whisper-1\r\n";
-            requestBody.write(modelLine.getBytes(StandardCharsets.UTF_8));
+        return Flux.defer(() -> {
+            // 构建multipart请求体，音频数据直接引用原数组，发送时流式写出
+            MultipartBodyBuilder multipart = new MultipartBodyBuilder()
+                    .addField("model", "whisper-1");
             
             // 添加语言信息（如果有指定）
             if (request.getSourceLanguage() != null) {
-                String languageLine = "--" + boundary + "\r\n" +
-                        "Content-Disposition: form-data; name=\"language\"\r\n\r\n" +
-                        request.getSourceLanguage() + "\r\n";
-                requestBody.write(languageLine.getBytes(StandardCharsets.UTF_8));
+                multipart.addField("language", request.getSourceLanguage());
             }
             
             // 添加音频文件
-            String audioHeader = "--" + boundary + "\r\n" +
-                    "Content-Disposition: form-data; name=\"file\"; filename=\"audio.wav\"\r\n" +
-                    "Content-Type: audio/wav\r\n\r\n";
-            requestBody.write(audioHeader.getBytes(StandardCharsets.UTF_8));
-            requestBody.write(audioData);
-            requestBody.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+            multipart.addFile("file", "audio.wav", "audio/wav", audioData);
             
             // 构建请求
-            HttpRequest httpRequest = HttpRequest.newBuilder()
-                    .uri(URI.create(WHISPER_API_URL))
-                    .header("Authorization", "Bearer " + openaiConfig.getApiKey())
-                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
-                    .POST(HttpRequest.BodyPublishers.ofByteArray(requestBody.toByteArray()))
+            HttpRequest httpRequest = newRequest(WHISPER_API_PATH)
+                    .header("Content-Type", multipart.getContentType())
+                    .POST(multipart.build())
                     .build();
             
-            // 发送请求
-            HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
-            
-            if (response.statusCode() == 200) {
-                // 解析响应
-                JsonNode jsonNode = objectMapper.readTree(response.body());
-                String text = jsonNode.get("text").asText();
-                return Flux.just(text);
-            } else {
-                log.error("Error from OpenAI Whisper API: {}", response.body());
-                throw new RuntimeException("Failed to transcribe audio: " + response.statusCode());
-            }
-        } catch (Exception e) {
-            log.error("Error in speech-to-text: ", e);
-            return Flux.just("语音识别失败: " + e.getMessage());
-        }
+            // 异步发送请求
+            Flux<String> transcription = exchange(request, httpRequest, HttpResponse.BodyHandlers.ofString(), response -> {
+                if (response.statusCode() == 200) {
+                    // 解析响应
+                    JsonNode jsonNode = objectMapper.readTree(response.body());
+                    return Flux.just(jsonNode.get("text").asText());
+                } else {
+                    log.error("Error from OpenAI Whisper API: {}", response.body());
+                    return Flux.error(new RuntimeException("Failed to transcribe audio: " + response.statusCode()));
+                }
+            });
+            return AudioConsumedHook.onRecognitionDone(
+                    pipelineMetrics.timeFlux(transcription, Stage.RECOGNITION_FINAL, null, getProviderName(), request));
+        });
     }
 
     @Override
@@ -129,7 +138,7 @@ public Flux<byte[]> textToSpeech(String text, TranslationRequest request, WebSoc
             return Flux.just(new byte[0]);
         }
         
-        try {
+        return Flux.defer(() -> {
             // 构建请求体
             ObjectNode requestBody = objectMapper.createObjectNode();
             requestBody.put("model", openaiConfig.getModel());
@@ -153,6 +162,10 @@ public Flux<byte[]> textToSpeech(String text, TranslationRequest request, WebSoc
                     case OGG:
                         responseFormat = "opus";
                         break;
+                    case PCM:
+                        // 24kHz 16位单声道小端PCM，无文件头，可边收边播
+                        responseFormat = "pcm";
+                        break;
                     case WAV:
                     default:
                         responseFormat = "wav";
@@ -164,34 +177,129 @@ public Flux<byte[]> textToSpeech(String text, TranslationRequest request, WebSoc
             requestBody.put("response_format", responseFormat);
             
             // 构建请求
-            HttpRequest httpRequest = HttpRequest.newBuilder()
-                    .uri(URI.create(TTS_API_URL))
-                    .header("Authorization", "Bearer " + openaiConfig.getApiKey())
+            HttpRequest httpRequest = newRequest(TTS_API_PATH)
                     .header("Content-Type", "application/json")
                     .POST(HttpRequest.BodyPublishers.ofString(requestBody.toString()))
                     .build();
             
-            // 发送请求
-            HttpResponse<byte[]> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofByteArray());
-            
-            if (response.statusCode() == 200) {
-                return Flux.just(response.body());
-            } else {
-                String responseBody = new String(response.body(), StandardCharsets.UTF_8);
-                log.error("Error from OpenAI TTS API: {}", responseBody);
-                throw new RuntimeException("Failed to synthesize speech: " + response.statusCode());
-            }
-        } catch (Exception e) {
-            log.error("Error in text-to-speech: ", e);
-            return Flux.just(new byte[0]);
-        }
+            // 响应头到达即开始处理，响应体以流的方式逐帧读取；许可一直持有到音频流结束
+            Flux<byte[]> synthesis = exchange(request, httpRequest, HttpResponse.BodyHandlers.ofPublisher(), response -> {
+                if (response.statusCode() == 200) {
+                    // 每次从socket读到的数据即作为一帧音频发出，首帧延迟等于服务端首字节延迟
+                    return JdkFlowAdapter.flowPublisherToFlux(response.body())
+                            .map(OpenAISpeechService::toByteArray)
+                            .filter(frame -> frame.length > 0);
+                } else {
+                    int statusCode = response.statusCode();
+                    return readErrorBody(response.body())
+                            .flatMapMany(body -> {
+                                log.error("Error from OpenAI TTS API: status={}, body={}", statusCode, body);
+                                return Flux.error(new RuntimeException("Failed to synthesize speech: " + statusCode));
+                            });
+                }
+            });
+            return pipelineMetrics.timeFlux(synthesis, Stage.SYNTHESIS_FIRST_BYTE, Stage.SYNTHESIS_COMPLETE,
+                    getProviderName(), request);
+        });
+    }
+    
+    /**
+     * 创建指向OpenAI API的请求构建器，附带认证头和单请求超时
+     */
+    private HttpRequest.Builder newRequest(String path) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(openaiConfig.getBaseUrl() + path))
+                .timeout(requestTimeout)
+                .header("Authorization", "Bearer " + openaiConfig.getApiKey());
+    }
+    
+    /**
+     * 通过sendAsync异步发送请求，不阻塞调用线程
+     * 并发数受maxInFlight限制，排队等待许可和等待响应头分别受requestTimeout限制，等待许可的时间记为排队耗时；
+     * 订阅者取消时会取消sendAsync返回的Future，从而中止底层HTTP交换
+     */
+    private <B, T> Flux<T> exchange(TranslationRequest request, HttpRequest httpRequest,
+            HttpResponse.BodyHandler<B> bodyHandler, ResponseHandler<B, T> responseHandler) {
+        return Flux.deferContextual(context -> {
+            long queued = System.nanoTime();
+            return requestLimiter.execute(() -> {
+                pipelineMetrics.record(Stage.QUEUE, getProviderName(), request, System.nanoTime() - queued,
+                        UtteranceTiming.from(context));
+                return Mono.fromFuture(() -> httpClient.sendAsync(httpRequest, bodyHandler))
+                        .flatMapMany(response -> {
+                            try {
+                                return responseHandler.handle(response);
+                            } catch (Exception e) {
+                                return Flux.error(e);
+                            }
+                        });
+            }, requestTimeout);
+        });
+    }
+    
+    /**
+     * 响应处理函数，允许抛出受检异常
+     */
+    @FunctionalInterface
+    private interface ResponseHandler<B, T> {
+        Flux<T> handle(HttpResponse<B> response) throws Exception;
+    }
+    
+    /**
+     * 读取流式响应体中的错误信息
+     */
+    private static Mono<String> readErrorBody(Flow.Publisher<List<ByteBuffer>> body) {
+        return JdkFlowAdapter.flowPublisherToFlux(body)
+                .map(OpenAISpeechService::toByteArray)
+                .reduce(new ByteArrayOutputStream(), (out, frame) -> {
+                    out.writeBytes(frame);
+                    return out;
+                })
+                .map(out -> out.toString(StandardCharsets.UTF_8));
     }
     
+    /**
+     * 将一次socket读取得到的多个ByteBuffer合并为一帧
+     */
+    private static byte[] toByteArray(List<ByteBuffer> buffers) {
+        int size = 0;
+        for (ByteBuffer buffer : buffers) {
+            size += buffer.remaining();
+        }
+        byte[] frame = new byte[size];
+        int offset = 0;
+        for (ByteBuffer buffer : buffers) {
+            int length = buffer.remaining();
+            buffer.get(frame, offset, length);
+            offset += length;
+        }
+        return frame;
+    }
+
     @Override
     public boolean isAvailable() {
         return openaiConfig.getApiKey() != null && !openaiConfig.getApiKey().trim().isEmpty();
     }
 
+    @Override
+    public boolean isSaturated() {
+        return requestLimiter != null && requestLimiter.getPending() > 0;
+    }
+    
+    /**
+     * 并发请求许可的使用情况
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Tags tags = Tags.of("pool", "openai-requests");
+        Gauge.builder("speech.pool.active", this, service -> service.requestLimiter != null ? service.requestLimiter.getInFlight() : 0)
+                .description("Objects currently borrowed from the pool").tags(tags).register(registry);
+        Gauge.builder("speech.pool.waiters", this, service -> service.requestLimiter != null ? service.requestLimiter.getPending() : 0)
+                .description("Callers waiting to borrow from the pool").tags(tags).register(registry);
+        Gauge.builder("speech.pool.max", openaiConfig, OpenAI::getMaxInFlight)
+                .description("Maximum size of the pool").tags(tags).register(registry);
+    }
+
     @Override
     public String getProviderName() {
         return "openai";
@@ -213,41 +321,39 @@ public Flux<byte[]> translateSpeechToSpeech(byte[] audioData, TranslationRequest
         }
         
         String sessionId = session != null ? session.getId() : "unknown";
-        log.info("开始OpenAI语音转语音翻译: 会话ID={}, 音频数据大小={}字节, 源语言={}, 目标语言={}", 
+        log.debug("开始OpenAI语音转语音翻译: 会话ID={}, 音频数据大小={}字节, 源语言={}, 目标语言={}", 
                 sessionId, audioData.length, request.getSourceLanguage(), request.getTargetLanguage());
         
         // OpenAI没有直接的语音转语音翻译API，需要组合使用Whisper和TTS
         // 步骤1: 使用Whisper进行语音转文本
         return speechToText(audioData, request, session)
                 .doOnNext(recognizedText -> {
-                    log.info("OpenAI语音识别完成: 会话ID={}, 识别文本=\"{}\"", sessionId, recognizedText);
+                    log.debug("OpenAI语音识别完成: 会话ID={}, 识别文本=\"{}\"", sessionId, recognizedText);
                 })
                 .flatMap(recognizedText -> {
-                    // 检查识别结果是否为空或失败
-                    if (recognizedText == null || recognizedText.isEmpty() || 
-                            recognizedText.startsWith("语音识别失败")) {
-                        log.warn("OpenAI语音识别结果为空或失败，尝试使用默认文本");
+                    // 检查识别结果是否为空（识别失败时错误直接向上传递）
+                    if (recognizedText == null || recognizedText.isEmpty()) {
+                        log.warn("OpenAI语音识别结果为空，尝试使用默认文本");
                         // 使用一个默认文本，防止合成失败
-                        recognizedText = "这是一段默认文本，因为OpenAI语音识别失败";
+                        recognizedText = "这是一段默认文本，因为OpenAI没有识别出语音内容";
                     }
                     
                     // 步骤2: 翻译文本（从源语言到目标语言）
                     final String originalText = recognizedText;
-                    String translatedText = translateText(originalText, 
-                            request.getSourceLanguage(), 
-                            request.getTargetLanguage());
-                    
-                    log.info("OpenAI文本翻译完成: 源文本=\"{}\", 目标文本=\"{}\"", originalText, translatedText);
-                    
-                    // 步骤3: 使用TTS进行文本转语音（目标语言）
-                    log.info("开始OpenAI语音合成: 会话ID={}, 文本=\"{}\"", sessionId, translatedText);
-                    return textToSpeech(translatedText, request, session);
+                    return translateText(originalText, request)
+                            .flatMapMany(translatedText -> {
+                                log.debug("OpenAI文本翻译完成: 源文本=\"{}\", 目标文本=\"{}\"", originalText, translatedText);
+                                
+                                // 步骤3: 使用TTS进行文本转语音（目标语言）
+                                log.debug("开始OpenAI语音合成: 会话ID={}, 文本=\"{}\"", sessionId, translatedText);
+                                return textToSpeech(translatedText, request, session);
+                            });
                 })
                 .doOnNext(synthesizedAudio -> {
                     if (synthesizedAudio == null || synthesizedAudio.length == 0) {
                         log.warn("OpenAI语音合成结果为空，生成的音频数据大小为0字节");
                     } else {
-                        log.info("OpenAI语音合成完成: 会话ID={}, 音频数据大小={}字节", sessionId, synthesizedAudio.length);
+                        log.debug("收到OpenAI合成音频帧: 会话ID={}, 帧大小={}字节", sessionId, synthesizedAudio.length);
                     }
                 })
                 .switchIfEmpty(Flux.defer(() -> {
@@ -257,50 +363,67 @@ public Flux<byte[]> translateSpeechToSpeech(byte[] audioData, TranslationRequest
                     return textToSpeech(defaultText, request, session);
                 }))
                 .doOnComplete(() -> {
-                    log.info("OpenAI语音转语音翻译完成: 会话ID={}", sessionId);
+                    log.debug("OpenAI语音转语音翻译完成: 会话ID={}", sessionId);
                 })
                 .doOnError(error -> {
                     log.error("OpenAI语音转语音翻译失败: 会话ID={}, 错误={}", sessionId, error.getMessage(), error);
                 });
     }
 
+    @Override
+    public Flux<TranslationResult> translateSpeechToTargets(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        if (audioData == null || audioData.length == 0) {
+            log.warn("Empty audio data provided for multi-target translation");
+            return Flux.empty();
+        }
+        
+        String sessionId = session != null ? session.getId() : "unknown";
+        List<String> targetLanguages = request.getEffectiveTargetLanguages();
+        log.debug("开始OpenAI多目标语言翻译: 会话ID={}, 音频数据大小={}字节, 源语言={}, 目标语言={}", 
+                sessionId, audioData.length, request.getSourceLanguage(), targetLanguages);
+        
+        // 只调用一次Whisper，识别结果按目标语言分别翻译和合成
+        return speechToText(audioData, request, session)
+                .filter(recognizedText -> !recognizedText.isEmpty())
+                .concatMap(recognizedText -> Flux.fromIterable(targetLanguages)
+                        .flatMap(language -> {
+                            Mono<String> translation = language.equalsIgnoreCase(request.getSourceLanguage())
+                                    ? Mono.just(recognizedText)
+                                    : translateText(recognizedText, request.forTargetLanguage(language));
+                            return translation.flatMapMany(translatedText -> {
+                                TranslationResult text = TranslationResult.builder()
+                                        .language(language)
+                                        .sourceText(recognizedText)
+                                        .translatedText(translatedText)
+                                        .build();
+                                Flux<TranslationResult> audio = textToSpeech(translatedText, request.forTargetLanguage(language), session)
+                                        .filter(frame -> frame.length > 0)
+                                        .map(frame -> TranslationResult.builder()
+                                                .language(language)
+                                                .sourceText(recognizedText)
+                                                .translatedText(translatedText)
+                                                .audio(frame)
+                                                .build());
+                                return Flux.concat(Flux.just(text), audio);
+                            });
+                        }))
+                .doOnComplete(() -> log.debug("OpenAI多目标语言翻译完成: 会话ID={}", sessionId));
+    }
+
     /**
-     * 简单翻译文本（临时实现，实际项目中应使用专业翻译API）
+     * 翻译文本，翻译失败时返回原文
      * 
      * @param text 需要翻译的文本
-     * @param sourceLanguage 源语言
-     * @param targetLanguage 目标语言
+     * @param request 翻译请求，使用其中的源语言和目标语言
      * @return 翻译后的文本
      */
-    private String translateText(String text, String sourceLanguage, String targetLanguage) {
-        // 这里只是一个简单示例，实际应该集成专业的翻译API
-        // 例如OpenAI的API、Google翻译API或百度翻译API等
-        
-        // 中文到英文的简单映射（仅作示例）
-        if ("zh-CN".equals(sourceLanguage) && targetLanguage.startsWith("en")) {
-            if (text.contains("测试")) {
-                return "Please translate what I say into English. This is a test, and we are using OpenAI's speech synthesis service.";
-            } else if (text.contains("默认文本") || text.contains("识别失败")) {
-                return "This is a default text because speech recognition failed.";
-            } else {
-                // 默认英文示例文本
-                return "This is a translated text. The original language was Chinese.";
-            }
-        } 
-        // 英文到中文
-        else if (sourceLanguage.startsWith("en") && "zh-CN".equals(targetLanguage)) {
-            if (text.toLowerCase().contains("test")) {
-                return "请将我说的话翻译成中文。这是一个测试，我们正在使用OpenAI的语音合成服务。";
-            } else if (text.toLowerCase().contains("default") || text.toLowerCase().contains("failed")) {
-                return "这是一段默认文本，因为语音识别失败。";
-            } else {
-                // 默认中文示例文本
-                return "这是已翻译的文本。原始语言是英语。";
-            }
-        }
-        // 如果不是上述语言对，或者源语言和目标语言相同，直接返回原文
-        else {
-            return text;
-        }
+    private Mono<String> translateText(String text, TranslationRequest request) {
+        Mono<String> translation = textTranslator.translate(text, request.getSourceLanguage(), request.getTargetLanguage());
+        return pipelineMetrics.timeMono(translation, Stage.TEXT_TRANSLATION, getProviderName(), request)
+                .onErrorResume(e -> {
+                    // 翻译流水线已在服务失败时使用离线短语表兜底，这里只在兜底也失败时返回原文
+                    log.error("文本翻译失败，返回原文: {}", e.getMessage());
+                    return Mono.just(text);
+                });
     }
-} 
\ No newline at end of file
+}
@@ -4,6 +4,7 @@
 import org.springframework.web.socket.WebSocketSession;
 
 import com.translation.system.model.TranslationRequest;
+import com.translation.system.model.TranslationResult;
 import com.translation.system.service.SpeechService;
 import com.translation.system.service.SpeechServiceFactory;
 import com.translation.system.service.TranslationService;
@@ -21,11 +22,16 @@ public class TranslationServiceImpl implements TranslationService {
     
     @Override
     public Flux<byte[]> translateSpeech(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        // 订阅时才选择服务并开始处理，路由使用订阅时的健康状态，取消订阅即中止下游请求
+        return Flux.defer(() -> doTranslateSpeech(audioData, request, session));
+    }
+    
+    private Flux<byte[]> doTranslateSpeech(byte[] audioData, TranslationRequest request, WebSocketSession session) {
         // 获取指定的语音服务
         SpeechService speechService = speechServiceFactory.getSpeechService(request);
         
         String sessionId = session != null ? session.getId() : "unknown";
-        log.info("开始语音翻译处理: 会话ID={}, 音频数据大小={}字节, 源语言={}, 目标语言={}, 服务提供商={}", 
+        log.debug("开始语音翻译处理: 会话ID={}, 音频数据大小={}字节, 源语言={}, 目标语言={}, 服务提供商={}", 
                 sessionId, audioData.length, request.getSourceLanguage(), 
                 request.getTargetLanguage(), speechService.getProviderName());
         
@@ -33,15 +39,33 @@ public Flux<byte[]> translateSpeech(byte[] audioData, TranslationRequest request
         if ("speech-to-text".equals(request.getMode())) {
             // 仅执行语音转文本
             return speechService.speechToText(audioData, request, session)
-                    .doOnNext(text -> log.info("语音识别结果: 会话ID={}, 识别文本=\"{}\"", sessionId, text))
+                    .doOnNext(text -> log.debug("语音识别结果: 会话ID={}, 识别文本=\"{}\"", sessionId, text))
                     .map(text -> text.getBytes(java.nio.charset.StandardCharsets.UTF_8))
-                    .doOnComplete(() -> log.info("语音转文本完成: 会话ID={}", sessionId))
+                    .doOnComplete(() -> log.debug("语音转文本完成: 会话ID={}", sessionId))
                     .doOnError(e -> log.error("语音转文本错误: 会话ID={}, 错误={}", sessionId, e.getMessage(), e));
         } else {
             // 默认执行语音转语音翻译
             return speechService.translateSpeechToSpeech(audioData, request, session)
-                    .doOnComplete(() -> log.info("语音翻译完成: 会话ID={}", sessionId))
+                    .doOnComplete(() -> log.debug("语音翻译完成: 会话ID={}", sessionId))
                     .doOnError(e -> log.error("语音翻译错误: 会话ID={}, 错误={}", sessionId, e.getMessage(), e));
         }
     }
-} 
\ No newline at end of file
+    
+    @Override
+    public Flux<TranslationResult> translateSpeechToTargets(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        return Flux.defer(() -> doTranslateSpeechToTargets(audioData, request, session));
+    }
+    
+    private Flux<TranslationResult> doTranslateSpeechToTargets(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        SpeechService speechService = speechServiceFactory.getSpeechService(request);
+        
+        String sessionId = session != null ? session.getId() : "unknown";
+        log.debug("开始多目标语言翻译: 会话ID={}, 音频数据大小={}字节, 源语言={}, 目标语言={}, 服务提供商={}", 
+                sessionId, audioData.length, request.getSourceLanguage(), 
+                request.getEffectiveTargetLanguages(), speechService.getProviderName());
+        
+        return speechService.translateSpeechToTargets(audioData, request, session)
+                .doOnComplete(() -> log.debug("多目标语言翻译完成: 会话ID={}", sessionId))
+                .doOnError(e -> log.error("多目标语言翻译错误: 会话ID={}, 错误={}", sessionId, e.getMessage(), e));
+    }
+}
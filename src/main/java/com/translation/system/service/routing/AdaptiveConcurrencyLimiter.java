@@ -0,0 +1,117 @@
+package com.translation.system.service.routing;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.translation.system.config.SpeechConfig;
+
+/**
+ * 自适应并发上限（AIMD）
+ * 以最近一个窗口内的最小首个结果延迟作为基线：延迟不超过基线的一定倍数且并发上限被充分使用时，
+ * 上限每个往返加一（每个样本加 1/limit）；延迟超出或请求失败时上限按比例下降。
+ * 基线按操作类型分别计算，识别类操作的样本由调用方按音频时长折算，不同长度的音频可以直接比较
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final SpeechConfig.Bulkhead config;
+    private double limit;
+    private int inFlight;
+    // 操作类型 -> 延迟基线
+    private final Map<String, Baseline> baselines = new HashMap<>();
+    private long rejected;
+
+    public AdaptiveConcurrencyLimiter(SpeechConfig.Bulkhead config) {
+        this.config = config;
+        this.limit = Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), config.getInitialLimit()));
+    }
+
+    /**
+     * 单个操作类型的延迟基线
+     */
+    private static class Baseline {
+        double baseline = -1;
+        double windowMin = Double.MAX_VALUE;
+        int windowCount;
+    }
+
+    /**
+     * 获取一个并发许可，已达到上限时返回false
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejected++;
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * 并发数是否已达到上限，此时新的请求会被拒绝
+     */
+    public synchronized boolean isFull() {
+        return inFlight >= (int) limit;
+    }
+
+    /**
+     * 记录一次成功请求的延迟样本并调整并发上限
+     *
+     * @param operation 操作类型，各自维护基线
+     * @param latency 首个结果的延迟（毫秒），识别类操作为每秒音频的延迟
+     */
+    public synchronized void onSample(String operation, double latency) {
+        Baseline window = baselines.computeIfAbsent(operation, k -> new Baseline());
+        window.windowMin = Math.min(window.windowMin, latency);
+        if (++window.windowCount >= config.getBaselineWindow()) {
+            // 每个窗口结束时重新确定基线，使基线能够随服务整体变慢而上升
+            window.baseline = window.windowMin;
+            window.windowMin = Double.MAX_VALUE;
+            window.windowCount = 0;
+        } else if (window.baseline < 0 || latency < window.baseline) {
+            window.baseline = latency;
+        }
+
+        if (latency > window.baseline * config.getLatencyTolerance()) {
+            decrease();
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(config.getMaxLimit(), limit + 1.0 / limit);
+        }
+    }
+
+    /**
+     * 归还许可
+     *
+     * @param dropped 请求是否失败，失败视为拥塞信号
+     */
+    public synchronized void release(boolean dropped) {
+        inFlight--;
+        if (dropped) {
+            decrease();
+        }
+    }
+
+    private void decrease() {
+        limit = Math.max(config.getMinLimit(), limit * config.getBackoffRatio());
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("limit", (int) limit);
+        stats.put("inFlight", inFlight);
+        Map<String, Long> baselineStats = new TreeMap<>();
+        baselines.forEach((operation, window) -> baselineStats.put(operation, Math.round(window.baseline)));
+        stats.put("baselineLatencyMillis", baselineStats);
+        stats.put("rejected", rejected);
+        return stats;
+    }
+}
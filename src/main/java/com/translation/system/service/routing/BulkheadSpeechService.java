@@ -0,0 +1,121 @@
+package com.translation.system.service.routing;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.springframework.web.socket.WebSocketSession;
+
+import com.translation.system.model.TranslationRequest;
+import com.translation.system.model.TranslationResult;
+import com.translation.system.service.SpeechService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+/**
+ * 服务提供者隔离舱
+ * 每个服务提供者使用独立的自适应并发上限，达到上限的请求立即以 {@link ProviderOverloadedException} 结束，
+ * 不排队等待，避免一个变慢的服务占满线程和连接而拖累其他服务。
+ * 服务实现的失败以错误发出，作为拥塞信号降低并发上限
+ */
+public class BulkheadSpeechService implements SpeechService {
+
+    // 请求未指定采样率时按16kHz估算音频时长
+    private static final int DEFAULT_SAMPLE_RATE = 16000;
+    private static final double MIN_AUDIO_SECONDS = 0.5;
+
+    private final SpeechService delegate;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public BulkheadSpeechService(SpeechService delegate, AdaptiveConcurrencyLimiter limiter) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Flux<String> speechToText(byte[] audioData, String sourceLanguage) {
+        return guard("speech-to-text", audioSeconds(audioData, null), () -> delegate.speechToText(audioData, sourceLanguage));
+    }
+
+    @Override
+    public Flux<String> speechToText(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        return guard("speech-to-text", audioSeconds(audioData, request), () -> delegate.speechToText(audioData, request, session));
+    }
+
+    @Override
+    public Flux<byte[]> textToSpeech(String text, String targetLanguage) {
+        return guard("text-to-speech", 1, () -> delegate.textToSpeech(text, targetLanguage));
+    }
+
+    @Override
+    public Flux<byte[]> textToSpeech(String text, String targetLanguage, TranslationRequest request) {
+        return guard("text-to-speech", 1, () -> delegate.textToSpeech(text, targetLanguage, request));
+    }
+
+    @Override
+    public Flux<byte[]> textToSpeech(String text, TranslationRequest request, WebSocketSession session) {
+        return guard("text-to-speech", 1, () -> delegate.textToSpeech(text, request, session));
+    }
+
+    @Override
+    public Flux<byte[]> translateSpeechToSpeech(byte[] audioData, String sourceLanguage, String targetLanguage) {
+        return guard("speech-to-speech", audioSeconds(audioData, null),
+                () -> delegate.translateSpeechToSpeech(audioData, sourceLanguage, targetLanguage));
+    }
+
+    @Override
+    public Flux<byte[]> translateSpeechToSpeech(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        return guard("speech-to-speech", audioSeconds(audioData, request),
+                () -> delegate.translateSpeechToSpeech(audioData, request, session));
+    }
+
+    @Override
+    public Flux<TranslationResult> translateSpeechToTargets(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        return guard("speech-to-targets", audioSeconds(audioData, request),
+                () -> delegate.translateSpeechToTargets(audioData, request, session));
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return delegate.isAvailable();
+    }
+
+    @Override
+    public String getProviderName() {
+        return delegate.getProviderName();
+    }
+
+    public AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    /**
+     * @param cost 延迟样本的折算系数：识别类操作的首个结果要等整段音频处理完，延迟按每秒音频折算
+     */
+    private <T> Flux<T> guard(String operation, double cost, Supplier<Flux<T>> call) {
+        return Flux.defer(() -> {
+            if (!limiter.tryAcquire()) {
+                return Flux.error(new ProviderOverloadedException(delegate.getProviderName(), limiter.getLimit()));
+            }
+            long start = System.nanoTime();
+            AtomicBoolean responded = new AtomicBoolean();
+            return Flux.defer(call)
+                    .doOnNext(value -> {
+                        // 失败的请求不计入延迟样本，只按拥塞信号处理，很快失败的请求不会拉低基线
+                        if (responded.compareAndSet(false, true)) {
+                            limiter.onSample(operation, (System.nanoTime() - start) / 1_000_000.0 / cost);
+                        }
+                    })
+                    .doFinally(signalType -> limiter.release(signalType == SignalType.ON_ERROR));
+        });
+    }
+
+    /**
+     * 音频时长（秒），按16位单声道PCM估算，过短的音频按最短时长计算
+     */
+    static double audioSeconds(byte[] audioData, TranslationRequest request) {
+        int sampleRate = request != null && request.getSampleRate() != null ? request.getSampleRate() : DEFAULT_SAMPLE_RATE;
+        int length = audioData != null ? audioData.length : 0;
+        return Math.max(MIN_AUDIO_SECONDS, length / (sampleRate * 2.0));
+    }
+}
@@ -0,0 +1,104 @@
+package com.translation.system.service.routing;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.springframework.web.socket.WebSocketSession;
+
+import com.translation.system.model.TranslationRequest;
+import com.translation.system.model.TranslationResult;
+import com.translation.system.service.SpeechService;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * 记录健康状态的语音服务
+ * 每次调用按操作类型记录首个结果的延迟、是否出错以及进行中的请求数，供自适应路由和熔断使用。
+ * 服务实现的失败以错误发出，降级结果在 {@link com.translation.system.service.ErrorFallbackSpeechService} 中生成
+ */
+public class HealthTrackingSpeechService implements SpeechService {
+
+    private final SpeechService delegate;
+    private final ProviderHealth health;
+
+    public HealthTrackingSpeechService(SpeechService delegate, ProviderHealth health) {
+        this.delegate = delegate;
+        this.health = health;
+    }
+
+    @Override
+    public Flux<String> speechToText(byte[] audioData, String sourceLanguage) {
+        return track("speech-to-text", () -> delegate.speechToText(audioData, sourceLanguage));
+    }
+
+    @Override
+    public Flux<String> speechToText(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        return track("speech-to-text", () -> delegate.speechToText(audioData, request, session));
+    }
+
+    @Override
+    public Flux<byte[]> textToSpeech(String text, String targetLanguage) {
+        return track("text-to-speech", () -> delegate.textToSpeech(text, targetLanguage));
+    }
+
+    @Override
+    public Flux<byte[]> textToSpeech(String text, String targetLanguage, TranslationRequest request) {
+        return track("text-to-speech", () -> delegate.textToSpeech(text, targetLanguage, request));
+    }
+
+    @Override
+    public Flux<byte[]> textToSpeech(String text, TranslationRequest request, WebSocketSession session) {
+        return track("text-to-speech", () -> delegate.textToSpeech(text, request, session));
+    }
+
+    @Override
+    public Flux<byte[]> translateSpeechToSpeech(byte[] audioData, String sourceLanguage, String targetLanguage) {
+        return track("speech-to-speech", () -> delegate.translateSpeechToSpeech(audioData, sourceLanguage, targetLanguage));
+    }
+
+    @Override
+    public Flux<byte[]> translateSpeechToSpeech(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        return track("speech-to-speech", () -> delegate.translateSpeechToSpeech(audioData, request, session));
+    }
+
+    @Override
+    public Flux<TranslationResult> translateSpeechToTargets(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        return track("speech-to-targets", () -> delegate.translateSpeechToTargets(audioData, request, session));
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return delegate.isAvailable();
+    }
+
+    @Override
+    public String getProviderName() {
+        return delegate.getProviderName();
+    }
+
+    public ProviderHealth getHealth() {
+        return health;
+    }
+
+    private <T> Flux<T> track(String operation, Supplier<Flux<T>> call) {
+        return Flux.defer(() -> {
+            health.onStart(operation);
+            long start = System.nanoTime();
+            AtomicBoolean responded = new AtomicBoolean();
+            return Flux.defer(call)
+                    .doOnNext(value -> {
+                        // 只有结果计入延迟，很快失败的请求不会让服务显得更快
+                        if (responded.compareAndSet(false, true)) {
+                            health.onFirstResponse(operation, (System.nanoTime() - start) / 1_000_000);
+                        }
+                    })
+                    .doFinally(signalType -> {
+                        switch (signalType) {
+                            case ON_COMPLETE -> health.onComplete(operation);
+                            case ON_ERROR -> health.onError(operation);
+                            default -> health.onCancel(operation);
+                        }
+                    });
+        });
+    }
+}
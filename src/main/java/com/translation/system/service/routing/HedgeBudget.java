@@ -0,0 +1,40 @@
+package com.translation.system.service.routing;
+
+/**
+ * 对冲请求预算（令牌桶）
+ * 每个请求存入 ratio 个令牌，每次对冲消耗一个令牌，从而把对冲请求限制在总请求的一定比例内，
+ * 主服务整体变慢时不会把全部流量翻倍压到备用服务上
+ */
+public class HedgeBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+    /**
+     * @param ratio 对冲请求占总请求的最大比例
+     * @param maxBurst 允许连续发出的最大对冲请求数
+     */
+    public HedgeBudget(double ratio, int maxBurst) {
+        this.ratio = ratio;
+        this.maxTokens = Math.max(1, maxBurst);
+    }
+
+    /**
+     * 记录一次请求
+     */
+    public synchronized void onRequest() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /**
+     * 尝试获取一次对冲的额度
+     */
+    public synchronized boolean tryAcquire() {
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,248 @@
+package com.translation.system.service.routing;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.web.socket.WebSocketSession;
+
+import com.translation.system.config.SpeechConfig;
+import com.translation.system.model.TranslationRequest;
+import com.translation.system.model.TranslationResult;
+import com.translation.system.service.SpeechService;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * 对冲请求语音服务
+ * 先调用主服务；主服务在阈值（其首个结果延迟的滚动分位数）内没有返回结果时，向备用服务发出相同请求，
+ * 采用先返回结果的一方并取消另一方。对冲请求数受 {@link HedgeBudget} 限制；
+ * 主服务没有结果就出错或结束时不等阈值、不占预算，直接改用备用服务
+ */
+@Slf4j
+public class HedgingSpeechService implements SpeechService {
+
+    private static final String PRIMARY = "primary";
+    private static final String SECONDARY = "secondary";
+
+    private final SpeechService primary;
+    private final SpeechService secondary;
+    private final SpeechConfig.Hedging config;
+    private final HedgeBudget budget;
+    private final Scheduler timer;
+    // 操作类型 -> 主服务首个结果的延迟
+    private final Map<String, LatencyTracker> trackers = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder budgetDenied = new LongAdder();
+    private final LongAdder failovers = new LongAdder();
+
+    public HedgingSpeechService(SpeechService primary, SpeechService secondary, SpeechConfig.Hedging config) {
+        this(primary, secondary, config, Schedulers.parallel());
+    }
+
+    HedgingSpeechService(SpeechService primary, SpeechService secondary, SpeechConfig.Hedging config, Scheduler timer) {
+        this.primary = primary;
+        this.secondary = secondary;
+        this.config = config;
+        this.budget = new HedgeBudget(config.getMaxHedgeRatio(), config.getMaxHedgeBurst());
+        this.timer = timer;
+    }
+
+    @Override
+    public Flux<String> speechToText(byte[] audioData, String sourceLanguage) {
+        return hedge("speech-to-text",
+                () -> primary.speechToText(audioData, sourceLanguage),
+                () -> secondary.speechToText(audioData, sourceLanguage));
+    }
+
+    @Override
+    public Flux<String> speechToText(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        return hedge("speech-to-text",
+                () -> primary.speechToText(audioData, request, session),
+                () -> secondary.speechToText(audioData, request, session));
+    }
+
+    @Override
+    public Flux<byte[]> textToSpeech(String text, String targetLanguage) {
+        return hedge("text-to-speech",
+                () -> primary.textToSpeech(text, targetLanguage),
+                () -> secondary.textToSpeech(text, targetLanguage));
+    }
+
+    @Override
+    public Flux<byte[]> textToSpeech(String text, String targetLanguage, TranslationRequest request) {
+        // 两个服务各自会修改请求中的目标语言，分别使用副本
+        return hedge("text-to-speech",
+                () -> primary.textToSpeech(text, targetLanguage, copy(request)),
+                () -> secondary.textToSpeech(text, targetLanguage, copy(request)));
+    }
+
+    @Override
+    public Flux<byte[]> textToSpeech(String text, TranslationRequest request, WebSocketSession session) {
+        return hedge("text-to-speech",
+                () -> primary.textToSpeech(text, request, session),
+                () -> secondary.textToSpeech(text, request, session));
+    }
+
+    @Override
+    public Flux<byte[]> translateSpeechToSpeech(byte[] audioData, String sourceLanguage, String targetLanguage) {
+        return hedge("speech-to-speech",
+                () -> primary.translateSpeechToSpeech(audioData, sourceLanguage, targetLanguage),
+                () -> secondary.translateSpeechToSpeech(audioData, sourceLanguage, targetLanguage));
+    }
+
+    @Override
+    public Flux<byte[]> translateSpeechToSpeech(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        return hedge("speech-to-speech",
+                () -> primary.translateSpeechToSpeech(audioData, request, session),
+                () -> secondary.translateSpeechToSpeech(audioData, request, session));
+    }
+
+    @Override
+    public Flux<TranslationResult> translateSpeechToTargets(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        return hedge("speech-to-targets",
+                () -> primary.translateSpeechToTargets(audioData, request, session),
+                () -> secondary.translateSpeechToTargets(audioData, request, session));
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return primary.isAvailable() || secondary.isAvailable();
+    }
+
+    @Override
+    public String getProviderName() {
+        return "hedged";
+    }
+
+    private <T> Flux<T> hedge(String operation, Supplier<Flux<T>> primaryCall, Supplier<Flux<T>> secondaryCall) {
+        return Flux.defer(() -> {
+            requests.increment();
+            budget.onRequest();
+            LatencyTracker tracker = trackers.computeIfAbsent(operation, k -> new LatencyTracker(config.getWindowSize()));
+            Duration delay = hedgeDelay(tracker);
+            long start = System.nanoTime();
+            AtomicReference<String> winner = new AtomicReference<>();
+            AtomicReference<Throwable> primaryError = new AtomicReference<>();
+            AtomicReference<Throwable> secondaryError = new AtomicReference<>();
+            // 主服务没有返回任何结果就结束（出错或空）时触发，立即改用备用服务
+            Sinks.One<Boolean> primaryFailed = Sinks.one();
+
+            // 部分服务在订阅时同步阻塞，两路请求都放到弹性线程池上，保证计时器能按时触发
+            Flux<T> primaryFlux = Flux.defer(primaryCall)
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .doOnNext(value -> {
+                        if (winner.compareAndSet(null, PRIMARY)) {
+                            tracker.record(elapsedMillis(start));
+                        }
+                    })
+                    .doOnError(primaryError::set)
+                    .doFinally(signal -> {
+                        if (winner.get() == null && signal != SignalType.CANCEL) {
+                            primaryFailed.tryEmitValue(true);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        // 被备用服务抢先时只知道延迟不小于当前耗时，按此记录，避免分位数被低估
+                        if (SECONDARY.equals(winner.get())) {
+                            tracker.record(elapsedMillis(start));
+                        }
+                    });
+
+            // 到达阈值时在预算内发出对冲；预算不足时只在主服务失败后才调用备用服务
+            Mono<Boolean> hedgeDue = Mono.delay(delay, timer)
+                    .filter(tick -> {
+                        if (!budget.tryAcquire()) {
+                            budgetDenied.increment();
+                            return false;
+                        }
+                        return true;
+                    })
+                    .map(tick -> false);
+            Flux<T> secondaryFlux = Mono.firstWithValue(hedgeDue, primaryFailed.asMono())
+                    .flatMapMany(failover -> {
+                        if (failover) {
+                            failovers.increment();
+                            log.debug("主服务未返回结果即结束，改用备用服务: 操作={}, 备用服务={}",
+                                    operation, secondary.getProviderName());
+                        } else {
+                            hedges.increment();
+                            log.debug("主服务{}毫秒内未返回结果，发出对冲请求: 操作={}, 备用服务={}",
+                                    delay.toMillis(), operation, secondary.getProviderName());
+                        }
+                        return Flux.defer(secondaryCall)
+                                .subscribeOn(Schedulers.boundedElastic())
+                                .doOnNext(value -> {
+                                    if (winner.compareAndSet(null, SECONDARY)) {
+                                        hedgeWins.increment();
+                                    }
+                                })
+                                .doOnError(secondaryError::set);
+                    });
+
+            // 只有结果才算返回：出错或空结束的一方不会胜出，另一方继续；两方都没有结果时优先返回主服务的错误
+            return Flux.firstWithValue(primaryFlux, secondaryFlux)
+                    .onErrorResume(NoSuchElementException.class, e -> {
+                        if (winner.get() != null) {
+                            return Flux.error(e);
+                        }
+                        Throwable error = primaryError.get() != null ? primaryError.get() : secondaryError.get();
+                        return error != null ? Flux.error(error) : Flux.empty();
+                    });
+        });
+    }
+
+    /**
+     * 对冲阈值：主服务首个结果延迟的分位数，样本不足时使用默认值
+     */
+    Duration hedgeDelay(LatencyTracker tracker) {
+        long millis = tracker.getCount() >= config.getMinSamples()
+                ? tracker.percentile(config.getPercentile())
+                : config.getDefaultDelayMillis();
+        return Duration.ofMillis(Math.max(config.getMinDelayMillis(), millis));
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static TranslationRequest copy(TranslationRequest request) {
+        return request != null ? request.toBuilder().build() : null;
+    }
+
+    /**
+     * 对冲统计：请求数、对冲数、对冲占比、备用服务胜出次数和各操作当前的对冲阈值
+     */
+    public Map<String, Object> getStats() {
+        long total = requests.sum();
+        Map<String, Object> delays = new TreeMap<>();
+        trackers.forEach((operation, tracker) -> delays.put(operation, hedgeDelay(tracker).toMillis()));
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("primary", primary.getProviderName());
+        stats.put("secondary", secondary.getProviderName());
+        stats.put("requests", total);
+        stats.put("hedges", hedges.sum());
+        stats.put("hedgeRate", total > 0 ? (double) hedges.sum() / total : 0.0);
+        stats.put("hedgeWins", hedgeWins.sum());
+        stats.put("budgetDenied", budgetDenied.sum());
+        stats.put("failovers", failovers.sum());
+        stats.put("hedgeDelayMillis", delays);
+        return stats;
+    }
+}
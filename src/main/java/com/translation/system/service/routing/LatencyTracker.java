@@ -0,0 +1,51 @@
+package com.translation.system.service.routing;
+
+import java.util.Arrays;
+
+/**
+ * 最近N次延迟样本的滑动窗口，用于计算分位数
+ */
+public class LatencyTracker {
+
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    public LatencyTracker(int windowSize) {
+        this.samples = new long[Math.max(1, windowSize)];
+    }
+
+    /**
+     * 记录一次延迟（毫秒），窗口满后覆盖最早的样本
+     */
+    public synchronized void record(long millis) {
+        samples[next] = millis;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+    }
+
+    /**
+     * 计算窗口内样本的分位数
+     *
+     * @param percentile 分位数，取值 0-1
+     * @return 分位数对应的延迟（毫秒），没有样本时返回-1
+     */
+    public long percentile(double percentile) {
+        long[] sorted;
+        synchronized (this) {
+            if (count == 0) {
+                return -1;
+            }
+            sorted = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.min(sorted.length - 1, Math.max(0, index))];
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+}
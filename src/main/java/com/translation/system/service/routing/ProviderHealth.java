@@ -0,0 +1,207 @@
+package com.translation.system.service.routing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import com.translation.system.config.SpeechConfig;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 单个语音服务提供者的健康状态
+ * 按操作类型分别记录首个结果延迟的EWMA、错误率的EWMA和进行中的请求数，
+ * 错误率过高时熔断该操作，熔断期过后放行一个试探请求，成功则恢复
+ */
+@Slf4j
+public class ProviderHealth {
+
+    /**
+     * 熔断器状态
+     */
+    public enum CircuitState {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String provider;
+    private final SpeechConfig.Routing config;
+    private final LongSupplier clock;
+    private final Map<String, OperationHealth> operations = new ConcurrentHashMap<>();
+    private volatile long lastRequestMillis;
+
+    public ProviderHealth(String provider, SpeechConfig.Routing config) {
+        this(provider, config, System::currentTimeMillis);
+    }
+
+    ProviderHealth(String provider, SpeechConfig.Routing config, LongSupplier clock) {
+        this.provider = provider;
+        this.config = config;
+        this.clock = clock;
+        this.lastRequestMillis = clock.getAsLong();
+    }
+
+    /**
+     * 单个操作的健康状态
+     */
+    private class OperationHealth {
+        private final String operation;
+        private double ewmaLatencyMillis = -1;
+        private double errorRate;
+        private long completed;
+        private int inFlight;
+        private CircuitState state = CircuitState.CLOSED;
+        private long openedAt;
+
+        OperationHealth(String operation) {
+            this.operation = operation;
+        }
+
+        synchronized boolean tryAcquire() {
+            if (state == CircuitState.OPEN) {
+                if (clock.getAsLong() - openedAt < config.getOpenMillis()) {
+                    return false;
+                }
+                // 熔断期已过，放行一个试探请求
+                state = CircuitState.HALF_OPEN;
+                return true;
+            }
+            return state == CircuitState.CLOSED;
+        }
+
+        synchronized void onStart() {
+            inFlight++;
+        }
+
+        synchronized void onFirstResponse(long latencyMillis) {
+            double alpha = config.getEwmaAlpha();
+            ewmaLatencyMillis = ewmaLatencyMillis < 0 ? latencyMillis : alpha * latencyMillis + (1 - alpha) * ewmaLatencyMillis;
+        }
+
+        synchronized void onComplete() {
+            inFlight--;
+            completed++;
+            errorRate = (1 - config.getEwmaAlpha()) * errorRate;
+            if (state == CircuitState.HALF_OPEN) {
+                state = CircuitState.CLOSED;
+                errorRate = 0;
+                log.info("语音服务恢复: 服务={}, 操作={}", provider, operation);
+            }
+        }
+
+        synchronized void onError() {
+            inFlight--;
+            completed++;
+            double alpha = config.getEwmaAlpha();
+            errorRate = alpha + (1 - alpha) * errorRate;
+            if (state == CircuitState.HALF_OPEN
+                    || (state == CircuitState.CLOSED && completed >= config.getMinRequests()
+                            && errorRate >= config.getErrorRateThreshold())) {
+                state = CircuitState.OPEN;
+                openedAt = clock.getAsLong();
+                log.warn("语音服务熔断: 服务={}, 操作={}, 错误率={}", provider, operation, String.format("%.2f", errorRate));
+            }
+        }
+
+        synchronized void onCancel() {
+            inFlight--;
+            // 试探请求被取消时没有结论，回到熔断状态等待下一次试探
+            if (state == CircuitState.HALF_OPEN) {
+                state = CircuitState.OPEN;
+            }
+        }
+
+        synchronized boolean isOpen() {
+            return state == CircuitState.OPEN && clock.getAsLong() - openedAt < config.getOpenMillis()
+                    || state == CircuitState.HALF_OPEN;
+        }
+
+        /**
+         * 预测延迟：EWMA延迟按进行中的请求数放大，再按成功率折算；没有样本时返回0，优先尝试
+         */
+        synchronized double predictedLatency() {
+            if (ewmaLatencyMillis < 0) {
+                return 0;
+            }
+            return ewmaLatencyMillis * (inFlight + 1) / Math.max(0.05, 1 - errorRate);
+        }
+
+        synchronized Map<String, Object> stats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("state", isOpen() ? state.name() : CircuitState.CLOSED.name());
+            stats.put("ewmaLatencyMillis", Math.max(0, Math.round(ewmaLatencyMillis)));
+            stats.put("errorRate", errorRate);
+            stats.put("inFlight", inFlight);
+            stats.put("completed", completed);
+            return stats;
+        }
+    }
+
+    private OperationHealth operation(String operation) {
+        return operations.computeIfAbsent(operation, OperationHealth::new);
+    }
+
+    /**
+     * 路由前调用，熔断中返回false；熔断期已过时转为试探状态并返回true
+     */
+    public boolean tryAcquire(String operation) {
+        return operation(operation).tryAcquire();
+    }
+
+    /**
+     * 请求发出时调用
+     */
+    public void onStart(String operation) {
+        lastRequestMillis = clock.getAsLong();
+        operation(operation).onStart();
+    }
+
+    /**
+     * 收到首个结果时调用，记录延迟
+     */
+    public void onFirstResponse(String operation, long latencyMillis) {
+        operation(operation).onFirstResponse(latencyMillis);
+    }
+
+    public void onComplete(String operation) {
+        operation(operation).onComplete();
+    }
+
+    public void onError(String operation) {
+        operation(operation).onError();
+    }
+
+    public void onCancel(String operation) {
+        operation(operation).onCancel();
+    }
+
+    /**
+     * 该操作是否处于熔断中（包括正在试探）
+     */
+    public boolean isOpen(String operation) {
+        OperationHealth health = operations.get(operation);
+        return health != null && health.isOpen();
+    }
+
+    public double predictedLatency(String operation) {
+        return operation(operation).predictedLatency();
+    }
+
+    /**
+     * 距离最近一次请求的时间（毫秒）
+     */
+    public long getIdleMillis() {
+        return clock.getAsLong() - lastRequestMillis;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new TreeMap<>();
+        operations.forEach((operation, health) -> stats.put(operation, health.stats()));
+        return stats;
+    }
+}
@@ -0,0 +1,27 @@
+package com.translation.system.service.routing;
+
+/**
+ * 服务提供者的并发请求数已达到上限，请求被立即拒绝
+ */
+public class ProviderOverloadedException extends RuntimeException {
+
+    /**
+     * 通过WebSocket返回给客户端的错误码
+     */
+    public static final String ERROR_CODE = "PROVIDER_OVERLOADED";
+
+    private final String provider;
+
+    public ProviderOverloadedException(String provider, int limit) {
+        super("语音服务繁忙，请稍后重试: " + provider + " (并发上限 " + limit + ")");
+        this.provider = provider;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public String getErrorCode() {
+        return ERROR_CODE;
+    }
+}
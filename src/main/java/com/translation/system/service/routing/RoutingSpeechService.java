@@ -0,0 +1,122 @@
+package com.translation.system.service.routing;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.web.socket.WebSocketSession;
+
+import com.translation.system.model.TranslationRequest;
+import com.translation.system.model.TranslationResult;
+import com.translation.system.service.SpeechService;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * 自适应路由语音服务
+ * 每次调用时按操作类型选择预测延迟最低的可用服务提供者，跳过熔断中和隔离舱已满的服务；
+ * 所有服务都熔断或已满时仍选择预测延迟最低的一个，避免请求直接失败
+ */
+@Slf4j
+public class RoutingSpeechService implements SpeechService {
+
+    /**
+     * 路由候选：对外使用的服务、健康状态和隔离舱的并发上限（未启用隔离舱时为空）
+     */
+    public record Route(SpeechService service, ProviderHealth health, AdaptiveConcurrencyLimiter limiter) {
+
+        public Route(SpeechService service, ProviderHealth health) {
+            this(service, health, null);
+        }
+
+        boolean isFull() {
+            return limiter != null && limiter.isFull();
+        }
+    }
+
+    private final List<Route> routes;
+
+    /**
+     * @param routes 候选服务，预测延迟相同时按顺序优先
+     */
+    public RoutingSpeechService(List<Route> routes) {
+        this.routes = List.copyOf(routes);
+    }
+
+    @Override
+    public Flux<String> speechToText(byte[] audioData, String sourceLanguage) {
+        return route("speech-to-text", service -> service.speechToText(audioData, sourceLanguage));
+    }
+
+    @Override
+    public Flux<String> speechToText(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        return route("speech-to-text", service -> service.speechToText(audioData, request, session));
+    }
+
+    @Override
+    public Flux<byte[]> textToSpeech(String text, String targetLanguage) {
+        return route("text-to-speech", service -> service.textToSpeech(text, targetLanguage));
+    }
+
+    @Override
+    public Flux<byte[]> textToSpeech(String text, String targetLanguage, TranslationRequest request) {
+        return route("text-to-speech", service -> service.textToSpeech(text, targetLanguage, request));
+    }
+
+    @Override
+    public Flux<byte[]> textToSpeech(String text, TranslationRequest request, WebSocketSession session) {
+        return route("text-to-speech", service -> service.textToSpeech(text, request, session));
+    }
+
+    @Override
+    public Flux<byte[]> translateSpeechToSpeech(byte[] audioData, String sourceLanguage, String targetLanguage) {
+        return route("speech-to-speech", service -> service.translateSpeechToSpeech(audioData, sourceLanguage, targetLanguage));
+    }
+
+    @Override
+    public Flux<byte[]> translateSpeechToSpeech(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        return route("speech-to-speech", service -> service.translateSpeechToSpeech(audioData, request, session));
+    }
+
+    @Override
+    public Flux<TranslationResult> translateSpeechToTargets(byte[] audioData, TranslationRequest request, WebSocketSession session) {
+        return route("speech-to-targets", service -> service.translateSpeechToTargets(audioData, request, session));
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return routes.stream().anyMatch(route -> route.service().isAvailable());
+    }
+
+    @Override
+    public String getProviderName() {
+        return "auto";
+    }
+
+    private <T> Flux<T> route(String operation, Function<SpeechService, Flux<T>> call) {
+        return Flux.defer(() -> call.apply(select(operation)));
+    }
+
+    /**
+     * 选择服务：按预测延迟排序，取第一个未熔断且隔离舱未满的可用服务
+     */
+    SpeechService select(String operation) {
+        List<Route> candidates = routes.stream()
+                .filter(route -> route.service().isAvailable())
+                .sorted(Comparator.comparingDouble(route -> route.health().predictedLatency(operation)))
+                .toList();
+        if (candidates.isEmpty()) {
+            candidates = routes;
+        }
+        for (Route route : candidates) {
+            // 隔离舱已满的服务会立即拒绝请求，交给下一个服务
+            if (!route.isFull() && route.health().tryAcquire(operation)) {
+                return route.service();
+            }
+        }
+        Route fallback = candidates.get(0);
+        log.warn("所有语音服务均已熔断或达到并发上限，使用预测延迟最低的服务: 操作={}, 服务={}", operation, fallback.health().getProvider());
+        return fallback.service();
+    }
+}
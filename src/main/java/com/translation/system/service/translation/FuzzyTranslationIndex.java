@@ -0,0 +1,389 @@
+package com.translation.system.service.translation;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+import org.springframework.stereotype.Component;
+
+import com.translation.system.config.TranslationConfig;
+import com.translation.system.util.TextNormalizer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 模糊翻译记忆索引
+ * 对规范化后的句段取字符n-gram，计算MinHash签名并按LSH分段建索引，
+ * 查找时只校验与查询句段至少有一段签名相同的候选句段，用n-gram的Jaccard相似度确认
+ * 每个语言对一个分片，分片内部使用数组和链表下标存储，避免为每个句段创建对象
+ */
+@Slf4j
+@Component
+public class FuzzyTranslationIndex {
+
+    private final TranslationConfig.Fuzzy config;
+    private final int[] seeds;
+    private final Map<String, Shard> shards = new ConcurrentHashMap<>();
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * 模糊匹配结果
+     *
+     * @param source 已索引的源句段（规范化后）
+     * @param translation 该句段的译文
+     * @param similarity 与查询句段的相似度
+     */
+    public record Match(String source, String translation, double similarity) {
+    }
+
+    public FuzzyTranslationIndex(TranslationConfig translationConfig) {
+        this.config = translationConfig.getFuzzy();
+        int hashCount = config.getBands() * config.getRows();
+        this.seeds = new int[hashCount];
+        // 固定种子，保证同一句段在不同实例中的签名相同
+        int seed = 0x5bd1e995;
+        for (int i = 0; i < hashCount; i++) {
+            seed = mix(seed + 0x9e3779b9);
+            seeds[i] = seed;
+        }
+    }
+
+    /**
+     * 查找相似度不低于配置阈值的最相近句段
+     *
+     * @return 匹配结果，没有满足阈值的句段时返回null
+     */
+    public Match lookup(String sourceLanguage, String targetLanguage, String text) {
+        return lookup(sourceLanguage, targetLanguage, text, config.getThreshold());
+    }
+
+    /**
+     * 查找相似度不低于指定阈值的最相近句段
+     */
+    public Match lookup(String sourceLanguage, String targetLanguage, String text, double threshold) {
+        lookups.increment();
+        String normalized = TextNormalizer.normalize(text);
+        Shard shard = shards.get(pairKey(sourceLanguage, targetLanguage));
+        if (normalized.isEmpty() || shard == null) {
+            return null;
+        }
+        int[] grams = grams(normalized);
+        Match match = shard.lookup(grams, bandHashes(grams), threshold);
+        if (match != null) {
+            hits.increment();
+        }
+        return match;
+    }
+
+    /**
+     * 索引句段译文，相同的源句段只保留最新的译文
+     */
+    public void add(String sourceLanguage, String targetLanguage, String text, String translation) {
+        String normalized = TextNormalizer.normalize(text);
+        if (normalized.isEmpty() || translation == null || translation.isEmpty()) {
+            return;
+        }
+        int[] grams = grams(normalized);
+        shards.computeIfAbsent(pairKey(sourceLanguage, targetLanguage), pair -> new Shard())
+                .add(normalized, translation, grams, bandHashes(grams));
+    }
+
+    public long size() {
+        return shards.values().stream().mapToLong(Shard::size).sum();
+    }
+
+    public Map<String, Object> getStats() {
+        long lookupCount = lookups.sum();
+        long hitCount = hits.sum();
+        return Map.of(
+                "size", size(),
+                "lookups", lookupCount,
+                "hits", hitCount,
+                "hitRate", lookupCount == 0 ? 0.0 : (double) hitCount / lookupCount);
+    }
+
+    public void clear() {
+        shards.clear();
+        lookups.reset();
+        hits.reset();
+    }
+
+    /**
+     * 计算去重、排序后的字符n-gram哈希，文本短于n时整段作为一个n-gram
+     */
+    int[] grams(String normalized) {
+        int n = config.getNgramSize();
+        int count = Math.max(1, normalized.length() - n + 1);
+        int[] grams = new int[count];
+        for (int i = 0; i < count; i++) {
+            int end = Math.min(normalized.length(), i + n);
+            int h = 0;
+            for (int j = i; j < end; j++) {
+                h = 31 * h + normalized.charAt(j);
+            }
+            grams[i] = mix(h);
+        }
+        Arrays.sort(grams);
+        int distinct = 1;
+        for (int i = 1; i < grams.length; i++) {
+            if (grams[i] != grams[distinct - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return distinct == grams.length ? grams : Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * 计算MinHash签名，并把每段的rows个最小值合并为一个段哈希
+     */
+    private int[] bandHashes(int[] grams) {
+        int bands = config.getBands();
+        int rows = config.getRows();
+        int[] result = new int[bands];
+        for (int b = 0; b < bands; b++) {
+            int bandHash = b;
+            for (int r = 0; r < rows; r++) {
+                int seed = seeds[b * rows + r];
+                int min = Integer.MAX_VALUE;
+                for (int gram : grams) {
+                    int h = mix(gram ^ seed);
+                    if (h < min) {
+                        min = h;
+                    }
+                }
+                bandHash = 31 * bandHash + min;
+            }
+            result[b] = mix(bandHash);
+        }
+        return result;
+    }
+
+    /**
+     * 两个有序n-gram集合的Jaccard相似度
+     */
+    static double jaccard(int[] a, int[] b) {
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) common / (a.length + b.length - common);
+    }
+
+    /**
+     * murmur3 的 fmix32
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static String pairKey(String sourceLanguage, String targetLanguage) {
+        return languageKey(sourceLanguage) + "->" + languageKey(targetLanguage);
+    }
+
+    private static String languageKey(String language) {
+        return language == null || language.isEmpty() ? "auto" : language.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 单个语言对的索引
+     * 每个段一张哈希表：heads[段][桶] 指向链表首个句段，nexts[句段][段] 指向同一桶的下一个句段
+     * 容量按需翻倍，达到上限后按写入顺序覆盖最早的句段
+     */
+    private class Shard {
+
+        private final StampedLock lock = new StampedLock();
+        private final int bands = config.getBands();
+
+        private int capacity;
+        private int size;
+        private int writePosition;
+        private int mask;
+
+        private String[] sources;
+        private String[] translations;
+        private int[] bandHashes;
+        private int[] nexts;
+        private int[] heads;
+
+        Shard() {
+            allocate(Math.min(1024, config.getMaxSegments()));
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        Match lookup(int[] grams, int[] queryHashes, double threshold) {
+            int maxCandidates = config.getMaxCandidates();
+            int[] candidates = new int[maxCandidates];
+            String[] candidateSources = new String[maxCandidates];
+            String[] candidateTranslations = new String[maxCandidates];
+            int candidateCount = 0;
+
+            // 持有读锁时只收集候选句段，相似度在锁外计算
+            long stamp = lock.readLock();
+            try {
+                collect:
+                for (int b = 0; b < bands; b++) {
+                    int hash = queryHashes[b];
+                    for (int id = heads[b * (mask + 1) + (hash & mask)]; id != -1; id = nexts[id * bands + b]) {
+                        if (bandHashes[id * bands + b] != hash || contains(candidates, candidateCount, id)) {
+                            continue;
+                        }
+                        candidates[candidateCount] = id;
+                        candidateSources[candidateCount] = sources[id];
+                        candidateTranslations[candidateCount] = translations[id];
+                        if (++candidateCount == maxCandidates) {
+                            break collect;
+                        }
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+
+            Match best = null;
+            for (int i = 0; i < candidateCount; i++) {
+                double similarity = jaccard(grams, grams(candidateSources[i]));
+                if (similarity >= threshold && (best == null || similarity > best.similarity())) {
+                    best = new Match(candidateSources[i], candidateTranslations[i], similarity);
+                    if (similarity == 1.0) {
+                        break;
+                    }
+                }
+            }
+            return best;
+        }
+
+        void add(String source, String translation, int[] grams, int[] hashes) {
+            long stamp = lock.writeLock();
+            try {
+                // 已有相同句段时只更新译文
+                int existing = find(source, hashes[0]);
+                if (existing != -1) {
+                    translations[existing] = translation;
+                    return;
+                }
+
+                int id;
+                if (size < capacity) {
+                    id = size++;
+                } else if (capacity < config.getMaxSegments()) {
+                    grow();
+                    id = size++;
+                } else {
+                    id = writePosition;
+                    writePosition = (writePosition + 1) % capacity;
+                    unlink(id);
+                }
+
+                sources[id] = source;
+                translations[id] = translation;
+                for (int b = 0; b < bands; b++) {
+                    bandHashes[id * bands + b] = hashes[b];
+                    link(id, b);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private int find(String source, int firstBandHash) {
+            for (int id = heads[firstBandHash & mask]; id != -1; id = nexts[id * bands]) {
+                if (bandHashes[id * bands] == firstBandHash && source.equals(sources[id])) {
+                    return id;
+                }
+            }
+            return -1;
+        }
+
+        private void link(int id, int band) {
+            int head = band * (mask + 1) + (bandHashes[id * bands + band] & mask);
+            nexts[id * bands + band] = heads[head];
+            heads[head] = id;
+        }
+
+        private void unlink(int id) {
+            for (int b = 0; b < bands; b++) {
+                int head = b * (mask + 1) + (bandHashes[id * bands + b] & mask);
+                int previous = -1;
+                for (int current = heads[head]; current != -1; current = nexts[current * bands + b]) {
+                    if (current == id) {
+                        if (previous == -1) {
+                            heads[head] = nexts[id * bands + b];
+                        } else {
+                            nexts[previous * bands + b] = nexts[id * bands + b];
+                        }
+                        break;
+                    }
+                    previous = current;
+                }
+            }
+        }
+
+        private void grow() {
+            String[] oldSources = sources;
+            String[] oldTranslations = translations;
+            int[] oldBandHashes = bandHashes;
+            int count = size;
+
+            allocate((int) Math.min((long) capacity * 2, config.getMaxSegments()));
+            log.debug("模糊匹配索引扩容: 句段数={}, 新容量={}", count, capacity);
+            System.arraycopy(oldSources, 0, sources, 0, count);
+            System.arraycopy(oldTranslations, 0, translations, 0, count);
+            System.arraycopy(oldBandHashes, 0, bandHashes, 0, count * bands);
+            // 桶数变化后重建链表
+            for (int id = 0; id < count; id++) {
+                for (int b = 0; b < bands; b++) {
+                    link(id, b);
+                }
+            }
+        }
+
+        private void allocate(int newCapacity) {
+            capacity = newCapacity;
+            int buckets = Integer.highestOneBit(Math.max(1, newCapacity - 1)) << 1;
+            mask = buckets - 1;
+            sources = new String[newCapacity];
+            translations = new String[newCapacity];
+            bandHashes = new int[newCapacity * bands];
+            nexts = new int[newCapacity * bands];
+            heads = new int[buckets * bands];
+            Arrays.fill(heads, -1);
+        }
+
+        private boolean contains(int[] values, int count, int value) {
+            for (int i = 0; i < count; i++) {
+                if (values[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.translation.system.service.translation;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import com.translation.system.config.TranslationConfig;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 离线兜底翻译
+ * 翻译服务不可用时，使用内存映射的短语表对文本做最长匹配逐段翻译；
+ * 未匹配的片段保留原文，译文质量有限，只用于服务故障期间保证有结果可用
+ */
+@Slf4j
+@Component
+public class OfflinePhraseTranslator {
+
+    private final TranslationConfig.Fallback config;
+    private final Map<String, PhraseTable> tables = new ConcurrentHashMap<>();
+    private final Map<String, PairStats> stats = new ConcurrentHashMap<>();
+
+    public OfflinePhraseTranslator(TranslationConfig translationConfig) {
+        this.config = translationConfig.getFallback();
+    }
+
+    /**
+     * 语言对统计
+     */
+    private static class PairStats {
+        final LongAdder requests = new LongAdder();
+        final LongAdder totalChars = new LongAdder();
+        final LongAdder matchedChars = new LongAdder();
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        DefaultResourceLoader resourceLoader = new DefaultResourceLoader();
+        config.getTables().forEach((pair, location) -> {
+            try {
+                PhraseTable table = load(resourceLoader.getResource(location), pair);
+                tables.put(pair.toLowerCase(Locale.ROOT), table);
+                log.info("离线短语表已加载: 语言对={}, 条目数={}, 位置={}", pair, table.size(), location);
+            } catch (IOException e) {
+                log.warn("离线短语表加载失败: 语言对={}, 位置={}, 错误={}", pair, location, e.getMessage());
+            }
+        });
+    }
+
+    private PhraseTable load(Resource resource, String pair) throws IOException {
+        if (resource.getFilename() != null && resource.getFilename().endsWith(".phr")) {
+            // 文件系统中的已编译短语表直接映射；jar内的类路径资源无法映射，先复制到缓存目录
+            if (resource.isFile()) {
+                return PhraseTable.open(resource.getFile().toPath());
+            }
+            Path copied = cacheDirectory().resolve(pair + ".phr");
+            try (InputStream in = resource.getInputStream()) {
+                Files.copy(in, copied, StandardCopyOption.REPLACE_EXISTING);
+            } catch (FileNotFoundException e) {
+                throw new FileNotFoundException("已编译短语表不存在: " + resource.getDescription());
+            }
+            return PhraseTable.open(copied);
+        }
+        Path compiled = cacheDirectory().resolve(pair + ".phr");
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+            PhraseTable.compile(reader, compiled);
+        }
+        return PhraseTable.open(compiled);
+    }
+
+    /**
+     * 编译或复制后的短语表存放目录
+     */
+    private Path cacheDirectory() throws IOException {
+        Path directory = config.getCacheDirectory() != null && !config.getCacheDirectory().isEmpty()
+                ? Paths.get(config.getCacheDirectory())
+                : Paths.get(System.getProperty("java.io.tmpdir"), "translation-phrases");
+        return Files.createDirectories(directory);
+    }
+
+    /**
+     * 是否有该语言对的短语表
+     */
+    public boolean supports(String sourceLanguage, String targetLanguage) {
+        return tables.containsKey(pairKey(sourceLanguage, targetLanguage));
+    }
+
+    /**
+     * 离线翻译文本
+     *
+     * @return 译文；没有该语言对的短语表时返回原文
+     */
+    public String translate(String text, String sourceLanguage, String targetLanguage) {
+        String pair = pairKey(sourceLanguage, targetLanguage);
+        PhraseTable table = tables.get(pair);
+        if (table == null || text == null || text.isEmpty()) {
+            return text;
+        }
+
+        String normalized = PhraseTable.normalize(text);
+        // 以空格分词的源语言只在词边界处匹配；中日韩源语言按字符匹配
+        boolean wordSource = !isCjk(sourceLanguage);
+        Output output = new Output(!isCjk(targetLanguage));
+        int matchedChars = 0;
+        int totalChars = 0;
+
+        int i = 0;
+        int n = normalized.length();
+        while (i < n) {
+            char c = normalized.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (!Character.isLetterOrDigit(c)) {
+                output.punctuation(c);
+                i++;
+                continue;
+            }
+
+            int match = -1;
+            int matchLength = 0;
+            for (int length = Math.min(table.getMaxKeyLength(), n - i); length > 0; length--) {
+                if (wordSource && i + length < n && Character.isLetterOrDigit(normalized.charAt(i + length))) {
+                    continue;
+                }
+                match = table.find(normalized, i, length);
+                if (match >= 0) {
+                    matchLength = length;
+                    break;
+                }
+            }
+
+            if (match >= 0) {
+                output.word(table.value(match), false);
+                matchedChars += matchLength;
+                totalChars += matchLength;
+                i += matchLength;
+            } else {
+                int end = i + 1;
+                if (wordSource) {
+                    while (end < n && Character.isLetterOrDigit(normalized.charAt(end))) {
+                        end++;
+                    }
+                }
+                output.word(normalized.substring(i, end), true);
+                totalChars += end - i;
+                i = end;
+            }
+        }
+
+        PairStats pairStats = stats.computeIfAbsent(pair, k -> new PairStats());
+        pairStats.requests.increment();
+        pairStats.totalChars.add(totalChars);
+        pairStats.matchedChars.add(matchedChars);
+        return output.toString();
+    }
+
+    /**
+     * 各语言对的短语表条目数、请求数和覆盖率（匹配到短语表的字符比例）
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new TreeMap<>();
+        tables.forEach((pair, table) -> {
+            PairStats pairStats = stats.get(pair);
+            long total = pairStats != null ? pairStats.totalChars.sum() : 0;
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("entries", table.size());
+            entry.put("requests", pairStats != null ? pairStats.requests.sum() : 0L);
+            entry.put("coverage", total > 0 ? (double) pairStats.matchedChars.sum() / total : 0.0);
+            result.put(pair, entry);
+        });
+        return result;
+    }
+
+    static String pairKey(String sourceLanguage, String targetLanguage) {
+        return primary(sourceLanguage) + "-" + primary(targetLanguage);
+    }
+
+    private static String primary(String language) {
+        if (language == null) {
+            return "";
+        }
+        int dash = language.indexOf('-');
+        return (dash > 0 ? language.substring(0, dash) : language).toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isCjk(String language) {
+        String primary = primary(language);
+        return "zh".equals(primary) || "ja".equals(primary) || "ko".equals(primary);
+    }
+
+    /**
+     * 拼接译文：以空格分词的目标语言在词之间加空格并在句首大写，中日韩目标语言直接拼接并使用全角标点
+     */
+    private static class Output {
+        private final StringBuilder builder = new StringBuilder();
+        private final boolean spaced;
+        private boolean sentenceStart = true;
+        private boolean lastUnmatched;
+
+        Output(boolean spaced) {
+            this.spaced = spaced;
+        }
+
+        void word(String word, boolean unmatched) {
+            // 连续未匹配的中日韩字符保持在一起
+            boolean joinUnmatched = unmatched && lastUnmatched && isIdeographic(word.charAt(0));
+            if (spaced && builder.length() > 0 && !joinUnmatched && !isOpening(builder.charAt(builder.length() - 1))) {
+                builder.append(' ');
+            } else if (!spaced && unmatched && lastUnmatched && !isIdeographic(word.charAt(0))) {
+                // 中日韩译文中保留的外文单词之间仍以空格分隔
+                builder.append(' ');
+            }
+            if (spaced && sentenceStart && !word.isEmpty()) {
+                builder.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            } else {
+                builder.append(word);
+            }
+            sentenceStart = false;
+            lastUnmatched = unmatched;
+        }
+
+        void punctuation(char c) {
+            char mapped = spaced ? toHalfWidth(c) : toFullWidth(c);
+            if (spaced && isOpening(mapped) && builder.length() > 0) {
+                builder.append(' ');
+            }
+            builder.append(mapped);
+            sentenceStart = mapped == '.' || mapped == '?' || mapped == '!' || mapped == '。' || mapped == '？' || mapped == '！';
+            lastUnmatched = false;
+        }
+
+        private static boolean isOpening(char c) {
+            return c == '(';
+        }
+
+        private static boolean isIdeographic(char c) {
+            return Character.isIdeographic(c) || Character.UnicodeBlock.of(c) == Character.UnicodeBlock.HIRAGANA
+                    || Character.UnicodeBlock.of(c) == Character.UnicodeBlock.KATAKANA
+                    || Character.UnicodeBlock.of(c) == Character.UnicodeBlock.HANGUL_SYLLABLES;
+        }
+
+        private static char toHalfWidth(char c) {
+            switch (c) {
+                case '。': return '.';
+                case '、': return ',';
+                case '「': case '」': case '“': case '”': return '"';
+                default: return c;
+            }
+        }
+
+        private static char toFullWidth(char c) {
+            switch (c) {
+                case ',': return '，';
+                case '.': return '。';
+                case '?': return '？';
+                case '!': return '！';
+                case ':': return '：';
+                case ';': return '；';
+                default: return c;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+    }
+}
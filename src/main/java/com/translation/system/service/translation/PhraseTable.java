@@ -0,0 +1,213 @@
+package com.translation.system.service.translation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 内存映射的短语表
+ * 文件格式（小端）：
+ * <pre>
+ * int magic, int count, int maxKeyLength
+ * int[count + 1] 键起始位置（字符）
+ * int[count + 1] 值起始位置（字符）
+ * char[] 按字典序排列的全部键
+ * char[] 全部值
+ * </pre>
+ * 键已排序，查找时在首字符对应的区间内二分；数据留在页缓存里，不占用堆内存，多个线程可同时读取
+ */
+public final class PhraseTable {
+
+    private static final int MAGIC = 0x50485231; // "PHR1"
+    private static final int HEADER_BYTES = 12;
+
+    private final int count;
+    private final int maxKeyLength;
+    private final IntBuffer keyOffsets;
+    private final IntBuffer valueOffsets;
+    private final CharBuffer keys;
+    private final CharBuffer values;
+    // 首字符 -> 键区间[from, to)
+    private final Map<Character, int[]> firstCharRanges = new HashMap<>();
+
+    private PhraseTable(ByteBuffer buffer) throws IOException {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("不是有效的短语表文件");
+        }
+        count = buffer.getInt(4);
+        maxKeyLength = buffer.getInt(8);
+
+        int offsetsBytes = (count + 1) * Integer.BYTES;
+        keyOffsets = slice(buffer, HEADER_BYTES, offsetsBytes).asIntBuffer();
+        valueOffsets = slice(buffer, HEADER_BYTES + offsetsBytes, offsetsBytes).asIntBuffer();
+        int keysStart = HEADER_BYTES + 2 * offsetsBytes;
+        int keyChars = keyOffsets.get(count);
+        keys = slice(buffer, keysStart, keyChars * Character.BYTES).asCharBuffer();
+        values = slice(buffer, keysStart + keyChars * Character.BYTES, valueOffsets.get(count) * Character.BYTES).asCharBuffer();
+
+        int from = 0;
+        for (int i = 1; i <= count; i++) {
+            char first = keys.get(keyOffsets.get(from));
+            if (i == count || keys.get(keyOffsets.get(i)) != first) {
+                firstCharRanges.put(first, new int[] {from, i});
+                from = i;
+            }
+        }
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+        return buffer.slice(offset, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * 以只读内存映射方式打开已编译的短语表文件
+     */
+    public static PhraseTable open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // 映射在通道关闭后仍然有效
+            return new PhraseTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * 将制表符分隔的短语表（每行“原文\t译文”，#开头为注释）编译为二进制文件
+     * 键会做与查找时相同的规范化，重复的键保留最后一条
+     *
+     * @return 编译后的条目数
+     */
+    public static int compile(Reader tsv, Path output) throws IOException {
+        TreeMap<String, String> entries = new TreeMap<>();
+        try (BufferedReader reader = new BufferedReader(tsv)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                int tab = line.indexOf('\t');
+                if (tab <= 0) {
+                    continue;
+                }
+                String key = normalize(line.substring(0, tab).trim());
+                String value = line.substring(tab + 1).trim();
+                if (!key.isEmpty() && !value.isEmpty()) {
+                    entries.put(key, value);
+                }
+            }
+        }
+
+        int count = entries.size();
+        int keyChars = 0;
+        int valueChars = 0;
+        int maxKeyLength = 0;
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            keyChars += entry.getKey().length();
+            valueChars += entry.getValue().length();
+            maxKeyLength = Math.max(maxKeyLength, entry.getKey().length());
+        }
+
+        ByteBuffer buffer = ByteBuffer
+                .allocate(HEADER_BYTES + 2 * (count + 1) * Integer.BYTES + (keyChars + valueChars) * Character.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(count).putInt(maxKeyLength);
+        int offset = 0;
+        for (String key : entries.keySet()) {
+            buffer.putInt(offset);
+            offset += key.length();
+        }
+        buffer.putInt(offset);
+        offset = 0;
+        for (String value : entries.values()) {
+            buffer.putInt(offset);
+            offset += value.length();
+        }
+        buffer.putInt(offset);
+        entries.keySet().forEach(key -> key.chars().forEach(c -> buffer.putChar((char) c)));
+        entries.values().forEach(value -> value.chars().forEach(c -> buffer.putChar((char) c)));
+
+        Path temp = Files.createTempFile(output.toAbsolutePath().getParent(), output.getFileName().toString(), ".tmp");
+        Files.write(temp, buffer.array());
+        Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+
+    /**
+     * 查找和编译时共用的规范化：NFKC并转为小写
+     */
+    public static String normalize(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 查找 text[start, start + length) 完全相同的键
+     *
+     * @param text 已规范化的文本
+     * @return 键的序号，未找到时返回-1
+     */
+    public int find(CharSequence text, int start, int length) {
+        int[] range = firstCharRanges.get(text.charAt(start));
+        if (range == null) {
+            return -1;
+        }
+        int low = range[0];
+        int high = range[1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareKey(mid, text, start, length);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int compareKey(int index, CharSequence text, int start, int length) {
+        int keyStart = keyOffsets.get(index);
+        int keyLength = keyOffsets.get(index + 1) - keyStart;
+        int n = Math.min(keyLength, length);
+        for (int i = 0; i < n; i++) {
+            int diff = keys.get(keyStart + i) - text.charAt(start + i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return keyLength - length;
+    }
+
+    public String key(int index) {
+        int start = keyOffsets.get(index);
+        return keys.subSequence(start, keyOffsets.get(index + 1)).toString();
+    }
+
+    public String value(int index) {
+        int start = valueOffsets.get(index);
+        return values.subSequence(start, valueOffsets.get(index + 1)).toString();
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getMaxKeyLength() {
+        return maxKeyLength;
+    }
+}
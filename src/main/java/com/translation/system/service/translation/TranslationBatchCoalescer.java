@@ -0,0 +1,204 @@
+package com.translation.system.service.translation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.translation.system.config.TranslationConfig;
+import com.translation.system.service.TextTranslator;
+import com.translation.system.service.impl.MicrosoftTextTranslator;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * 翻译请求批量合并
+ * 按语言对收集各会话的待翻译句段，等待一个短时间窗口或凑满一批后合并为一次服务调用，
+ * 再把结果分发给各自的请求。
+ * 每批的填充率记录到 translation.batch.fill，每个句段因合并增加的排队时间记录到 translation.batch.queue.delay
+ */
+@Slf4j
+@Component
+public class TranslationBatchCoalescer implements TextTranslator {
+
+    public static final String FILL_METRIC = "translation.batch.fill";
+    public static final String QUEUE_DELAY_METRIC = "translation.batch.queue.delay";
+
+    private final MicrosoftTextTranslator provider;
+    private final TranslationConfig.Batching config;
+    private final Scheduler scheduler;
+    private final Map<String, PairQueue> queues = new ConcurrentHashMap<>();
+
+    private final LongAdder items = new LongAdder();
+    private final DistributionSummary fill;
+    private final Timer queueDelay;
+
+    @Autowired
+    public TranslationBatchCoalescer(MicrosoftTextTranslator provider, TranslationConfig translationConfig,
+            MeterRegistry meterRegistry) {
+        this(provider, translationConfig, meterRegistry, Schedulers.parallel());
+    }
+
+    TranslationBatchCoalescer(MicrosoftTextTranslator provider, TranslationConfig translationConfig,
+            MeterRegistry meterRegistry, Scheduler scheduler) {
+        this.provider = provider;
+        this.config = translationConfig.getBatching();
+        this.scheduler = scheduler;
+        this.fill = DistributionSummary.builder(FILL_METRIC)
+                .description("Batch size relative to the maximum batch size")
+                .serviceLevelObjectives(0.1, 0.25, 0.5, 0.75, 0.9, 1.0)
+                .register(meterRegistry);
+        this.queueDelay = Timer.builder(QUEUE_DELAY_METRIC)
+                .description("Time a segment waited for its batch to be sent")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(1))
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<List<String>> translate(List<String> texts, String sourceLanguage, String targetLanguage) {
+        // 已经是一整批的请求不需要再等待
+        if (!config.isEnabled() || texts.size() >= config.getMaxBatchSize()) {
+            return provider.translate(texts, sourceLanguage, targetLanguage);
+        }
+        PairQueue queue = queues.computeIfAbsent(pairKey(sourceLanguage, targetLanguage),
+                pair -> new PairQueue(sourceLanguage, targetLanguage));
+        return Flux.fromIterable(texts)
+                .flatMapSequential(text -> Mono.<String>create(sink -> {
+                    Pending item = new Pending(text, sink);
+                    // 调用方取消（如会话关闭）时从队列中移除，不再发送给服务
+                    sink.onCancel(() -> queue.remove(item));
+                    queue.enqueue(item);
+                }))
+                .collectList();
+    }
+
+    /**
+     * 批量合并统计：批次数、句段数、平均填充率和平均排队时间，分位数见对应的指标
+     */
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "batches", fill.count(),
+                "items", items.sum(),
+                "fillRatio", fill.mean(),
+                "averageQueueDelayMillis", queueDelay.mean(TimeUnit.MILLISECONDS));
+    }
+
+    private static String pairKey(String sourceLanguage, String targetLanguage) {
+        return String.valueOf(sourceLanguage).toLowerCase(Locale.ROOT)
+                + "->" + String.valueOf(targetLanguage).toLowerCase(Locale.ROOT);
+    }
+
+    private record Pending(String text, MonoSink<String> sink, long enqueuedAt) {
+        Pending(String text, MonoSink<String> sink) {
+            this(text, sink, System.nanoTime());
+        }
+    }
+
+    /**
+     * 单个语言对的待发送队列
+     */
+    private class PairQueue {
+
+        private final String sourceLanguage;
+        private final String targetLanguage;
+        private List<Pending> pending = new ArrayList<>();
+        private Disposable timer;
+
+        PairQueue(String sourceLanguage, String targetLanguage) {
+            this.sourceLanguage = sourceLanguage;
+            this.targetLanguage = targetLanguage;
+        }
+
+        void enqueue(Pending item) {
+            List<Pending> batch = null;
+            synchronized (this) {
+                pending.add(item);
+                if (pending.size() >= config.getMaxBatchSize()) {
+                    batch = drain();
+                } else if (timer == null) {
+                    timer = scheduler.schedule(this::flush, config.getWindowMillis(), TimeUnit.MILLISECONDS);
+                }
+            }
+            if (batch != null) {
+                send(batch);
+            }
+        }
+
+        /**
+         * 移除尚未发送的请求，已经发出的批次不受影响
+         */
+        void remove(Pending item) {
+            synchronized (this) {
+                if (pending.removeIf(candidate -> candidate == item) && pending.isEmpty() && timer != null) {
+                    timer.dispose();
+                    timer = null;
+                }
+            }
+        }
+
+        void flush() {
+            List<Pending> batch;
+            synchronized (this) {
+                timer = null;
+                batch = drain();
+            }
+            if (!batch.isEmpty()) {
+                send(batch);
+            }
+        }
+
+        private List<Pending> drain() {
+            if (timer != null) {
+                timer.dispose();
+                timer = null;
+            }
+            List<Pending> batch = pending;
+            pending = new ArrayList<>();
+            return batch;
+        }
+
+        private void send(List<Pending> batch) {
+            long now = System.nanoTime();
+            items.add(batch.size());
+            fill.record((double) batch.size() / config.getMaxBatchSize());
+            // 不同会话的相同句段只发送一次
+            Map<String, List<Pending>> byText = new LinkedHashMap<>();
+            for (Pending item : batch) {
+                queueDelay.record(now - item.enqueuedAt(), TimeUnit.NANOSECONDS);
+                byText.computeIfAbsent(item.text(), text -> new ArrayList<>()).add(item);
+            }
+            List<String> texts = new ArrayList<>(byText.keySet());
+            log.debug("合并发送翻译请求: 语言对={}->{}, 请求数={}, 句段数={}",
+                    sourceLanguage, targetLanguage, batch.size(), texts.size());
+
+            provider.translate(texts, sourceLanguage, targetLanguage).subscribe(
+                    translations -> {
+                        for (int i = 0; i < texts.size(); i++) {
+                            for (Pending item : byText.get(texts.get(i))) {
+                                item.sink().success(translations.get(i));
+                            }
+                        }
+                    },
+                    error -> batch.forEach(item -> item.sink().error(error)));
+        }
+    }
+}
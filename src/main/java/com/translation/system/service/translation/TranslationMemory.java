@@ -0,0 +1,118 @@
+package com.translation.system.service.translation;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.translation.system.config.TranslationConfig;
+import com.translation.system.util.TextNormalizer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 翻译记忆
+ * 所有会话共享的句段缓存，以 (源语言, 目标语言, 规范化文本) 为键，
+ * 大小写、空白、全角半角和句末标点不同的句段视为同一句段
+ */
+@Slf4j
+@Component
+public class TranslationMemory {
+
+    private final Cache<Key, String> cache;
+    private final Map<String, PairStats> stats = new ConcurrentHashMap<>();
+
+    public TranslationMemory(TranslationConfig translationConfig) {
+        TranslationConfig.Memory config = translationConfig.getMemory();
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(config.getMaxEntries());
+        if (config.getExpireAfterAccessMinutes() > 0) {
+            builder.expireAfterAccess(Duration.ofMinutes(config.getExpireAfterAccessMinutes()));
+        }
+        this.cache = builder.build();
+        log.info("翻译记忆已初始化: 最大句段数={}, 过期时间={}分钟",
+                config.getMaxEntries(), config.getExpireAfterAccessMinutes());
+    }
+
+    /**
+     * 查找句段的已有译文
+     *
+     * @return 译文，未命中返回null
+     */
+    public String get(String sourceLanguage, String targetLanguage, String text) {
+        String translation = cache.getIfPresent(key(sourceLanguage, targetLanguage, text));
+        PairStats pairStats = statsFor(sourceLanguage, targetLanguage);
+        if (translation != null) {
+            pairStats.hits.increment();
+        } else {
+            pairStats.misses.increment();
+        }
+        return translation;
+    }
+
+    /**
+     * 保存句段译文
+     */
+    public void put(String sourceLanguage, String targetLanguage, String text, String translation) {
+        if (text == null || text.isEmpty() || translation == null || translation.isEmpty()) {
+            return;
+        }
+        cache.put(key(sourceLanguage, targetLanguage, text), translation);
+        statsFor(sourceLanguage, targetLanguage).stores.increment();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * 按语言对统计命中情况，键为 "源语言->目标语言"
+     */
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        stats.forEach((pair, pairStats) -> {
+            long hits = pairStats.hits.sum();
+            long misses = pairStats.misses.sum();
+            long total = hits + misses;
+            result.put(pair, Map.of(
+                    "hits", hits,
+                    "misses", misses,
+                    "stores", pairStats.stores.sum(),
+                    "hitRate", total == 0 ? 0.0 : (double) hits / total));
+        });
+        return result;
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+        stats.clear();
+    }
+
+    private static Key key(String sourceLanguage, String targetLanguage, String text) {
+        return new Key(languageKey(sourceLanguage), languageKey(targetLanguage), TextNormalizer.normalize(text));
+    }
+
+    private PairStats statsFor(String sourceLanguage, String targetLanguage) {
+        return stats.computeIfAbsent(languageKey(sourceLanguage) + "->" + languageKey(targetLanguage),
+                pair -> new PairStats());
+    }
+
+    private static String languageKey(String language) {
+        return language == null || language.isEmpty() ? "auto" : language.toLowerCase(Locale.ROOT);
+    }
+
+    private record Key(String sourceLanguage, String targetLanguage, String text) {
+    }
+
+    private static class PairStats {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder stores = new LongAdder();
+    }
+}
@@ -0,0 +1,149 @@
+package com.translation.system.service.translation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import com.translation.system.config.TranslationConfig;
+import com.translation.system.service.TextTranslator;
+import com.translation.system.util.TextNormalizer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * 文本翻译流水线
+ * 依次经过翻译记忆、模糊匹配（可选）、批量合并和翻译服务提供者，注入 TextTranslator 的地方默认使用该实现；
+ * 服务提供者失败时使用离线短语表兜底，并在冷却期内直接走离线翻译
+ */
+@Slf4j
+@Service
+@Primary
+@RequiredArgsConstructor
+public class TranslationPipeline implements TextTranslator {
+
+    private final TranslationBatchCoalescer batchCoalescer;
+    private final TranslationMemory translationMemory;
+    private final FuzzyTranslationIndex fuzzyIndex;
+    private final OfflinePhraseTranslator offlineTranslator;
+    private final TranslationConfig translationConfig;
+    
+    // 语言对 -> 翻译服务冷却截止时间
+    private final Map<String, Long> providerCooldownUntil = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<List<String>> translate(List<String> texts, String sourceLanguage, String targetLanguage) {
+        if (texts.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        boolean memoryEnabled = translationConfig.getMemory().isEnabled();
+        boolean fuzzyEnabled = translationConfig.getFuzzy().isEnabled();
+        if (!memoryEnabled && !fuzzyEnabled) {
+            return translateWithFallback(texts, sourceLanguage, targetLanguage, translations -> { });
+        }
+
+        return Mono.defer(() -> {
+            String[] results = new String[texts.size()];
+            // 未命中的句段按规范化文本去重，同一批次里重复的句子只翻译一次
+            Map<String, List<Integer>> misses = new LinkedHashMap<>();
+            List<String> missTexts = new ArrayList<>();
+            for (int i = 0; i < texts.size(); i++) {
+                String text = texts.get(i);
+                if (text == null || text.isEmpty()) {
+                    results[i] = "";
+                    continue;
+                }
+                String cached = memoryEnabled ? translationMemory.get(sourceLanguage, targetLanguage, text) : null;
+                if (cached != null) {
+                    results[i] = cached;
+                    continue;
+                }
+                if (fuzzyEnabled) {
+                    FuzzyTranslationIndex.Match match = fuzzyIndex.lookup(sourceLanguage, targetLanguage, text);
+                    if (match != null) {
+                        log.debug("模糊匹配命中: 相似度={}, 原句段=\"{}\", 已有句段=\"{}\"",
+                                match.similarity(), text, match.source());
+                        results[i] = match.translation();
+                        continue;
+                    }
+                }
+                List<Integer> positions = misses.computeIfAbsent(TextNormalizer.normalize(text), k -> {
+                    missTexts.add(text);
+                    return new ArrayList<>();
+                });
+                positions.add(i);
+            }
+
+            if (missTexts.isEmpty()) {
+                log.debug("翻译记忆全部命中: 句段数={}, 语言对={}->{}", texts.size(), sourceLanguage, targetLanguage);
+                return Mono.just(Arrays.asList(results));
+            }
+
+            // 兜底译文质量有限，只有服务提供者的译文才写入翻译记忆
+            return translateWithFallback(missTexts, sourceLanguage, targetLanguage, translations -> {
+                        for (int index = 0; index < missTexts.size(); index++) {
+                            if (memoryEnabled) {
+                                translationMemory.put(sourceLanguage, targetLanguage, missTexts.get(index), translations.get(index));
+                            }
+                            if (fuzzyEnabled) {
+                                fuzzyIndex.add(sourceLanguage, targetLanguage, missTexts.get(index), translations.get(index));
+                            }
+                        }
+                    })
+                    .map(translations -> {
+                        int index = 0;
+                        for (List<Integer> positions : misses.values()) {
+                            for (Integer position : positions) {
+                                results[position] = translations.get(index);
+                            }
+                            index++;
+                        }
+                        return Arrays.asList(results);
+                    });
+        });
+    }
+
+    /**
+     * 调用翻译服务提供者，失败时改用离线短语表
+     * 某个语言对失败后进入冷却期，期间的请求不再等待服务超时而是直接离线翻译，冷却期过后重新尝试服务
+     *
+     * @param onProviderResult 只在得到服务提供者的译文时调用
+     */
+    private Mono<List<String>> translateWithFallback(List<String> texts, String sourceLanguage, String targetLanguage,
+            Consumer<List<String>> onProviderResult) {
+        TranslationConfig.Fallback fallback = translationConfig.getFallback();
+        if (!fallback.isEnabled()) {
+            return batchCoalescer.translate(texts, sourceLanguage, targetLanguage).doOnNext(onProviderResult);
+        }
+        String pair = sourceLanguage + "->" + targetLanguage;
+        Long cooldownUntil = providerCooldownUntil.get(pair);
+        if (cooldownUntil != null && System.currentTimeMillis() < cooldownUntil) {
+            return Mono.fromSupplier(() -> translateOffline(texts, sourceLanguage, targetLanguage));
+        }
+        return batchCoalescer.translate(texts, sourceLanguage, targetLanguage)
+                .doOnNext(translations -> {
+                    providerCooldownUntil.remove(pair);
+                    onProviderResult.accept(translations);
+                })
+                .onErrorResume(e -> {
+                    log.warn("翻译服务失败，{}毫秒内使用离线短语表: 语言对={}, 错误={}",
+                            fallback.getCooldownMillis(), pair, e.getMessage());
+                    providerCooldownUntil.put(pair, System.currentTimeMillis() + fallback.getCooldownMillis());
+                    return Mono.fromSupplier(() -> translateOffline(texts, sourceLanguage, targetLanguage));
+                });
+    }
+
+    private List<String> translateOffline(List<String> texts, String sourceLanguage, String targetLanguage) {
+        return texts.stream()
+                .map(text -> text == null ? "" : offlineTranslator.translate(text, sourceLanguage, targetLanguage))
+                .toList();
+    }
+}
@@ -0,0 +1,148 @@
+package com.translation.system.util;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.reactivestreams.Publisher;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * 非阻塞的并发请求限制器
+ * 超过上限的请求在队列中等待许可，不占用调用线程；许可在流终止、出错或被取消时释放
+ */
+public class InFlightLimiter {
+
+    private final int maxInFlight;
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private int inFlight;
+
+    public InFlightLimiter(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * 在获得许可后订阅work提供的流，流结束（包括取消）时归还许可
+     */
+    public <T> Flux<T> execute(Supplier<? extends Publisher<T>> work) {
+        return Flux.usingWhen(acquire(),
+                permit -> work.get(),
+                permit -> Mono.fromRunnable(permit::release));
+    }
+
+    /**
+     * 同{@link #execute(Supplier)}，但排队等待许可的时间不超过maxWait，超时以TimeoutException结束
+     */
+    public <T> Flux<T> execute(Supplier<? extends Publisher<T>> work, Duration maxWait) {
+        return Flux.usingWhen(acquire().timeout(maxWait),
+                permit -> work.get(),
+                permit -> Mono.fromRunnable(permit::release));
+    }
+
+    /**
+     * 获取一个许可，取消订阅时自动移出等待队列
+     */
+    public Mono<Permit> acquire() {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink);
+            boolean granted;
+            synchronized (this) {
+                granted = inFlight < maxInFlight;
+                if (granted) {
+                    inFlight++;
+                } else {
+                    waiters.addLast(waiter);
+                }
+            }
+            sink.onCancel(waiter::cancel);
+            if (granted) {
+                waiter.grant();
+            }
+        });
+    }
+
+    /**
+     * 当前正在执行的请求数
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * 当前排队等待许可的请求数
+     */
+    public synchronized int getPending() {
+        return waiters.size();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    private void release() {
+        Waiter next;
+        synchronized (this) {
+            next = waiters.pollFirst();
+            if (next == null) {
+                inFlight--;
+                return;
+            }
+        }
+        // 许可直接转交给下一个等待者，inFlight保持不变
+        next.grant();
+    }
+
+    /**
+     * 并发许可，重复释放是安全的
+     */
+    public final class Permit {
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                InFlightLimiter.this.release();
+            }
+        }
+    }
+
+    private final class Waiter {
+        private final MonoSink<Permit> sink;
+        private final Permit permit = new Permit();
+        private final AtomicBoolean done = new AtomicBoolean(false);
+
+        Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+
+        void grant() {
+            if (done.compareAndSet(false, true)) {
+                sink.success(permit);
+            } else {
+                // 等待者已取消，许可继续向后传递
+                permit.release();
+            }
+        }
+
+        void cancel() {
+            if (done.compareAndSet(false, true)) {
+                synchronized (InFlightLimiter.this) {
+                    if (waiters.remove(this)) {
+                        return;
+                    }
+                }
+                // 已出队但尚未发放，由grant负责传递许可
+            } else {
+                // 许可已发放给一个被取消的订阅者
+                permit.release();
+            }
+        }
+    }
+}
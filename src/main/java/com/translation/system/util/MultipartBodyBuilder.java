@@ -0,0 +1,122 @@
+package com.translation.system.util;
+
+import java.io.FileNotFoundException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import reactor.adapter.JdkFlowAdapter;
+import reactor.core.publisher.Flux;
+
+/**
+ * multipart/form-data请求体构建器
+ * 各部分以{@link BodyPublishers#concat}拼接，发送时按顺序流式写出：
+ * 文本头部为小段字符串，文件内容直接引用调用方的字节数组或通过文件通道读取，
+ * 不会在内存中再拼出一份完整请求体
+ */
+public class MultipartBodyBuilder {
+
+    private static final String CRLF = "\r\n";
+    // 内存文件内容每次写出的分片大小
+    private static final int SLICE_SIZE = 16 * 1024;
+
+    private final String boundary;
+    private final List<BodyPublisher> publishers = new ArrayList<>();
+    // 尚未写出的文本部分，遇到文件内容或构建时合并为一个发布者
+    private final StringBuilder pendingText = new StringBuilder();
+
+    public MultipartBodyBuilder() {
+        this("----TranslationSystemBoundary" + UUID.randomUUID().toString().replace("-", ""));
+    }
+
+    public MultipartBodyBuilder(String boundary) {
+        this.boundary = boundary;
+    }
+
+    /**
+     * 添加普通表单字段
+     */
+    public MultipartBodyBuilder addField(String name, String value) {
+        pendingText.append("--").append(boundary).append(CRLF)
+                .append("Content-Disposition: form-data; name=\"").append(name).append('"').append(CRLF)
+                .append(CRLF)
+                .append(value).append(CRLF);
+        return this;
+    }
+
+    /**
+     * 添加内存中的文件内容，字节数组不会被复制
+     */
+    public MultipartBodyBuilder addFile(String name, String filename, String contentType, byte[] content) {
+        appendFileHeader(name, filename, contentType);
+        publishers.add(BodyPublishers.fromPublisher(
+                JdkFlowAdapter.publisherToFlowPublisher(slices(content)), content.length));
+        pendingText.append(CRLF);
+        return this;
+    }
+
+    /**
+     * 添加磁盘上的文件，发送时通过文件通道分块读取，适用于较大的上传
+     */
+    public MultipartBodyBuilder addFile(String name, String filename, String contentType, Path file)
+            throws FileNotFoundException {
+        appendFileHeader(name, filename, contentType);
+        publishers.add(BodyPublishers.ofFile(file));
+        pendingText.append(CRLF);
+        return this;
+    }
+
+    /**
+     * 请求的Content-Type头，包含分隔符
+     */
+    public String getContentType() {
+        return "multipart/form-data; boundary=" + boundary;
+    }
+
+    public String getBoundary() {
+        return boundary;
+    }
+
+    /**
+     * 构建请求体，所有部分长度已知时Content-Length可直接确定
+     */
+    public HttpRequest.BodyPublisher build() {
+        List<BodyPublisher> parts = new ArrayList<>(publishers);
+        parts.add(BodyPublishers.ofString(pendingText + "--" + boundary + "--" + CRLF, StandardCharsets.UTF_8));
+        return BodyPublishers.concat(parts.toArray(new BodyPublisher[0]));
+    }
+
+    private void appendFileHeader(String name, String filename, String contentType) {
+        pendingText.append("--").append(boundary).append(CRLF)
+                .append("Content-Disposition: form-data; name=\"").append(name)
+                .append("\"; filename=\"").append(filename).append('"').append(CRLF)
+                .append("Content-Type: ").append(contentType).append(CRLF)
+                .append(CRLF);
+        flushPendingText();
+    }
+
+    /**
+     * 按需把字节数组切成分片，每个分片直接包装原数组
+     * （{@link BodyPublishers#ofByteArray}在订阅时会先复制一份整个数组）
+     */
+    private static Flux<ByteBuffer> slices(byte[] content) {
+        int count = (content.length + SLICE_SIZE - 1) / SLICE_SIZE;
+        return Flux.range(0, count).map(index -> {
+            int offset = index * SLICE_SIZE;
+            return ByteBuffer.wrap(content, offset, Math.min(SLICE_SIZE, content.length - offset));
+        });
+    }
+
+    private void flushPendingText() {
+        if (pendingText.length() > 0) {
+            publishers.add(BodyPublishers.ofString(pendingText.toString(), StandardCharsets.UTF_8));
+            pendingText.setLength(0);
+        }
+    }
+}
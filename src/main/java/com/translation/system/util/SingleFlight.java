@@ -0,0 +1,79 @@
+package com.translation.system.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * 相同请求合并执行
+ * 同一个键在执行期间的所有订阅者共享一次上游调用和它的单个结果，只缓存这一个结果；
+ * 上游在空的Reactor上下文中执行，不会带上第一个订阅者的上下文（计时、额度回调等按调用方处理的状态）。
+ * 只有所有订阅者都取消时才取消上游调用，上游结束后键被移除，之后的请求重新执行
+ *
+ * @param <K> 请求键，需要正确实现 equals 和 hashCode
+ * @param <T> 结果类型
+ */
+public class SingleFlight<K, T> {
+
+    private final Map<K, Mono<T>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    /**
+     * 执行请求，相同键的请求正在执行时直接订阅已有的结果
+     *
+     * @param key 请求键
+     * @param supplier 上游调用，只在没有相同请求执行时于订阅时调用
+     * @return 共享的结果
+     */
+    public Mono<T> execute(K key, Supplier<? extends Mono<T>> supplier) {
+        return Mono.defer(() -> {
+            Mono<T> existing = inFlight.get(key);
+            if (existing != null) {
+                shared.increment();
+                return existing;
+            }
+            @SuppressWarnings("unchecked")
+            Mono<T>[] holder = new Mono[1];
+            Mono<T> mono = inFlight.computeIfAbsent(key, k -> {
+                holder[0] = Mono.from(Mono.<T>defer(supplier)
+                        .doOnSubscribe(s -> executions.increment())
+                        .doFinally(signal -> inFlight.remove(k, holder[0]))
+                        .contextWrite(context -> Context.empty())
+                        .flux()
+                        .replay(1)
+                        .refCount());
+                return holder[0];
+            });
+            if (mono != holder[0]) {
+                shared.increment();
+            }
+            return mono;
+        });
+    }
+
+    /**
+     * 正在执行的请求数
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * 实际执行的上游调用次数
+     */
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    /**
+     * 复用已有调用的请求次数
+     */
+    public long getShared() {
+        return shared.sum();
+    }
+}
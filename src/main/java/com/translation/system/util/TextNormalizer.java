@@ -0,0 +1,60 @@
+package com.translation.system.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * 文本规范化工具，用于翻译记忆等按内容匹配句段的场景
+ */
+public final class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * 规范化文本：
+     * 全角转半角（NFKC），统一小写，合并连续空白，去掉首尾空白和句末标点
+     * 例如 "Ｈｅｌｌｏ,  World！" 和 "hello, world" 规范化后相同
+     *
+     * @param text 原始文本
+     * @return 规范化后的文本，null返回空串
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+
+        StringBuilder sb = new StringBuilder(folded.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                pendingSpace = sb.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                sb.append(' ');
+                pendingSpace = false;
+            }
+            sb.append(c);
+        }
+
+        // 去掉句末标点，例如 "。"、"！"、"..."
+        int end = sb.length();
+        while (end > 0 && isPunctuation(sb.charAt(end - 1))) {
+            end--;
+        }
+        // 标点前可能还有空白，例如 "hello !"
+        while (end > 0 && sb.charAt(end - 1) == ' ') {
+            end--;
+        }
+        sb.setLength(end);
+        return sb.toString();
+    }
+
+    private static boolean isPunctuation(char c) {
+        // 句号、问号、感叹号、逗号、省略号等，括号不在此列
+        return Character.getType(c) == Character.OTHER_PUNCTUATION;
+    }
+}
@@ -0,0 +1,177 @@
+package com.translation.system.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.translation.system.config.SpeechConfig;
+import com.translation.system.config.TranslationConfig;
+import com.translation.system.model.BatchTranscriptionResult;
+import com.translation.system.model.TranslationRequest;
+import com.translation.system.service.SpeechService;
+import com.translation.system.service.SpeechServiceFactory;
+import com.translation.system.service.TextTranslator;
+import com.translation.system.service.routing.ProviderOverloadedException;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * 测试批量转写接口的并发控制和逐个文件返回的结果
+ */
+public class TranslationControllerTest {
+
+    private SpeechService speechService;
+    private TranslationConfig translationConfig;
+    private TranslationController controller;
+
+    @BeforeEach
+    public void setup() {
+        speechService = mock(SpeechService.class);
+        SpeechServiceFactory speechServiceFactory = mock(SpeechServiceFactory.class);
+        when(speechServiceFactory.getSpeechService(any())).thenReturn(speechService);
+
+        translationConfig = new TranslationConfig();
+        translationConfig.getBatchTranscription().setMaxConcurrency(3);
+        translationConfig.getBatchTranscription().setMaxFiles(10);
+        translationConfig.getBatchTranscription().setOverloadBackoffMillis(10);
+        SpeechConfig.Microsoft microsoftConfig = new SpeechConfig.Microsoft();
+        microsoftConfig.getRecognition().setLanguage("en-US");
+        controller = new TranslationController(speechServiceFactory, mock(TextTranslator.class), translationConfig,
+                microsoftConfig);
+    }
+
+    private static List<MultipartFile> files(int count) {
+        List<MultipartFile> files = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // 文件内容的第一个字节为序号，模拟的识别服务据此决定耗时和结果
+            files.add(new MockMultipartFile("files", "clip-" + i + ".wav", "audio/wav", new byte[] {(byte) i}));
+        }
+        return files;
+    }
+
+    @Test
+    public void testBatchIsProcessedWithBoundedConcurrency() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(speechService.speechToText(any(byte[].class), any(TranslationRequest.class), isNull()))
+                .thenAnswer(invocation -> {
+                    int index = ((byte[]) invocation.getArgument(0))[0];
+                    // 序号小的文件耗时更长，结果按完成顺序返回
+                    return Flux.defer(() -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        return Flux.just("第" + index + "个文件")
+                                .delayElements(Duration.ofMillis(60 - index * 5L))
+                                .doFinally(signal -> running.decrementAndGet());
+                    });
+                });
+
+        ResponseEntity<Flux<BatchTranscriptionResult>> response = controller.speechToTextBatch(
+                files(8), "zh-CN", "microsoft", null);
+        List<BatchTranscriptionResult> results = response.getBody().collectList().block(Duration.ofSeconds(10));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(8, results.size());
+        assertTrue(maxRunning.get() <= 3, "同时处理的文件数不应超过上限: " + maxRunning.get());
+        assertEquals(3, maxRunning.get());
+        results.sort(Comparator.comparingInt(BatchTranscriptionResult::getIndex));
+        for (int i = 0; i < 8; i++) {
+            BatchTranscriptionResult result = results.get(i);
+            assertTrue(result.isSuccess());
+            assertEquals("第" + i + "个文件", result.getText());
+            assertEquals("clip-" + i + ".wav", result.getFilename());
+            assertEquals("zh-CN", result.getSourceLanguage());
+        }
+    }
+
+    @Test
+    public void testFailedFileDoesNotStopBatch() {
+        when(speechService.speechToText(any(byte[].class), any(TranslationRequest.class), isNull()))
+                .thenAnswer(invocation -> switch (((byte[]) invocation.getArgument(0))[0]) {
+                    case 1 -> Flux.error(new IllegalStateException("服务不可用"));
+                    case 2 -> Flux.just("语音识别失败: 无法识别");
+                    case 3 -> Flux.empty();
+                    default -> Flux.just("识别文本");
+                });
+
+        List<BatchTranscriptionResult> results = controller.speechToTextBatch(files(4), "auto", "microsoft", 2)
+                .getBody()
+                .collectSortedList(Comparator.comparingInt(BatchTranscriptionResult::getIndex))
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("识别文本", results.get(0).getText());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("服务不可用", results.get(1).getError());
+        assertFalse(results.get(2).isSuccess());
+        assertEquals("语音识别失败: 无法识别", results.get(2).getError());
+        assertFalse(results.get(3).isSuccess());
+        assertEquals("没有识别结果", results.get(3).getError());
+        // auto 使用配置的默认识别语言
+        assertEquals("en-US", results.get(0).getSourceLanguage());
+    }
+
+    @Test
+    public void testOverloadedFileIsRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+        when(speechService.speechToText(any(byte[].class), any(TranslationRequest.class), isNull()))
+                .thenAnswer(invocation -> Flux.defer(() -> attempts.incrementAndGet() <= 2
+                        ? Flux.error(new ProviderOverloadedException("microsoft", 4))
+                        : Flux.just("识别文本")));
+
+        BatchTranscriptionResult result = controller.speechToTextBatch(files(1), "zh-CN", "microsoft", null)
+                .getBody()
+                .blockFirst(Duration.ofSeconds(10));
+
+        assertTrue(result.isSuccess());
+        assertEquals("识别文本", result.getText());
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void testOverloadRetriesAreBounded() {
+        translationConfig.getBatchTranscription().setOverloadRetries(2);
+        AtomicInteger attempts = new AtomicInteger();
+        when(speechService.speechToText(any(byte[].class), any(TranslationRequest.class), isNull()))
+                .thenAnswer(invocation -> Flux.defer(() -> {
+                    attempts.incrementAndGet();
+                    return Flux.error(new ProviderOverloadedException("microsoft", 4));
+                }));
+
+        BatchTranscriptionResult result = controller.speechToTextBatch(files(1), "zh-CN", "microsoft", null)
+                .getBody()
+                .blockFirst(Duration.ofSeconds(10));
+
+        // 重试用尽后返回原始错误
+        assertFalse(result.isSuccess());
+        assertTrue(result.getError().startsWith("语音服务繁忙"));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void testTooManyFilesIsRejected() {
+        ResponseEntity<Flux<BatchTranscriptionResult>> response = controller.speechToTextBatch(
+                files(11), "auto", "microsoft", null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        BatchTranscriptionResult result = response.getBody().blockFirst();
+        assertFalse(result.isSuccess());
+    }
+}
@@ -0,0 +1,110 @@
+package com.translation.system.handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.translation.system.config.TranslationConfig;
+import com.translation.system.service.SpeechServiceFactory;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class AdmissionControlInterceptorTest {
+
+    @Mock
+    private TranslationWebSocketHandler handler;
+
+    @Mock
+    private SpeechServiceFactory speechServiceFactory;
+
+    private TranslationConfig config;
+    private double heapHeadroom;
+    private AdmissionControlInterceptor interceptor;
+
+    @BeforeEach
+    public void setup() {
+        config = new TranslationConfig();
+        config.getAdmission().setMaxSessions(10);
+        config.getAdmission().setMaxInFlightFrames(5);
+        config.getAdmission().setRetryAfterSeconds(7);
+        heapHeadroom = 0.5;
+        interceptor = new AdmissionControlInterceptor(handler, speechServiceFactory, config, () -> heapHeadroom);
+    }
+
+    private MockHttpServletResponse handshake(boolean expectedAccepted) throws Exception {
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        ServletServerHttpResponse response = new ServletServerHttpResponse(servletResponse);
+        Map<String, Object> attributes = new HashMap<>();
+        boolean accepted = interceptor.beforeHandshake(
+                new ServletServerHttpRequest(new MockHttpServletRequest()), response, null, attributes);
+        response.flush();
+        assertEquals(expectedAccepted, accepted);
+        return servletResponse;
+    }
+
+    @Test
+    public void testAdmitsWithinCapacity() throws Exception {
+        when(handler.getActiveSessionCount()).thenReturn(9);
+        when(handler.getInFlightFrameCount()).thenReturn(4);
+
+        MockHttpServletResponse response = handshake(true);
+        assertEquals(200, response.getStatus());
+        assertEquals(1L, interceptor.getStats().get("admitted"));
+    }
+
+    @Test
+    public void testRejectsWith503AndRetryAfter() throws Exception {
+        when(handler.getActiveSessionCount()).thenReturn(10);
+
+        MockHttpServletResponse response = handshake(false);
+        assertEquals(503, response.getStatus());
+        assertEquals("7", response.getHeader("Retry-After"));
+    }
+
+    @Test
+    public void testEachCapacitySignalRejects() throws Exception {
+        when(handler.getInFlightFrameCount()).thenReturn(5);
+        handshake(false);
+        when(handler.getInFlightFrameCount()).thenReturn(0);
+
+        when(speechServiceFactory.isSaturated()).thenReturn(true);
+        handshake(false);
+        when(speechServiceFactory.isSaturated()).thenReturn(false);
+
+        heapHeadroom = 0.05;
+        handshake(false);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> rejected = (Map<String, Object>) interceptor.getStats().get("rejected");
+        assertEquals(1L, rejected.get("inFlightFrames"));
+        assertEquals(1L, rejected.get("providers"));
+        assertEquals(1L, rejected.get("heap"));
+        assertEquals(0L, rejected.get("sessions"));
+    }
+
+    @Test
+    public void testDisabledAdmitsEverything() throws Exception {
+        config.getAdmission().setEnabled(false);
+        when(handler.getActiveSessionCount()).thenReturn(1000);
+        heapHeadroom = 0.0;
+
+        handshake(true);
+        assertFalse((Boolean) interceptor.getStats().get("enabled"));
+        assertEquals(0L, interceptor.getStats().get("admitted"));
+    }
+}
@@ -0,0 +1,181 @@
+package com.translation.system.handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.translation.system.config.TranslationConfig;
+import com.translation.system.model.TranslationResult;
+
+public class BroadcastRoomManagerTest {
+
+    private BroadcastRoomManager roomManager;
+    private final List<WebSocketMessage<?>> sent = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        TranslationConfig config = new TranslationConfig();
+        config.getBroadcast().setMaxListenersPerRoom(3);
+        roomManager = new BroadcastRoomManager(config, new ObjectMapper());
+    }
+
+    @Test
+    public void testOnlyOneSpeakerPerRoom() {
+        assertTrue(roomManager.joinAsSpeaker("lecture", session("speaker-1")));
+        assertFalse(roomManager.joinAsSpeaker("lecture", session("speaker-2")));
+        assertTrue(roomManager.isSpeaker("speaker-1"));
+
+        roomManager.leave("speaker-1");
+        assertTrue(roomManager.joinAsSpeaker("lecture", session("speaker-2")));
+    }
+
+    @Test
+    public void testResultIsEncodedOnceAndSentToMatchingListeners() throws Exception {
+        WebSocketSession english1 = session("en-1");
+        WebSocketSession english2 = session("en-2");
+        WebSocketSession japanese = session("ja-1");
+        roomManager.joinAsListener("lecture", "en-US", english1);
+        roomManager.joinAsListener("lecture", "en-US", english2);
+        roomManager.joinAsListener("lecture", "ja-JP", japanese);
+        assertEquals(List.of("en-US", "ja-JP"), roomManager.getListenerLanguages("lecture").stream().sorted().toList());
+
+        int delivered = roomManager.publish("lecture", TranslationResult.builder()
+                .language("en-US").sourceText("你好").translatedText("Hello").build());
+
+        assertEquals(2, delivered);
+        assertEquals(2, sent.size());
+        // 所有听众收到的是同一个消息对象
+        assertSame(sent.get(0), sent.get(1));
+        assertTrue(((TextMessage) sent.get(0)).getPayload().contains("\"language\":\"en-US\""));
+        verify(japanese, never()).sendMessage(any());
+    }
+
+    @Test
+    public void testAudioSharesBufferWithIndependentPositions() throws Exception {
+        roomManager.joinAsListener("lecture", "en-US", session("en-1"));
+        roomManager.joinAsListener("lecture", "en-US", session("en-2"));
+
+        byte[] audio = {1, 2, 3, 4};
+        roomManager.publish("lecture", TranslationResult.builder().language("en-US").audio(audio).build());
+
+        assertEquals(2, sent.size());
+        ByteBuffer first = ((BinaryMessage) sent.get(0)).getPayload();
+        ByteBuffer second = ((BinaryMessage) sent.get(1)).getPayload();
+        assertNotSame(first, second);
+        assertTrue(first.isReadOnly());
+        first.get(new byte[4]);
+        assertEquals(4, second.remaining());
+    }
+
+    @Test
+    public void testFailingListenerIsRemovedWithoutAffectingOthers() throws Exception {
+        WebSocketSession broken = session("broken");
+        doThrow(new IOException("connection reset")).when(broken).sendMessage(any());
+        roomManager.joinAsListener("lecture", "en-US", broken);
+        roomManager.joinAsListener("lecture", "en-US", session("ok"));
+
+        TranslationResult result = TranslationResult.builder().language("en-US").translatedText("Hello").build();
+        assertEquals(1, roomManager.publish("lecture", result));
+        assertEquals(1, roomManager.publish("lecture", result));
+        assertFalse(roomManager.isListener("broken"));
+    }
+
+    @Test
+    public void testListenerLimitAndEmptyRoomRemoval() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(roomManager.joinAsListener("lecture", "en-US", session("listener-" + i)));
+        }
+        assertFalse(roomManager.joinAsListener("lecture", "en-US", session("listener-3")));
+
+        for (int i = 0; i < 3; i++) {
+            roomManager.leave("listener-" + i);
+        }
+        assertTrue(roomManager.getListenerLanguages("lecture").isEmpty());
+        assertEquals(0, ((Map<?, ?>) roomManager.getStats().get("rooms")).size());
+    }
+
+    @Test
+    public void testConcurrentJoinsRespectListenerLimit() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger joined = new AtomicInteger();
+        for (int i = 0; i < threads; i++) {
+            WebSocketSession listener = session("listener-" + i);
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    if (roomManager.joinAsListener("lecture", "en-US", listener)) {
+                        joined.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(3, joined.get());
+    }
+
+    @Test
+    public void testJoinIsNotLostWhenLastListenerLeaves() throws Exception {
+        // 最后一名听众离开会删除房间，同时加入的听众不能落到已删除的房间里
+        for (int round = 0; round < 200; round++) {
+            roomManager.joinAsListener("lecture", "en-US", session("leaving"));
+            WebSocketSession joining = session("joining");
+            Thread leaver = new Thread(() -> roomManager.leave("leaving"));
+            leaver.start();
+            assertTrue(roomManager.joinAsListener("lecture", "en-US", joining));
+            leaver.join();
+
+            assertEquals(List.of("en-US"), roomManager.getListenerLanguages("lecture"));
+            roomManager.leave("joining");
+        }
+    }
+
+    private WebSocketSession session(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        try {
+            doAnswer(invocation -> {
+                sent.add(invocation.getArgument(0));
+                return null;
+            }).when(session).sendMessage(any());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return session;
+    }
+}
@@ -0,0 +1,86 @@
+package com.translation.system.handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.translation.system.config.TranslationConfig;
+
+public class SessionFlowControllerTest {
+
+    private SessionFlowController flowController;
+
+    @BeforeEach
+    public void setup() {
+        TranslationConfig config = new TranslationConfig();
+        config.getFlowControl().setWindowBytes(1000);
+        config.getFlowControl().setUpdateRatio(0.5);
+        config.getFlowControl().setOverrunsBeforeDownsample(2);
+        config.getFlowControl().setDownsampleRate(8000);
+        flowController = new SessionFlowController(config);
+    }
+
+    @Test
+    public void testFramesBeyondWindowAreThrottled() {
+        assertEquals(1000, flowController.open("s1"));
+        assertNull(flowController.tryAcquire("s1", 600, 16000));
+        assertNull(flowController.tryAcquire("s1", 400, 16000));
+
+        SessionFlowController.Throttle throttle = flowController.tryAcquire("s1", 100, 16000);
+        assertNotNull(throttle);
+        assertEquals(0, throttle.available());
+        assertNull(throttle.suggestedSampleRate());
+
+        // 连续超额后建议降低采样率
+        throttle = flowController.tryAcquire("s1", 100, 16000);
+        assertEquals(8000, throttle.suggestedSampleRate());
+        assertEquals(2L, flowController.getStats().get("throttledFrames"));
+    }
+
+    @Test
+    public void testCreditIsReplenishedInBatches() {
+        flowController.open("s1");
+        for (int i = 0; i < 5; i++) {
+            assertNull(flowController.tryAcquire("s1", 200, 16000));
+        }
+
+        // 释放不足半个窗口时不补充
+        assertEquals(0, flowController.release("s1", 200));
+        assertEquals(0, flowController.release("s1", 200));
+        assertEquals(600, flowController.release("s1", 200));
+        assertNull(flowController.tryAcquire("s1", 600, 16000));
+
+        // 窗口清空时立即补充剩余额度
+        assertEquals(0, flowController.release("s1", 200));
+        assertEquals(0, flowController.release("s1", 200));
+        assertEquals(1000, flowController.release("s1", 600));
+        assertEquals(0L, flowController.getStats().get("outstandingBytes"));
+    }
+
+    @Test
+    public void testOversizedFrameAcceptedWhenIdle() {
+        flowController.open("s1");
+        assertNull(flowController.tryAcquire("s1", 5000, 16000));
+        assertNotNull(flowController.tryAcquire("s1", 10, 16000));
+        assertEquals(5000, flowController.release("s1", 5000));
+
+        flowController.close("s1");
+        assertEquals(0, flowController.release("s1", 10));
+    }
+
+    @Test
+    public void testReinitKeepsOutstandingFrames() {
+        flowController.open("s1");
+        assertNull(flowController.tryAcquire("s1", 800, 16000));
+
+        // 重新初始化时仍在处理的帧继续占用额度
+        assertEquals(200, flowController.open("s1"));
+        assertNotNull(flowController.tryAcquire("s1", 300, 16000));
+        assertEquals(800L, flowController.getStats().get("outstandingBytes"));
+
+        assertEquals(800, flowController.release("s1", 800));
+    }
+}
@@ -0,0 +1,54 @@
+package com.translation.system.handler;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.translation.system.config.TranslationConfig;
+
+public class SessionLogSamplerTest {
+
+    private SessionLogSampler createSampler(boolean enabled, long intervalMillis) {
+        TranslationConfig config = new TranslationConfig();
+        config.getLogSampling().setEnabled(enabled);
+        config.getLogSampling().setIntervalMillis(intervalMillis);
+        return new SessionLogSampler(config);
+    }
+
+    @Test
+    public void testFirstFrameOfEachSessionIsSampled() {
+        SessionLogSampler sampler = createSampler(true, 60000);
+
+        assertTrue(sampler.sample("s1"));
+        assertFalse(sampler.sample("s1"));
+        assertFalse(sampler.sample("s1"));
+
+        // 其他会话不受影响
+        assertTrue(sampler.sample("s2"));
+
+        // 会话关闭后重新计算
+        sampler.close("s1");
+        assertTrue(sampler.sample("s1"));
+    }
+
+    @Test
+    public void testFrameIsSampledAgainAfterInterval() throws InterruptedException {
+        SessionLogSampler sampler = createSampler(true, 20);
+
+        assertTrue(sampler.sample("s1"));
+        assertFalse(sampler.sample("s1"));
+
+        Thread.sleep(30);
+        assertTrue(sampler.sample("s1"));
+        assertFalse(sampler.sample("s1"));
+    }
+
+    @Test
+    public void testEveryFrameIsSampledWhenDisabled() {
+        SessionLogSampler sampler = createSampler(false, 60000);
+
+        assertTrue(sampler.sample("s1"));
+        assertTrue(sampler.sample("s1"));
+    }
+}
@@ -1,5 +1,6 @@
 package com.translation.system.handler;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
@@ -8,6 +9,7 @@
 import static org.mockito.Mockito.when;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,10 +19,12 @@
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.translation.system.metrics.PipelineMetrics;
 import com.translation.system.model.AudioFormat;
 import com.translation.system.model.MessageType;
 import com.translation.system.model.TranslationRequest;
@@ -35,6 +39,18 @@ public class TranslationWebSocketHandlerTest {
     @Mock
     private TranslationService translationService;
     
+    @Mock
+    private SessionFlowController flowController;
+    
+    @Mock
+    private BroadcastRoomManager roomManager;
+    
+    @Mock
+    private SessionLogSampler logSampler;
+    
+    @Mock
+    private PipelineMetrics pipelineMetrics;
+    
     @Spy
     private ObjectMapper objectMapper = new ObjectMapper();
     
@@ -137,4 +153,25 @@ public void testHandleBinaryMessage_SessionNotInitialized() throws Exception {
         // 应该发送错误消息
         verify(session).sendMessage(any(TextMessage.class));
     }
-} 
\ No newline at end of file
+    
+    @Test
+    public void testAfterConnectionClosed_CancelsInFlightTranslation() throws Exception {
+        when(session.isOpen()).thenReturn(true);
+        WebSocketMessage initMessage = WebSocketMessage.builder()
+                .type(MessageType.INIT)
+                .request(request)
+                .build();
+        handler.handleTextMessage(session, new TextMessage(objectMapper.writeValueAsString(initMessage)));
+        
+        // 转译服务一直不结束，模拟进行中的识别
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        when(translationService.translateSpeech(any(), any(), any()))
+                .thenReturn(Flux.<byte[]>never().doOnCancel(() -> cancelled.set(true)));
+        handler.handleBinaryMessage(session, new BinaryMessage(ByteBuffer.wrap(new byte[1024])));
+        
+        handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+        
+        // 会话关闭后进行中的处理被取消
+        assertTrue(cancelled.get());
+    }
+}
@@ -0,0 +1,153 @@
+package com.translation.system.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.translation.system.metrics.PipelineMetrics.Stage;
+import com.translation.system.model.TranslationRequest;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/**
+ * 测试流水线阶段耗时的记录方式和标签
+ */
+public class PipelineMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PipelineMetrics pipelineMetrics;
+    private TranslationRequest request;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        pipelineMetrics = new PipelineMetrics(meterRegistry);
+
+        request = new TranslationRequest();
+        request.setSourceLanguage("zh-CN");
+        request.setTargetLanguage("en-US");
+        request.setMode("speech-to-speech");
+        request.setProvider("openai");
+    }
+
+    @Test
+    public void testTimeFluxRecordsFirstElementAndCompletionOnce() {
+        Flux<Integer> timed = pipelineMetrics.timeFlux(Flux.just(1, 2, 3),
+                Stage.SYNTHESIS_FIRST_BYTE, Stage.SYNTHESIS_COMPLETE, "microsoft", request);
+
+        StepVerifier.create(timed).expectNext(1, 2, 3).verifyComplete();
+        StepVerifier.create(timed).expectNext(1, 2, 3).verifyComplete();
+
+        // 每次订阅只记录一次首个元素
+        assertEquals(2, timerCount("synthesis_first_byte", "microsoft"));
+        assertEquals(2, timerCount("synthesis_complete", "microsoft"));
+    }
+
+    @Test
+    public void testTimeFluxSkipsCompletionOnError() {
+        Flux<Integer> timed = pipelineMetrics.timeFlux(Flux.error(new IllegalStateException("失败")),
+                null, Stage.RECOGNITION_FINAL, null, request);
+
+        StepVerifier.create(timed).verifyError(IllegalStateException.class);
+
+        assertNull(meterRegistry.find(PipelineMetrics.STAGE_METRIC).tag("stage", "recognition_final").timer());
+    }
+
+    @Test
+    public void testTimeMonoUsesRequestProvider() {
+        StepVerifier.create(pipelineMetrics.timeMono(Mono.just("hello"), Stage.TEXT_TRANSLATION, null, request))
+            .expectNext("hello")
+            .verifyComplete();
+
+        assertEquals(1, timerCount("text_translation", "openai"));
+    }
+
+    @Test
+    public void testTimingFromContextAccumulatesStages() {
+        UtteranceTiming timing = new UtteranceTiming("session-1", System.nanoTime());
+        pipelineMetrics.record(Stage.INGEST, null, request, 1000, timing);
+
+        Flux<Integer> synthesis = pipelineMetrics.timeFlux(Flux.just(1, 2),
+                Stage.SYNTHESIS_FIRST_BYTE, Stage.SYNTHESIS_COMPLETE, null, request);
+        // 两个目标语言各合成一次，耗时累加
+        StepVerifier.create(Flux.concat(synthesis, synthesis)
+                .contextWrite(context -> context.put(UtteranceTiming.CONTEXT_KEY, timing)))
+            .expectNextCount(4)
+            .verifyComplete();
+
+        Map<String, Long> stages = timing.toStages();
+        assertEquals("session-1", timing.getUtteranceId());
+        assertEquals(1000L, stages.get("receive"));
+        assertTrue(stages.get("synthesis") > 0);
+        assertFalse(stages.containsKey("queue"));
+        assertFalse(stages.containsKey("recognizerFirstEvent"));
+        assertTrue(stages.get("total") >= stages.get("synthesis"));
+    }
+
+    @Test
+    public void testRecognizerFirstEventKeepsEarliest() {
+        UtteranceTiming timing = new UtteranceTiming("session-1", System.nanoTime());
+
+        timing.add(Stage.RECOGNITION_FIRST_PARTIAL, 200);
+        timing.add(Stage.RECOGNITION_FINAL, 900);
+        timing.add(Stage.QUEUE, 10);
+        timing.add(Stage.QUEUE, 15);
+
+        assertEquals(200L, timing.toStages().get("recognizerFirstEvent"));
+        assertEquals(25L, timing.toStages().get("queue"));
+    }
+
+    @Test
+    public void testTagsWithoutRequest() {
+        Tags tags = PipelineMetrics.tags(Stage.WEBSOCKET_SEND, null, null);
+
+        assertEquals(Tags.of("stage", "websocket_send", "provider", "unknown",
+                "mode", "unknown", "language_pair", "unknown"), tags);
+    }
+
+    @Test
+    public void testClientValuesOutsideKnownSetAreBucketed() {
+        TranslationRequest custom = new TranslationRequest();
+        custom.setSourceLanguage("xx-" + System.nanoTime());
+        custom.setTargetLanguage("en-us");
+        custom.setMode("mode-" + System.nanoTime());
+        custom.setProvider("provider-" + System.nanoTime());
+
+        assertEquals(Tags.of("stage", "ingest", "provider", "other",
+                "mode", "other", "language_pair", "other->en-US"), PipelineMetrics.tags(Stage.INGEST, null, custom));
+
+        custom.setSourceLanguage("auto");
+        custom.setProvider("Hedged");
+        assertEquals(Tags.of("stage", "ingest", "provider", "hedged",
+                "mode", "other", "language_pair", "auto->en-US"), PipelineMetrics.tags(Stage.INGEST, null, custom));
+    }
+
+    @Test
+    public void testTimerIsReusedForSameTags() {
+        for (int i = 0; i < 3; i++) {
+            request.setProvider("random-" + i);
+            pipelineMetrics.record(Stage.QUEUE, null, request, 1000);
+        }
+
+        // 三个不同的未知提供者归入同一个时间序列
+        assertEquals(1, meterRegistry.find(PipelineMetrics.STAGE_METRIC).tag("stage", "queue").timers().size());
+        assertEquals(3, timerCount("queue", "other"));
+    }
+
+    private long timerCount(String stage, String provider) {
+        return meterRegistry.get(PipelineMetrics.STAGE_METRIC)
+                .tags("stage", stage, "provider", provider, "mode", "speech-to-speech", "language_pair", "zh-CN->en-US")
+                .timer()
+                .count();
+    }
+}
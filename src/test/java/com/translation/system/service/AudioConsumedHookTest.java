@@ -0,0 +1,56 @@
+package com.translation.system.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+public class AudioConsumedHookTest {
+
+    @Test
+    public void testCallbackRunsWhenRecognitionEndsBeforeSynthesis() {
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicInteger consumedAtSynthesis = new AtomicInteger(-1);
+
+        Flux<String> pipeline = AudioConsumedHook.onRecognitionDone(Flux.just("你好"))
+                // 合成是异步的，识别流先于合成结束
+                .concatMap(text -> Mono.delay(Duration.ofMillis(50))
+                        .map(tick -> {
+                            consumedAtSynthesis.set(consumed.get());
+                            return text + "-audio";
+                        }))
+                .contextWrite(Context.of(AudioConsumedHook.CONTEXT_KEY, (Runnable) consumed::incrementAndGet));
+
+        StepVerifier.create(pipeline)
+                .expectNext("你好-audio")
+                .verifyComplete();
+        // 合成结果产生时额度已归还
+        assertEquals(1, consumedAtSynthesis.get());
+        assertEquals(1, consumed.get());
+    }
+
+    @Test
+    public void testCallbackRunsOnError() {
+        AtomicInteger consumed = new AtomicInteger();
+
+        StepVerifier.create(AudioConsumedHook.onRecognitionDone(Flux.<String>error(new IllegalStateException("识别超时")))
+                        .contextWrite(Context.of(AudioConsumedHook.CONTEXT_KEY, (Runnable) consumed::incrementAndGet)))
+                .expectError(IllegalStateException.class)
+                .verify();
+        assertEquals(1, consumed.get());
+    }
+
+    @Test
+    public void testWithoutCallbackPassesThrough() {
+        StepVerifier.create(AudioConsumedHook.onRecognitionDone(Flux.just("你好")))
+                .expectNext("你好")
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,92 @@
+package com.translation.system.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.translation.system.config.SpeechConfig;
+import com.translation.system.model.TranslationRequest;
+import com.translation.system.service.routing.HealthTrackingSpeechService;
+import com.translation.system.service.routing.ProviderHealth;
+import com.translation.system.service.routing.ProviderOverloadedException;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+public class ErrorFallbackSpeechServiceTest {
+
+    @Mock
+    private SpeechService delegate;
+
+    private ErrorFallbackSpeechService speechService;
+
+    private final TranslationRequest request = TranslationRequest.builder()
+            .sourceLanguage("zh-CN").targetLanguage("en-US").build();
+
+    @BeforeEach
+    public void setup() {
+        speechService = new ErrorFallbackSpeechService(delegate);
+    }
+
+    @Test
+    public void testRecognitionFailureBecomesMessage() {
+        when(delegate.speechToText(any(byte[].class), any(TranslationRequest.class), any()))
+                .thenReturn(Flux.error(new IllegalStateException("识别超时")));
+
+        StepVerifier.create(speechService.speechToText(new byte[] {1}, request, null))
+                .expectNext("语音识别失败: 识别超时")
+                .verifyComplete();
+    }
+
+    @Test
+    public void testOverloadIsNotHidden() {
+        when(delegate.textToSpeech(anyString(), any(TranslationRequest.class), any()))
+                .thenReturn(Flux.error(new ProviderOverloadedException("microsoft", 4)));
+
+        StepVerifier.create(speechService.textToSpeech("你好", request, null))
+                .expectError(ProviderOverloadedException.class)
+                .verify();
+    }
+
+    @Test
+    public void testSpeechTranslationFailureReturnsApology() {
+        when(delegate.translateSpeechToSpeech(any(byte[].class), any(TranslationRequest.class), any()))
+                .thenReturn(Flux.error(new IllegalStateException("连接中断")));
+        when(delegate.textToSpeech(eq("Sorry, there was an issue with the speech translation"),
+                any(TranslationRequest.class), any())).thenReturn(Flux.just(new byte[] {7}));
+
+        StepVerifier.create(speechService.translateSpeechToSpeech(new byte[] {1}, request, (WebSocketSession) null))
+                .expectNextMatches(audio -> audio[0] == 7)
+                .verifyComplete();
+    }
+
+    @Test
+    public void testHealthTrackingSeesFailureBeneathFallback() {
+        when(delegate.speechToText(any(byte[].class), any(TranslationRequest.class), any()))
+                .thenReturn(Flux.error(new IllegalStateException("识别超时")));
+        ProviderHealth health = new ProviderHealth("microsoft", new SpeechConfig.Routing());
+        SpeechService tracked = new ErrorFallbackSpeechService(new HealthTrackingSpeechService(delegate, health));
+
+        StepVerifier.create(tracked.speechToText(new byte[] {1}, request, null))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        // 调用方拿到的是降级结果，健康状态记录的是一次错误
+        Map<?, ?> stats = (Map<?, ?>) health.getStats().get("speech-to-text");
+        assertEquals(1L, stats.get("completed"));
+        assertTrue((double) stats.get("errorRate") > 0);
+    }
+}
@@ -0,0 +1,146 @@
+package com.translation.system.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.translation.system.config.SpeechConfig.Microsoft;
+import com.translation.system.service.impl.MicrosoftTextTranslator;
+
+import reactor.test.StepVerifier;
+
+/**
+ * Microsoft文本翻译测试，使用本地桩服务器代替Translator API
+ */
+public class MicrosoftTextTranslatorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private StubHttpServer server;
+    private Microsoft microsoftConfig;
+    private MicrosoftTextTranslator translator;
+
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final Map<String, String> lastRequest = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    public void setup() throws Exception {
+        server = StubHttpServer.start();
+
+        microsoftConfig = new Microsoft();
+        microsoftConfig.setSubscriptionKey("speech-key");
+        microsoftConfig.setRegion("eastasia");
+        microsoftConfig.setTranslatorEndpoint(server.getBaseUrl());
+
+        translator = new MicrosoftTextTranslator(microsoftConfig);
+        translator.init();
+
+        // 桩接口把每个片段翻译为 "<目标语言>:<原文>"
+        server.route("/translate", exchange -> {
+            JsonNode body = objectMapper.readTree(exchange.getRequestBody());
+            batchSizes.add(body.size());
+            lastRequest.put("query", exchange.getRequestURI().getRawQuery());
+            lastRequest.put("key", String.valueOf(exchange.getRequestHeaders().getFirst("Ocp-Apim-Subscription-Key")));
+            lastRequest.put("region", String.valueOf(exchange.getRequestHeaders().getFirst("Ocp-Apim-Subscription-Region")));
+
+            String to = exchange.getRequestURI().getQuery().replaceAll(".*to=([^&]+).*", "$1");
+            ArrayNode response = objectMapper.createArrayNode();
+            for (JsonNode item : body) {
+                response.addObject().putArray("translations").addObject()
+                        .put("text", to + ":" + item.path("Text").asText())
+                        .put("to", to);
+            }
+            respond(exchange, 200, response.toString().getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void testBatchIsSentInSingleRequest() {
+        StepVerifier.create(translator.translate(List.of("你好", "世界", "测试"), "zh-CN", "en-US"))
+                .assertNext(result -> assertEquals(List.of("en:你好", "en:世界", "en:测试"), result))
+                .verifyComplete();
+
+        assertEquals(List.of(3), batchSizes);
+        assertEquals("api-version=3.0&to=en&from=zh-Hans", lastRequest.get("query"));
+        // 未单独配置翻译密钥时使用语音服务密钥
+        assertEquals("speech-key", lastRequest.get("key"));
+        assertEquals("eastasia", lastRequest.get("region"));
+    }
+
+    @Test
+    public void testLargeBatchIsSplitAndOrderPreserved() {
+        microsoftConfig.setTranslatorMaxBatchSize(2);
+
+        StepVerifier.create(translator.translate(List.of("一", "二", "三", "四", "五"), "auto", "zh-TW"))
+                .assertNext(result -> assertEquals(
+                        List.of("zh-Hant:一", "zh-Hant:二", "zh-Hant:三", "zh-Hant:四", "zh-Hant:五"), result))
+                .verifyComplete();
+
+        assertEquals(List.of(2, 2, 1), batchSizes.stream().sorted((a, b) -> b - a).toList());
+        // 源语言为auto时不传from参数，由服务端自动检测
+        assertEquals("api-version=3.0&to=zh-Hant", lastRequest.get("query"));
+    }
+
+    @Test
+    public void testEmptyTextsAreNotSent() {
+        StepVerifier.create(translator.translate(Arrays.asList("", "hello", null), "en-US", "zh-CN"))
+                .assertNext(result -> assertEquals(Arrays.asList("", "zh-Hans:hello", ""), result))
+                .verifyComplete();
+
+        assertEquals(List.of(1), batchSizes);
+    }
+
+    @Test
+    public void testErrorStatus() throws Exception {
+        server.close();
+        server = StubHttpServer.start();
+        server.route("/translate", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            respond(exchange, 401, "{\"error\":{\"code\":401000}}".getBytes(StandardCharsets.UTF_8));
+        });
+        microsoftConfig.setTranslatorEndpoint(server.getBaseUrl());
+
+        StepVerifier.create(translator.translate("你好", "zh-CN", "en-US"))
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    @Test
+    public void testMissingKey() {
+        microsoftConfig.setSubscriptionKey(null);
+
+        StepVerifier.create(translator.translate("你好", "zh-CN", "en-US"))
+                .expectError(IllegalStateException.class)
+                .verify();
+        assertNull(lastRequest.get("query"));
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+}
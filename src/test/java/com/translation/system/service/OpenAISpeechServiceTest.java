@@ -1,70 +1,78 @@
 package com.translation.system.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.net.http.HttpResponse.BodyHandler;
-import java.net.http.HttpResponse.BodyHandlers;
-import java.util.concurrent.atomic.AtomicReference;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.MockitoAnnotations;
-import org.mockito.Spy;
-import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.mockito.Mockito;
 import org.springframework.web.socket.WebSocketSession;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
 import com.translation.system.config.SpeechConfig.OpenAI;
+import com.translation.system.metrics.PipelineMetrics;
 import com.translation.system.model.AudioFormat;
 import com.translation.system.model.TranslationRequest;
+import com.translation.system.model.TranslationResult;
 import com.translation.system.service.impl.OpenAISpeechService;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
-@ExtendWith(MockitoExtension.class)
+/**
+ * OpenAI语音服务测试，使用本地桩服务器代替OpenAI API
+ */
 public class OpenAISpeechServiceTest {
 
-    @Mock
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private StubHttpServer server;
     private OpenAI openaiConfig;
-    
-    @Mock
-    private HttpClient httpClient;
-    
-    @Spy
-    private ObjectMapper objectMapper = new ObjectMapper();
-    
-    @InjectMocks
     private OpenAISpeechService speechService;
-    
-    @Mock
     private WebSocketSession session;
-    
     private TranslationRequest request;
-    
+
     @BeforeEach
     public void setup() throws Exception {
-        // 设置默认的配置
-        when(openaiConfig.getApiKey()).thenReturn("dummy-key");
-        when(openaiConfig.getModel()).thenReturn("tts-1");
-        when(openaiConfig.getVoice()).thenReturn("alloy");
-        when(openaiConfig.getSpeed()).thenReturn(1.0);
-        
-        // 手动设置httpClient
-        ReflectionTestUtils.setField(speechService, "httpClient", httpClient);
-        
+        server = StubHttpServer.start();
+
+        // 设置默认的配置，API地址指向本地桩服务器
+        openaiConfig = new OpenAI();
+        openaiConfig.setApiKey("dummy-key");
+        openaiConfig.setBaseUrl(server.getBaseUrl() + "/v1");
+        openaiConfig.setMaxInFlight(4);
+        openaiConfig.setRequestTimeoutMillis(2000);
+
+        // 翻译服务使用桩实现，只在译文前加上目标语言标记
+        TextTranslator textTranslator = (texts, sourceLanguage, targetLanguage) ->
+                Mono.just(texts.stream().map(text -> "[" + targetLanguage + "] " + text).toList());
+
+        speechService = new OpenAISpeechService(openaiConfig, textTranslator, new PipelineMetrics(new SimpleMeterRegistry()));
+        speechService.init();
+
+        session = Mockito.mock(WebSocketSession.class);
+
         // 创建请求对象
         request = new TranslationRequest();
         request.setSourceLanguage("zh-CN");
@@ -72,71 +80,67 @@ public void setup() throws Exception {
         request.setAudioFormat(AudioFormat.WAV);
         request.setSampleRate(16000);
     }
-    
+
+    @AfterEach
+    public void tearDown() {
+        server.close();
+    }
+
     @Test
     public void testGetProviderName() {
         String providerName = speechService.getProviderName();
         assertNotNull(providerName);
         assert(providerName.equals("openai"));
     }
-    
-    /**
-     * 注意：这些测试依赖于OpenAI API，在实际运行时需要有效的API密钥。
-     * 由于我们不能在测试中实际调用API，所以这里我们模拟HTTP响应。
-     */
+
     @Test
     public void testSpeechToText() throws Exception {
         // 准备测试音频数据
         byte[] audioData = loadTestAudioData();
-        
-        // 创建一个模拟的HTTP响应
-        HttpResponse<String> mockResponse = mock(HttpResponse.class);
-        when(mockResponse.statusCode()).thenReturn(200);
-        
-        // 创建一个带有文本结果的JSON响应
-        ObjectNode responseJson = objectMapper.createObjectNode();
-        responseJson.put("text", "这是一个测试");
-        when(mockResponse.body()).thenReturn(responseJson.toString());
-        
-        // 模拟HTTP客户端行为，用any(BodyHandler.class)替代any()
-        when(httpClient.send(any(HttpRequest.class), any(BodyHandler.class))).thenReturn(mockResponse);
-        
-        // 调用方法
+
+        server.route("/v1/audio/transcriptions", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.ISO_8859_1);
+            assertEquals("Bearer dummy-key", exchange.getRequestHeaders().getFirst("Authorization"));
+            assertTrue(body.contains("whisper-1"));
+
+            ObjectNode responseJson = objectMapper.createObjectNode();
+            responseJson.put("text", "这是一个测试");
+            respond(exchange, 200, responseJson.toString().getBytes(StandardCharsets.UTF_8));
+        });
+
         Flux<String> resultFlux = speechService.speechToText(audioData, request, session);
-        
-        // 验证结果
-        AtomicReference<String> resultRef = new AtomicReference<>();
-        resultFlux.next().subscribe(resultRef::set);
-        
-        // 这里实际上无法验证结果，因为我们不会真正执行HTTP调用
+
+        StepVerifier.create(resultFlux)
+                .expectNext("这是一个测试")
+                .verifyComplete();
     }
-    
+
     @Test
     public void testTextToSpeech() throws Exception {
-        // 准备测试文本
-        String text = "这是一个测试";
-        
-        // 创建一个模拟的HTTP响应
-        HttpResponse<byte[]> mockResponse = mock(HttpResponse.class);
-        when(mockResponse.statusCode()).thenReturn(200);
-        
-        // 创建一个模拟的音频数据
-        byte[] mockAudioData = new byte[1024];
-        when(mockResponse.body()).thenReturn(mockAudioData);
-        
-        // 模拟HTTP客户端行为，用any(BodyHandler.class)替代any()
-        when(httpClient.send(any(HttpRequest.class), any(BodyHandler.class))).thenReturn(mockResponse);
-        
-        // 调用方法
-        Flux<byte[]> resultFlux = speechService.textToSpeech(text, request, session);
-        
-        // 验证结果
-        AtomicReference<byte[]> resultRef = new AtomicReference<>();
-        resultFlux.next().subscribe(resultRef::set);
-        
-        // 这里实际上无法验证结果，因为我们不会真正执行HTTP调用
+        // 桩服务器以分块传输方式分三次写出音频
+        server.route("/v1/audio/speech", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int i = 0; i < 3; i++) {
+                    out.write(new byte[1024]);
+                    out.flush();
+                    sleep(50);
+                }
+            }
+        });
+
+        Flux<byte[]> resultFlux = speechService.textToSpeech("这是一个测试", request, session);
+
+        // 验证音频按帧流式到达，总长度与服务端写出的一致
+        Long totalBytes = resultFlux
+                .doOnNext(frame -> assertTrue(frame.length > 0))
+                .map(frame -> (long) frame.length)
+                .reduce(0L, Long::sum)
+                .block(Duration.ofSeconds(5));
+        assertEquals(3 * 1024L, totalBytes);
     }
-    
+
     /**
      * 测试语音转语音翻译功能
      */
@@ -144,7 +148,18 @@ public void testTextToSpeech() throws Exception {
     public void testTranslateSpeechToSpeech() throws Exception {
         // 准备测试音频数据
         byte[] audioData = loadTestAudioData();
-        
+
+        server.route("/v1/audio/transcriptions", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            ObjectNode responseJson = objectMapper.createObjectNode();
+            responseJson.put("text", "这是一个测试的语音翻译功能");
+            respond(exchange, 200, responseJson.toString().getBytes(StandardCharsets.UTF_8));
+        });
+        server.route("/v1/audio/speech", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            respond(exchange, 200, new byte[1024]);
+        });
+
         // 设置翻译请求
         TranslationRequest translationRequest = new TranslationRequest();
         translationRequest.setSourceLanguage("zh-CN"); // 源语言：中文
@@ -152,47 +167,153 @@ public void testTranslateSpeechToSpeech() throws Exception {
         translationRequest.setAudioFormat(AudioFormat.WAV);
         translationRequest.setVoice("alloy"); // 使用OpenAI的alloy声音
 
-        // 第一次调用（speechToText）的模拟响应
-        HttpResponse<String> mockTextResponse = mock(HttpResponse.class);
-        when(mockTextResponse.statusCode()).thenReturn(200);
-        ObjectNode textResponseJson = objectMapper.createObjectNode();
-        textResponseJson.put("text", "这是一个测试的语音翻译功能");
-        when(mockTextResponse.body()).thenReturn(textResponseJson.toString());
-        
-        // 第二次调用（textToSpeech）的模拟响应
-        HttpResponse<byte[]> mockAudioResponse = mock(HttpResponse.class);
-        when(mockAudioResponse.statusCode()).thenReturn(200);
-        byte[] mockAudioData = new byte[1024]; // 模拟合成的音频数据
-        when(mockAudioResponse.body()).thenReturn(mockAudioData);
-        
-        // 设置不同类型的响应处理器以匹配不同的API调用
-        when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandlers.ofString().getClass()))).thenReturn(mockTextResponse);
-        when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandlers.ofByteArray().getClass()))).thenReturn(mockAudioResponse);
-        
-        // 由于无法精确匹配不同类型的BodyHandler，我们可以使用通用的模拟方式：
-        AtomicReference<HttpResponse<?>> responseRef = new AtomicReference<>();
-        responseRef.set(mockTextResponse); // 首先设置为文本响应
-        
-        when(httpClient.send(any(HttpRequest.class), any(BodyHandler.class))).thenAnswer(invocation -> {
-            // 如果是第一次调用返回文本响应，第二次调用返回音频响应
-            if (responseRef.get() == mockTextResponse) {
-                responseRef.set(mockAudioResponse);
-                return mockTextResponse;
-            } else {
-                return mockAudioResponse;
+        Flux<byte[]> resultFlux = speechService.translateSpeechToSpeech(audioData, translationRequest, session);
+
+        StepVerifier.create(resultFlux)
+                .assertNext(audio -> assertEquals(1024, audio.length))
+                .verifyComplete();
+    }
+
+    /**
+     * 测试多目标语言翻译：只识别一次，每种语言分别翻译和合成
+     */
+    @Test
+    public void testTranslateSpeechToTargets() throws Exception {
+        AtomicInteger transcriptions = new AtomicInteger();
+        List<String> voices = new CopyOnWriteArrayList<>();
+
+        server.route("/v1/audio/transcriptions", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            transcriptions.incrementAndGet();
+            respond(exchange, 200, "{\"text\":\"你好\"}".getBytes(StandardCharsets.UTF_8));
+        });
+        server.route("/v1/audio/speech", exchange -> {
+            voices.add(objectMapper.readTree(exchange.getRequestBody()).get("voice").asText());
+            respond(exchange, 200, new byte[512]);
+        });
+
+        TranslationRequest multiTarget = request.toBuilder()
+                .targetLanguages(List.of("en-US", "ja-JP", "zh-CN"))
+                .voices(Map.of("ja-JP", "nova"))
+                .build();
+
+        List<TranslationResult> results = speechService.translateSpeechToTargets(new byte[1024], multiTarget, session)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(1, transcriptions.get());
+        assertEquals(6, results.size());
+
+        Map<String, String> translations = results.stream()
+                .filter(result -> result.getAudio() == null)
+                .collect(Collectors.toMap(TranslationResult::getLanguage, TranslationResult::getTranslatedText));
+        assertEquals(Map.of("en-US", "[en-US] 你好", "ja-JP", "[ja-JP] 你好", "zh-CN", "你好"), translations);
+        assertEquals(3, results.stream().filter(result -> result.getAudio() != null && result.getAudio().length == 512).count());
+        assertTrue(voices.contains("nova"));
+
+        // 同一语言的译文先于音频发出
+        for (String language : List.of("en-US", "ja-JP", "zh-CN")) {
+            List<TranslationResult> perLanguage = results.stream()
+                    .filter(result -> language.equals(result.getLanguage()))
+                    .toList();
+            assertEquals(2, perLanguage.size());
+            assertNull(perLanguage.get(0).getAudio());
+        }
+    }
+
+    @Test
+    public void testRequestIsSentOnlyOnSubscribe() throws Exception {
+        server.route("/v1/audio/speech", exchange -> respond(exchange, 200, new byte[16]));
+
+        Flux<byte[]> resultFlux = speechService.textToSpeech("这是一个测试", request, session);
+        assertEquals(0, server.getRequestCount());
+
+        resultFlux.blockLast(Duration.ofSeconds(5));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void testMaxInFlightLimit() throws Exception {
+        openaiConfig.setMaxInFlight(2);
+        speechService.init();
+
+        server.route("/v1/audio/speech", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            sleep(200);
+            respond(exchange, 200, new byte[256]);
+        });
+
+        // 同时发起6个请求，服务端同一时刻最多只应看到2个
+        Long completed = Flux.range(0, 6)
+                .flatMap(i -> speechService.textToSpeech("文本" + i, request, session))
+                .count()
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(6L, completed);
+        assertEquals(6, server.getRequestCount());
+        assertTrue(server.getMaxInFlight() <= 2, "服务端观察到的并发数: " + server.getMaxInFlight());
+    }
+
+    @Test
+    public void testRequestTimeout() throws Exception {
+        openaiConfig.setRequestTimeoutMillis(200);
+        speechService.init();
+
+        server.route("/v1/audio/transcriptions", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            sleep(1500);
+            respond(exchange, 200, "{\"text\":\"太迟了\"}".getBytes(StandardCharsets.UTF_8));
+        });
+
+        StepVerifier.create(speechService.speechToText(new byte[1024], request, session))
+                .expectError()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void testCancellationAbortsExchange() throws Exception {
+        CountDownLatch aborted = new CountDownLatch(1);
+
+        // 桩服务器持续慢速写出音频，直到客户端中止连接
+        server.route("/v1/audio/speech", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int i = 0; i < 100; i++) {
+                    out.write(new byte[8192]);
+                    out.flush();
+                    sleep(50);
+                }
+            } catch (IOException e) {
+                aborted.countDown();
             }
         });
-        
-        // 调用语音转语音翻译方法
-        Flux<byte[]> resultFlux = speechService.translateSpeechToSpeech(audioData, translationRequest, session);
-        
-        // 验证结果 - 由于使用的是模拟数据，我们只能验证流程是否顺利执行
-        AtomicReference<byte[]> resultRef = new AtomicReference<>();
-        resultFlux.next().subscribe(resultRef::set);
-        
-        // 这里实际上无法验证结果，因为我们不会真正执行HTTP调用
+
+        CountDownLatch firstFrame = new CountDownLatch(1);
+        Disposable subscription = speechService.textToSpeech("这是一个测试", request, session)
+                .subscribe(frame -> firstFrame.countDown());
+
+        assertTrue(firstFrame.await(5, TimeUnit.SECONDS));
+        subscription.dispose();
+
+        assertTrue(aborted.await(5, TimeUnit.SECONDS), "取消订阅后HTTP交换应被中止");
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
     }
-    
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private byte[] loadTestAudioData() throws IOException {
         // 从测试资源加载测试音频文件
         try (InputStream is = getClass().getResourceAsStream("/test-audio.wav")) {
@@ -203,4 +324,4 @@ private byte[] loadTestAudioData() throws IOException {
             return is.readAllBytes();
         }
     }
-} 
\ No newline at end of file
+}
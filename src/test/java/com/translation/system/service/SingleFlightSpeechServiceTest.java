@@ -0,0 +1,109 @@
+package com.translation.system.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.translation.system.model.TranslationRequest;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+public class SingleFlightSpeechServiceTest {
+
+    @Mock
+    private SpeechService delegate;
+
+    @Mock
+    private WebSocketSession session1;
+
+    @Mock
+    private WebSocketSession session2;
+
+    private SingleFlightSpeechService speechService;
+
+    @BeforeEach
+    public void setup() {
+        speechService = new SingleFlightSpeechService(delegate);
+    }
+
+    @Test
+    public void testIdenticalSynthesisIsSharedAsOneResult() {
+        when(delegate.textToSpeech(anyString(), anyString(), any(TranslationRequest.class)))
+                .thenReturn(Flux.just(new byte[] {1, 2}, new byte[] {3}).delayElements(Duration.ofMillis(50)));
+
+        TranslationRequest request1 = TranslationRequest.builder().targetLanguage("en-US").voice("alloy").sessionId("s1").build();
+        TranslationRequest request2 = TranslationRequest.builder().targetLanguage("en-US").voice("alloy").sessionId("s2").build();
+
+        // 共享的是合并后的完整音频，每个调用方收到一个结果
+        StepVerifier.create(Flux.merge(
+                        speechService.textToSpeech("你好", "en-US", request1),
+                        speechService.textToSpeech("你好", "en-US", request2)))
+                .expectNextMatches(audio -> Arrays.equals(new byte[] {1, 2, 3}, audio))
+                .expectNextMatches(audio -> Arrays.equals(new byte[] {1, 2, 3}, audio))
+                .verifyComplete();
+
+        verify(delegate, times(1)).textToSpeech(anyString(), anyString(), any(TranslationRequest.class));
+    }
+
+    @Test
+    public void testDifferentRequestsAreNotShared() {
+        when(delegate.textToSpeech(anyString(), anyString(), any(TranslationRequest.class)))
+                .thenReturn(Flux.just(new byte[] {1}).delayElements(Duration.ofMillis(50)));
+
+        TranslationRequest alloy = TranslationRequest.builder().targetLanguage("en-US").voice("alloy").build();
+        TranslationRequest nova = TranslationRequest.builder().targetLanguage("en-US").voice("nova").build();
+
+        StepVerifier.create(Flux.merge(
+                        speechService.textToSpeech("你好", "en-US", alloy),
+                        speechService.textToSpeech("你好", "en-US", nova)))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        verify(delegate, times(2)).textToSpeech(anyString(), anyString(), any(TranslationRequest.class));
+    }
+
+    @Test
+    public void testSessionCallsAreNotShared() {
+        when(delegate.textToSpeech(anyString(), any(TranslationRequest.class), any(WebSocketSession.class)))
+                .thenReturn(Flux.just(new byte[] {1}).delayElements(Duration.ofMillis(50)));
+
+        TranslationRequest request = TranslationRequest.builder().targetLanguage("en-US").voice("alloy").build();
+
+        // 带会话的调用有按会话处理的工作，各自调用下层服务
+        StepVerifier.create(Flux.merge(
+                        speechService.textToSpeech("你好", request, session1),
+                        speechService.textToSpeech("你好", request, session2)))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        verify(delegate, times(2)).textToSpeech(anyString(), any(TranslationRequest.class), any(WebSocketSession.class));
+    }
+
+    @Test
+    public void testIdenticalAudioIsRecognizedOnce() {
+        when(delegate.speechToText(any(byte[].class), anyString()))
+                .thenReturn(Flux.just("你好").delayElements(Duration.ofMillis(50)));
+
+        StepVerifier.create(Flux.merge(
+                        speechService.speechToText(new byte[] {1, 2, 3}, "zh-CN"),
+                        speechService.speechToText(new byte[] {1, 2, 3}, "zh-CN")))
+                .expectNext("你好", "你好")
+                .verifyComplete();
+
+        verify(delegate, times(1)).speechToText(any(byte[].class), anyString());
+    }
+}
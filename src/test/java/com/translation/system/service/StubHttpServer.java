@@ -0,0 +1,78 @@
+package com.translation.system.service;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * 基于JDK HttpServer的本地桩服务器，用于离线测试外部HTTP服务的调用和并发行为
+ */
+public class StubHttpServer implements AutoCloseable {
+
+    /**
+     * 桩接口处理函数
+     */
+    @FunctionalInterface
+    public interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private StubHttpServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+    }
+
+    public static StubHttpServer start() throws IOException {
+        StubHttpServer stub = new StubHttpServer();
+        stub.server.start();
+        return stub;
+    }
+
+    /**
+     * 注册路径处理函数，同时统计请求数和服务端观察到的最大并发数
+     */
+    public StubHttpServer route(String path, Handler handler) {
+        server.createContext(path, exchange -> {
+            requestCount.incrementAndGet();
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            try {
+                handler.handle(exchange);
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+        return this;
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
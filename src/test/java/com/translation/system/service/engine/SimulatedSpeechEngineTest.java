@@ -0,0 +1,121 @@
+package com.translation.system.service.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.translation.system.config.SpeechConfig.Engine;
+
+import reactor.core.Disposable;
+
+public class SimulatedSpeechEngineTest {
+
+    private Engine config;
+
+    @BeforeEach
+    public void setup() {
+        config = new Engine();
+        config.getSimulated().setBytesPerUtterance(100);
+        config.getSimulated().setRecognition(new Engine.Latency(60, 0, 0));
+        config.getSimulated().setPartialIntervalMillis(20);
+    }
+
+    /**
+     * 收集回调结果
+     */
+    private static class Collector<T> implements EngineListener<T> {
+        final List<String> partials = new CopyOnWriteArrayList<>();
+        final List<T> results = new CopyOnWriteArrayList<>();
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(1);
+
+        @Override
+        public void onPartial(String text) {
+            partials.add(text);
+        }
+
+        @Override
+        public void onResult(T result) {
+            results.add(result);
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error.set(throwable);
+            done.countDown();
+        }
+    }
+
+    @Test
+    public void testRecognitionIsDeterministicWithPartials() throws Exception {
+        SimulatedSpeechEngine engine = new SimulatedSpeechEngine(config);
+        byte[] audio = new byte[250];
+        audio[10] = 1;
+
+        Collector<String> first = new Collector<>();
+        engine.recognize("zh-CN", audio, first);
+        assertTrue(first.done.await(5, TimeUnit.SECONDS));
+        Collector<String> second = new Collector<>();
+        engine.recognize("zh-CN", audio, second);
+        assertTrue(second.done.await(5, TimeUnit.SECONDS));
+
+        // 250字节按每句100字节切分为3句，每句识别延迟内有2个中间结果
+        assertNull(first.error.get());
+        assertEquals(3, first.results.size());
+        assertEquals(first.results, second.results);
+        assertEquals(6, first.partials.size());
+        assertTrue(first.results.get(0).startsWith(first.partials.get(1)));
+    }
+
+    @Test
+    public void testErrorInjection() throws Exception {
+        config.getSimulated().setTranslationErrorRate(1.0);
+        SimulatedSpeechEngine engine = new SimulatedSpeechEngine(config);
+
+        Collector<TranslatedUtterance> collector = new Collector<>();
+        engine.translate("zh-CN", List.of("en"), new byte[100], collector);
+
+        assertTrue(collector.done.await(5, TimeUnit.SECONDS));
+        assertTrue(collector.error.get() instanceof SimulatedSpeechEngine.SimulatedEngineException);
+        assertTrue(collector.results.isEmpty());
+    }
+
+    @Test
+    public void testDisposeStopsOperation() throws Exception {
+        config.getSimulated().setRecognition(new Engine.Latency(200, 0, 0));
+        SimulatedSpeechEngine engine = new SimulatedSpeechEngine(config);
+
+        Collector<String> collector = new Collector<>();
+        Disposable operation = engine.recognize("zh-CN", new byte[100], collector);
+        operation.dispose();
+
+        assertFalse(collector.done.await(400, TimeUnit.MILLISECONDS));
+        assertTrue(collector.results.isEmpty());
+    }
+
+    @Test
+    public void testLatencySamplingRespectsCap() {
+        SimulatedSpeechEngine engine = new SimulatedSpeechEngine(config);
+        Engine.Latency latency = new Engine.Latency(100, 1.0, 300);
+        for (int i = 0; i < 1000; i++) {
+            long sample = engine.sample(latency);
+            assertTrue(sample >= 0 && sample <= 300);
+        }
+        assertEquals(100, engine.sample(new Engine.Latency(100, 0, 0)));
+    }
+}
@@ -0,0 +1,125 @@
+package com.translation.system.service.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.translation.system.config.SpeechConfig;
+import com.translation.system.service.SpeechService;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class BulkheadSpeechServiceTest {
+
+    @Mock
+    private SpeechService provider;
+
+    private SpeechConfig.Bulkhead config;
+
+    @BeforeEach
+    public void setup() {
+        config = new SpeechConfig.Bulkhead();
+        config.setInitialLimit(4);
+        config.setMinLimit(1);
+        config.setMaxLimit(8);
+        config.setBackoffRatio(0.5);
+        when(provider.getProviderName()).thenReturn("microsoft");
+    }
+
+    @Test
+    public void testRejectsFastWhenLimitReached() {
+        config.setInitialLimit(1);
+        Sinks.Many<String> pending = Sinks.many().unicast().onBackpressureBuffer();
+        when(provider.speechToText(any(byte[].class), anyString())).thenReturn(pending.asFlux(), Flux.just("第二次"));
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+        BulkheadSpeechService service = new BulkheadSpeechService(provider, limiter);
+
+        Disposable first = service.speechToText(new byte[] {1}, "zh-CN").subscribe();
+        StepVerifier.create(service.speechToText(new byte[] {1}, "zh-CN"))
+                .expectErrorSatisfies(error -> {
+                    assertTrue(error instanceof ProviderOverloadedException);
+                    assertEquals(ProviderOverloadedException.ERROR_CODE, ((ProviderOverloadedException) error).getErrorCode());
+                })
+                .verify();
+        assertEquals(1L, limiter.getStats().get("rejected"));
+
+        // 许可在流结束后归还
+        first.dispose();
+        assertEquals(0, limiter.getInFlight());
+        StepVerifier.create(service.speechToText(new byte[] {1}, "zh-CN"))
+                .expectNext("第二次")
+                .verifyComplete();
+    }
+
+    @Test
+    public void testLimitIncreasesUnderLoadAndBacksOffOnLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+
+        // 延迟接近基线且上限被用满时加性增长
+        for (int i = 0; i < 8; i++) {
+            limiter.onSample("speech-to-text", 100);
+        }
+        assertEquals(5, limiter.getLimit());
+        assertTrue(limiter.tryAcquire());
+
+        // 延迟超过基线两倍时乘性下降
+        limiter.onSample("speech-to-text", 500);
+        assertEquals(2, limiter.getLimit());
+
+        // 失败同样视为拥塞，但不低于下限
+        limiter.release(true);
+        limiter.release(true);
+        assertEquals(1, limiter.getLimit());
+    }
+
+    @Test
+    public void testFailureIsDropNotLatencySample() {
+        when(provider.speechToText(any(byte[].class), anyString()))
+                .thenReturn(Flux.just("你好"), Flux.error(new IllegalStateException("连接中断")));
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+        BulkheadSpeechService service = new BulkheadSpeechService(provider, limiter);
+
+        StepVerifier.create(service.speechToText(new byte[32000], "zh-CN")).expectNext("你好").verifyComplete();
+        StepVerifier.create(service.speechToText(new byte[32000], "zh-CN")).verifyError(IllegalStateException.class);
+
+        // 很快失败的请求不进入延迟基线，只作为拥塞信号降低上限
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testLatencyIsNormalizedByAudioLength() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+        // 1秒音频用时200毫秒，10秒音频用时2秒，按每秒音频折算后相同，不视为拥塞
+        limiter.onSample("speech-to-text", 200 / BulkheadSpeechService.audioSeconds(new byte[32000], null));
+        limiter.onSample("speech-to-text", 2000 / BulkheadSpeechService.audioSeconds(new byte[320000], null));
+        assertEquals(4, limiter.getLimit());
+
+        // 各操作类型的基线互不影响
+        limiter.onSample("text-to-speech", 800);
+        assertEquals(4, limiter.getLimit());
+    }
+}
@@ -0,0 +1,180 @@
+package com.translation.system.service.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.translation.system.config.SpeechConfig;
+import com.translation.system.service.SpeechService;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class HedgingSpeechServiceTest {
+
+    @Mock
+    private SpeechService primary;
+
+    @Mock
+    private SpeechService secondary;
+
+    private SpeechConfig.Hedging config;
+
+    @BeforeEach
+    public void setup() {
+        config = new SpeechConfig.Hedging();
+        config.setDefaultDelayMillis(100);
+        config.setMinDelayMillis(10);
+        config.setMaxHedgeRatio(1.0);
+        when(primary.getProviderName()).thenReturn("microsoft");
+        when(secondary.getProviderName()).thenReturn("openai");
+    }
+
+    @Test
+    public void testFastPrimaryIsNotHedged() {
+        when(primary.speechToText(any(byte[].class), anyString())).thenReturn(Flux.just("primary"));
+        HedgingSpeechService service = new HedgingSpeechService(primary, secondary, config);
+
+        StepVerifier.create(service.speechToText(new byte[] {1}, "zh-CN"))
+                .expectNext("primary")
+                .verifyComplete();
+
+        verify(secondary, never()).speechToText(any(byte[].class), anyString());
+        assertEquals(0L, service.getStats().get("hedges"));
+    }
+
+    @Test
+    public void testSlowPrimaryIsHedgedAndCancelled() {
+        AtomicBoolean primaryCancelled = new AtomicBoolean();
+        when(primary.speechToText(any(byte[].class), anyString())).thenReturn(
+                Flux.just("primary").delaySubscription(Duration.ofSeconds(2)).doOnCancel(() -> primaryCancelled.set(true)));
+        when(secondary.speechToText(any(byte[].class), anyString())).thenReturn(Flux.just("secondary"));
+        HedgingSpeechService service = new HedgingSpeechService(primary, secondary, config);
+
+        StepVerifier.create(service.speechToText(new byte[] {1}, "zh-CN"))
+                .expectNext("secondary")
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        assertTrue(primaryCancelled.get());
+        assertEquals(1L, service.getStats().get("hedges"));
+        assertEquals(1L, service.getStats().get("hedgeWins"));
+    }
+
+    @Test
+    public void testPrimaryFailureFailsOverWithoutWaiting() {
+        config.setDefaultDelayMillis(5000);
+        config.setMaxHedgeRatio(0.0);
+        when(primary.speechToText(any(byte[].class), anyString()))
+                .thenReturn(Flux.error(new IllegalStateException("主服务故障")));
+        when(secondary.speechToText(any(byte[].class), anyString())).thenReturn(Flux.just("secondary"));
+        HedgingSpeechService service = new HedgingSpeechService(primary, secondary, config);
+
+        // 主服务的错误不算返回，不等对冲阈值也不占对冲预算
+        StepVerifier.create(service.speechToText(new byte[] {1}, "zh-CN"))
+                .expectNext("secondary")
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        assertEquals(1L, service.getStats().get("failovers"));
+        assertEquals(0L, service.getStats().get("hedges"));
+    }
+
+    @Test
+    public void testFailedHedgeDoesNotWin() {
+        when(primary.speechToText(any(byte[].class), anyString()))
+                .thenReturn(Flux.just("primary").delaySubscription(Duration.ofMillis(300)));
+        when(secondary.speechToText(any(byte[].class), anyString()))
+                .thenReturn(Flux.error(new ProviderOverloadedException("openai", 1)));
+        HedgingSpeechService service = new HedgingSpeechService(primary, secondary, config);
+
+        StepVerifier.create(service.speechToText(new byte[] {1}, "zh-CN"))
+                .expectNext("primary")
+                .verifyComplete();
+
+        assertEquals(1L, service.getStats().get("hedges"));
+        assertEquals(0L, service.getStats().get("hedgeWins"));
+    }
+
+    @Test
+    public void testPrimaryErrorIsReturnedWhenBothFail() {
+        when(primary.speechToText(any(byte[].class), anyString()))
+                .thenReturn(Flux.error(new IllegalStateException("主服务故障")));
+        when(secondary.speechToText(any(byte[].class), anyString())).thenReturn(Flux.empty());
+        HedgingSpeechService service = new HedgingSpeechService(primary, secondary, config);
+
+        StepVerifier.create(service.speechToText(new byte[] {1}, "zh-CN"))
+                .expectErrorMessage("主服务故障")
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void testHedgeBudgetCapsHedges() {
+        config.setMaxHedgeRatio(0.0);
+        when(primary.speechToText(any(byte[].class), anyString()))
+                .thenReturn(Flux.just("primary").delaySubscription(Duration.ofMillis(300)));
+        HedgingSpeechService service = new HedgingSpeechService(primary, secondary, config);
+
+        StepVerifier.create(service.speechToText(new byte[] {1}, "zh-CN"))
+                .expectNext("primary")
+                .verifyComplete();
+
+        verify(secondary, never()).speechToText(any(byte[].class), anyString());
+        assertEquals(1L, service.getStats().get("budgetDenied"));
+    }
+
+    @Test
+    public void testHedgeDelayFollowsPercentile() {
+        config.setMinSamples(10);
+        HedgingSpeechService service = new HedgingSpeechService(primary, secondary, config);
+        LatencyTracker tracker = new LatencyTracker(100);
+
+        // 样本不足时使用默认阈值
+        assertEquals(Duration.ofMillis(100), service.hedgeDelay(tracker));
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(i * 10L);
+        }
+        assertEquals(Duration.ofMillis(950), service.hedgeDelay(tracker));
+    }
+
+    @Test
+    public void testLatencyTrackerWindowAndBudget() {
+        LatencyTracker tracker = new LatencyTracker(4);
+        assertEquals(-1, tracker.percentile(0.5));
+        for (long sample : new long[] {1000, 1000, 10, 20, 30, 40}) {
+            tracker.record(sample);
+        }
+        // 只保留最近4个样本
+        assertEquals(4, tracker.getCount());
+        assertEquals(40, tracker.percentile(0.99));
+
+        HedgeBudget budget = new HedgeBudget(0.25, 2);
+        int granted = 0;
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest();
+            if (budget.tryAcquire()) {
+                granted++;
+            }
+        }
+        assertEquals(25, granted);
+        assertFalse(budget.tryAcquire());
+    }
+}
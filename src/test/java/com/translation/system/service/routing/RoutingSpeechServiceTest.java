@@ -0,0 +1,177 @@
+package com.translation.system.service.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.translation.system.config.SpeechConfig;
+import com.translation.system.service.SpeechService;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class RoutingSpeechServiceTest {
+
+    private static final String OPERATION = "speech-to-text";
+
+    @Mock
+    private SpeechService microsoft;
+
+    @Mock
+    private SpeechService openai;
+
+    private SpeechConfig.Routing config;
+    private AtomicLong now;
+    private ProviderHealth microsoftHealth;
+    private ProviderHealth openaiHealth;
+    private RoutingSpeechService service;
+
+    @BeforeEach
+    public void setup() {
+        config = new SpeechConfig.Routing();
+        config.setMinRequests(3);
+        config.setErrorRateThreshold(0.4);
+        config.setOpenMillis(1000);
+        now = new AtomicLong();
+        when(microsoft.isAvailable()).thenReturn(true);
+        when(openai.isAvailable()).thenReturn(true);
+        microsoftHealth = new ProviderHealth("microsoft", config, now::get);
+        openaiHealth = new ProviderHealth("openai", config, now::get);
+        service = new RoutingSpeechService(List.of(
+                new RoutingSpeechService.Route(microsoft, microsoftHealth),
+                new RoutingSpeechService.Route(openai, openaiHealth)));
+    }
+
+    private static void complete(ProviderHealth health, long latencyMillis) {
+        health.onStart(OPERATION);
+        health.onFirstResponse(OPERATION, latencyMillis);
+        health.onComplete(OPERATION);
+    }
+
+    private static void fail(ProviderHealth health) {
+        health.onStart(OPERATION);
+        health.onError(OPERATION);
+    }
+
+    @Test
+    public void testRoutesToLowestPredictedLatency() {
+        // 没有样本时按顺序优先
+        assertSame(microsoft, service.select(OPERATION));
+
+        complete(microsoftHealth, 800);
+        complete(openaiHealth, 300);
+        assertSame(openai, service.select(OPERATION));
+
+        // 进行中的请求数放大预测延迟
+        openaiHealth.onStart(OPERATION);
+        openaiHealth.onStart(OPERATION);
+        assertSame(microsoft, service.select(OPERATION));
+
+        // 不可用的服务不参与路由
+        when(microsoft.isAvailable()).thenReturn(false);
+        assertSame(openai, service.select(OPERATION));
+    }
+
+    @Test
+    public void testCircuitOpensAndRecovers() {
+        complete(microsoftHealth, 100);
+        complete(openaiHealth, 500);
+        for (int i = 0; i < 3; i++) {
+            fail(microsoftHealth);
+        }
+        assertTrue(microsoftHealth.isOpen(OPERATION));
+        assertSame(openai, service.select(OPERATION));
+
+        // 熔断期过后放行一个试探请求，试探期间其余请求仍然绕开
+        now.addAndGet(1000);
+        assertSame(microsoft, service.select(OPERATION));
+        assertSame(openai, service.select(OPERATION));
+    }
+
+    @Test
+    public void testHalfOpenAllowsSingleTrial() {
+        for (int i = 0; i < 3; i++) {
+            fail(microsoftHealth);
+        }
+        assertFalse(microsoftHealth.tryAcquire(OPERATION));
+
+        now.addAndGet(1000);
+        assertTrue(microsoftHealth.tryAcquire(OPERATION));
+        assertFalse(microsoftHealth.tryAcquire(OPERATION));
+
+        // 试探失败重新熔断
+        fail(microsoftHealth);
+        assertFalse(microsoftHealth.tryAcquire(OPERATION));
+
+        // 再次试探成功后恢复
+        now.addAndGet(1000);
+        assertTrue(microsoftHealth.tryAcquire(OPERATION));
+        complete(microsoftHealth, 100);
+        assertFalse(microsoftHealth.isOpen(OPERATION));
+        assertTrue(microsoftHealth.tryAcquire(OPERATION));
+    }
+
+    @Test
+    public void testAllOpenFallsBackToBestProvider() {
+        for (int i = 0; i < 3; i++) {
+            fail(microsoftHealth);
+            fail(openaiHealth);
+        }
+        assertSame(microsoft, service.select(OPERATION));
+    }
+
+    @Test
+    public void testSkipsProviderWithFullBulkhead() {
+        SpeechConfig.Bulkhead bulkhead = new SpeechConfig.Bulkhead();
+        bulkhead.setInitialLimit(1);
+        bulkhead.setMinLimit(1);
+        AdaptiveConcurrencyLimiter microsoftLimiter = new AdaptiveConcurrencyLimiter(bulkhead);
+        RoutingSpeechService guarded = new RoutingSpeechService(List.of(
+                new RoutingSpeechService.Route(microsoft, microsoftHealth, microsoftLimiter),
+                new RoutingSpeechService.Route(openai, openaiHealth, new AdaptiveConcurrencyLimiter(bulkhead))));
+        complete(microsoftHealth, 100);
+        complete(openaiHealth, 500);
+
+        assertSame(microsoft, guarded.select(OPERATION));
+        assertTrue(microsoftLimiter.tryAcquire());
+        // 延迟更低的服务并发已满，请求交给另一个服务而不是被隔离舱拒绝
+        assertSame(openai, guarded.select(OPERATION));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testHealthTrackingRecordsOutcomes() {
+        when(microsoft.speechToText(any(byte[].class), anyString()))
+                .thenReturn(Flux.just("你好"), Flux.error(new IllegalStateException("boom")));
+        HealthTrackingSpeechService tracked = new HealthTrackingSpeechService(microsoft, microsoftHealth);
+
+        StepVerifier.create(tracked.speechToText(new byte[] {1}, "zh-CN"))
+                .expectNext("你好")
+                .verifyComplete();
+        StepVerifier.create(tracked.speechToText(new byte[] {1}, "zh-CN"))
+                .verifyError(IllegalStateException.class);
+
+        Map<String, Object> stats = (Map<String, Object>) microsoftHealth.getStats().get(OPERATION);
+        assertEquals(2L, stats.get("completed"));
+        assertEquals(0, stats.get("inFlight"));
+        assertEquals(0.2, (double) stats.get("errorRate"), 1e-9);
+    }
+}
@@ -0,0 +1,115 @@
+package com.translation.system.service.translation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.translation.system.config.TranslationConfig;
+
+public class FuzzyTranslationIndexTest {
+
+    private TranslationConfig translationConfig;
+    private FuzzyTranslationIndex index;
+
+    @BeforeEach
+    public void setup() {
+        translationConfig = new TranslationConfig();
+        index = new FuzzyTranslationIndex(translationConfig);
+    }
+
+    @Test
+    public void testNearDuplicateIsFound() {
+        index.add("en-US", "zh-CN", "Good morning everyone, let's start today's weekly meeting.", "大家早上好，我们开始今天的周会。");
+        index.add("en-US", "zh-CN", "Please share your screen so we can see the slides.", "请共享屏幕，让我们看到幻灯片。");
+
+        // 多了一个语气词
+        FuzzyTranslationIndex.Match match = index.lookup("en-US", "zh-CN",
+                "Good morning everyone, um, let's start today's weekly meeting.");
+        assertNotNull(match);
+        assertEquals("大家早上好，我们开始今天的周会。", match.translation());
+        assertTrue(match.similarity() >= 0.8 && match.similarity() < 1.0);
+    }
+
+    @Test
+    public void testBelowThresholdIsNotReturned() {
+        index.add("en-US", "zh-CN", "Good morning everyone, let's start today's weekly meeting.", "大家早上好，我们开始今天的周会。");
+
+        assertNull(index.lookup("en-US", "zh-CN", "The quarterly budget review is postponed until Friday."));
+        assertNull(index.lookup("en-US", "zh-CN", "Good morning everyone, let's review the budget.", 0.95));
+    }
+
+    @Test
+    public void testExactSegmentAndLanguagePairs() {
+        index.add("zh-CN", "en-US", "我们下午三点开会", "We have a meeting at 3 p.m.");
+        index.add("zh-CN", "en-US", "我们下午三点开会。", "We'll meet at 3 p.m.");
+
+        // 规范化后相同的句段只保留一条，译文更新为最新的
+        assertEquals(1, index.size());
+        FuzzyTranslationIndex.Match match = index.lookup("zh-CN", "en-US", "我们下午三点开会！");
+        assertEquals("We'll meet at 3 p.m.", match.translation());
+        assertEquals(1.0, match.similarity());
+
+        assertNull(index.lookup("zh-CN", "ja-JP", "我们下午三点开会"));
+    }
+
+    @Test
+    public void testGrowAndOverwriteOldest() {
+        translationConfig.getFuzzy().setMaxSegments(2000);
+
+        for (int i = 0; i < 3000; i++) {
+            index.add("en-US", "zh-CN", "segment number " + i + " of the test corpus", "句段" + i);
+        }
+
+        assertEquals(2000, index.size());
+        // 最早的句段已被覆盖，最新的句段仍可精确命中
+        FuzzyTranslationIndex.Match latest = index.lookup("en-US", "zh-CN", "segment number 2999 of the test corpus");
+        assertEquals("句段2999", latest.translation());
+        FuzzyTranslationIndex.Match oldest = index.lookup("en-US", "zh-CN", "segment number 5 of the test corpus", 1.0);
+        assertNull(oldest);
+    }
+
+    @Test
+    public void testRecallOnRandomCorpus() {
+        Random random = new Random(42);
+        String[] words = new String[500];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = "w" + Integer.toString(random.nextInt(1 << 20), 36);
+        }
+        String[] corpus = new String[10_000];
+        for (int i = 0; i < corpus.length; i++) {
+            StringBuilder sentence = new StringBuilder();
+            for (int j = 0, length = 6 + random.nextInt(9); j < length; j++) {
+                sentence.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            corpus[i] = sentence.append(i).toString();
+            index.add("en-US", "zh-CN", corpus[i], "译文" + i);
+        }
+
+        // 在句段中间插入一个语气词，绝大多数应找回原句段
+        int found = 0;
+        for (int i = 0; i < 500; i++) {
+            int expected = random.nextInt(corpus.length);
+            String segment = corpus[expected];
+            int space = segment.indexOf(' ', segment.length() / 2);
+            FuzzyTranslationIndex.Match match = index.lookup("en-US", "zh-CN",
+                    segment.substring(0, space) + " um" + segment.substring(space));
+            if (match != null && match.translation().equals("译文" + expected)) {
+                found++;
+            }
+        }
+        assertTrue(found > 475, "召回率过低: " + found + "/500");
+    }
+
+    @Test
+    public void testJaccard() {
+        assertEquals(1.0, FuzzyTranslationIndex.jaccard(new int[] {1, 2, 3}, new int[] {1, 2, 3}));
+        assertEquals(0.5, FuzzyTranslationIndex.jaccard(new int[] {1, 2, 3}, new int[] {2, 3, 4}));
+        assertEquals(0.0, FuzzyTranslationIndex.jaccard(new int[] {1}, new int[] {2}));
+    }
+}
@@ -0,0 +1,109 @@
+package com.translation.system.service.translation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.translation.system.config.TranslationConfig;
+
+public class OfflinePhraseTranslatorTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private OfflinePhraseTranslator translator;
+
+    @BeforeEach
+    public void setup() {
+        TranslationConfig config = new TranslationConfig();
+        config.getFallback().setCacheDirectory(tempDir.toString());
+        translator = new OfflinePhraseTranslator(config);
+        translator.init();
+    }
+
+    @Test
+    public void testCompiledTableLookup() throws Exception {
+        Path file = tempDir.resolve("test.phr");
+        int count = PhraseTable.compile(new StringReader(
+                "# 注释\nHello\t你好\nhello world\t你好世界\nhello\t您好\n\nbroken line\n"), file);
+        PhraseTable table = PhraseTable.open(file);
+
+        // 键规范化为小写，重复的键保留最后一条
+        assertEquals(2, count);
+        assertEquals(2, table.size());
+        assertEquals("您好", table.value(table.find("hello", 0, 5)));
+        assertEquals("你好世界", table.value(table.find("say hello world", 4, 11)));
+        assertEquals(-1, table.find("help", 0, 4));
+        assertEquals(-1, table.find("zzz", 0, 3));
+    }
+
+    @Test
+    public void testCompiledTableInsideJar() throws Exception {
+        // 打包后类路径中的.phr位于jar内，不能直接映射
+        Path compiled = tempDir.resolve("source.phr");
+        PhraseTable.compile(new StringReader("hello\t你好\n"), compiled);
+        Path jar = tempDir.resolve("phrases.jar");
+        try (OutputStream out = Files.newOutputStream(jar); JarOutputStream jarOut = new JarOutputStream(out)) {
+            jarOut.putNextEntry(new JarEntry("phrases/en-zh.phr"));
+            jarOut.write(Files.readAllBytes(compiled));
+            jarOut.closeEntry();
+        }
+
+        TranslationConfig config = new TranslationConfig();
+        config.getFallback().setCacheDirectory(tempDir.resolve("cache").toString());
+        config.getFallback().setTables(Map.of("en-zh", "jar:" + jar.toUri() + "!/phrases/en-zh.phr"));
+        OfflinePhraseTranslator jarTranslator = new OfflinePhraseTranslator(config);
+        jarTranslator.init();
+
+        assertTrue(jarTranslator.supports("en-US", "zh-CN"));
+        assertEquals("你好", jarTranslator.translate("hello", "en-US", "zh-CN"));
+    }
+
+    @Test
+    public void testChineseToEnglishLongestMatch() {
+        // “大家好”整体匹配，而不是拆成“大家”和“好”
+        assertEquals("Hello everyone, welcome everyone. The meeting begins!",
+                translator.translate("大家好，欢迎大家。会议开始！", "zh-CN", "en-US"));
+    }
+
+    @Test
+    public void testUnmatchedTextIsKept() {
+        assertEquals("Hello 李雷", translator.translate("你好李雷", "zh-CN", "en-US"));
+    }
+
+    @Test
+    public void testEnglishToChineseMatchesWholeWords() {
+        assertEquals("谢谢大家。我们开始吧！", translator.translate("Thank you all. Let's start!", "en-US", "zh-CN"));
+        // "hi" 不会匹配 "history" 的前缀
+        assertEquals("你好，history class", translator.translate("Hi, history class", "en-US", "zh-CN"));
+    }
+
+    @Test
+    public void testUnsupportedPairReturnsOriginal() {
+        assertFalse(translator.supports("zh-CN", "fr-FR"));
+        assertTrue(translator.supports("zh-CN", "en-GB"));
+        assertEquals("你好", translator.translate("你好", "zh-CN", "fr-FR"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCoverageStats() {
+        translator.translate("你好李雷", "zh-CN", "en-US");
+
+        Map<String, Object> stats = (Map<String, Object>) translator.getStats().get("zh-en");
+        assertEquals(1L, stats.get("requests"));
+        assertEquals(0.5, (double) stats.get("coverage"), 1e-9);
+    }
+}
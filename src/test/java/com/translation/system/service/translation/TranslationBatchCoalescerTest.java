@@ -0,0 +1,148 @@
+package com.translation.system.service.translation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.translation.system.config.TranslationConfig;
+import com.translation.system.service.impl.MicrosoftTextTranslator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+public class TranslationBatchCoalescerTest {
+
+    @Mock
+    private MicrosoftTextTranslator provider;
+
+    private TranslationConfig translationConfig;
+    private TranslationBatchCoalescer coalescer;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        translationConfig = new TranslationConfig();
+        translationConfig.getBatching().setWindowMillis(50);
+        translationConfig.getBatching().setMaxBatchSize(4);
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new TranslationBatchCoalescer(provider, translationConfig, meterRegistry);
+    }
+
+    @Test
+    public void testRequestsWithinWindowAreSentTogether() {
+        when(provider.translate(eq(List.of("一", "二", "三")), eq("zh-CN"), eq("en-US")))
+                .thenReturn(Mono.just(List.of("one", "two", "three")));
+
+        // 三个会话同时翻译同一语言对
+        Mono<List<String>> all = Flux.merge(
+                coalescer.translate("一", "zh-CN", "en-US"),
+                coalescer.translate("二", "zh-CN", "en-US"),
+                coalescer.translate("三", "zh-CN", "en-US"))
+                .collectSortedList();
+
+        StepVerifier.create(all)
+                .expectNext(List.of("one", "three", "two"))
+                .verifyComplete();
+
+        Map<String, Object> stats = coalescer.getStats();
+        assertEquals(1L, stats.get("batches"));
+        assertEquals(3L, stats.get("items"));
+        assertEquals(0.75, stats.get("fillRatio"));
+        assertEquals(3, meterRegistry.get(TranslationBatchCoalescer.QUEUE_DELAY_METRIC).timer().count());
+        assertEquals(0.75, meterRegistry.get(TranslationBatchCoalescer.FILL_METRIC).summary().max());
+    }
+
+    @Test
+    public void testFullBatchIsSentWithoutWaiting() {
+        translationConfig.getBatching().setWindowMillis(60_000);
+        when(provider.translate(anyList(), anyString(), anyString()))
+                .thenAnswer(invocation -> Mono.just(((List<String>) invocation.getArgument(0)).stream()
+                        .map(String::toUpperCase).toList()));
+
+        Mono<List<String>> all = Flux.merge(
+                coalescer.translate("a", "en-US", "fr-FR"),
+                coalescer.translate("b", "en-US", "fr-FR"),
+                coalescer.translate("c", "en-US", "fr-FR"),
+                coalescer.translate("d", "en-US", "fr-FR"))
+                .collectSortedList();
+
+        StepVerifier.create(all)
+                .expectNext(List.of("A", "B", "C", "D"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void testLanguagePairsAndDuplicates() {
+        when(provider.translate(eq(List.of("你好")), eq("zh-CN"), eq("en-US")))
+                .thenReturn(Mono.just(List.of("Hello")));
+        when(provider.translate(eq(List.of("你好")), eq("zh-CN"), eq("ja-JP")))
+                .thenReturn(Mono.just(List.of("こんにちは")));
+
+        Mono<List<String>> all = Flux.merge(
+                coalescer.translate("你好", "zh-CN", "en-US"),
+                coalescer.translate("你好", "zh-CN", "en-US"),
+                coalescer.translate("你好", "zh-CN", "ja-JP"))
+                .collectSortedList();
+
+        StepVerifier.create(all)
+                .expectNext(List.of("Hello", "Hello", "こんにちは"))
+                .verifyComplete();
+        verify(provider).translate(List.of("你好"), "zh-CN", "en-US");
+    }
+
+    @Test
+    public void testCancelledRequestIsNotSent() {
+        when(provider.translate(eq(List.of("二")), eq("zh-CN"), eq("en-US")))
+                .thenReturn(Mono.just(List.of("two")));
+
+        // 第一个会话在窗口结束前关闭
+        coalescer.translate("一", "zh-CN", "en-US").subscribe().dispose();
+
+        StepVerifier.create(coalescer.translate("二", "zh-CN", "en-US"))
+                .expectNext("two")
+                .verifyComplete();
+        verify(provider).translate(List.of("二"), "zh-CN", "en-US");
+        assertEquals(1L, coalescer.getStats().get("items"));
+    }
+
+    @Test
+    public void testErrorIsFannedOut() {
+        when(provider.translate(anyList(), anyString(), anyString()))
+                .thenReturn(Mono.error(new IllegalStateException("boom")));
+
+        StepVerifier.create(Flux.merge(
+                        coalescer.translate("一", "zh-CN", "en-US").onErrorReturn("failed"),
+                        coalescer.translate("二", "zh-CN", "en-US").onErrorReturn("failed")))
+                .expectNext("failed", "failed")
+                .verifyComplete();
+    }
+
+    @Test
+    public void testDisabled() {
+        translationConfig.getBatching().setEnabled(false);
+        when(provider.translate(List.of("一", "二"), "zh-CN", "en-US"))
+                .thenReturn(Mono.just(List.of("one", "two")));
+
+        StepVerifier.create(coalescer.translate(List.of("一", "二"), "zh-CN", "en-US"))
+                .expectNext(List.of("one", "two"))
+                .verifyComplete();
+        assertEquals(0L, coalescer.getStats().get("batches"));
+    }
+}
@@ -0,0 +1,179 @@
+package com.translation.system.service.translation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.translation.system.config.TranslationConfig;
+import com.translation.system.service.impl.MicrosoftTextTranslator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+public class TranslationPipelineTest {
+
+    @Mock
+    private MicrosoftTextTranslator provider;
+
+    private TranslationConfig translationConfig;
+    private TranslationMemory translationMemory;
+    private TranslationPipeline pipeline;
+
+    @TempDir
+    private Path tempDir;
+
+    @BeforeEach
+    public void setup() {
+        translationConfig = new TranslationConfig();
+        translationMemory = new TranslationMemory(translationConfig);
+        translationConfig.getFallback().setCacheDirectory(tempDir.toString());
+        OfflinePhraseTranslator offlineTranslator = new OfflinePhraseTranslator(translationConfig);
+        offlineTranslator.init();
+        pipeline = new TranslationPipeline(new TranslationBatchCoalescer(provider, translationConfig, new SimpleMeterRegistry()), translationMemory,
+                new FuzzyTranslationIndex(translationConfig), offlineTranslator, translationConfig);
+    }
+
+    @Test
+    public void testHitSkipsProvider() {
+        when(provider.translate(eq(List.of("大家好。")), anyString(), anyString()))
+                .thenReturn(Mono.just(List.of("Hello everyone.")));
+
+        StepVerifier.create(pipeline.translate("大家好。", "zh-CN", "en-US"))
+                .expectNext("Hello everyone.")
+                .verifyComplete();
+        // 句末标点和全角空白不同，仍然命中
+        StepVerifier.create(pipeline.translate("　大家好！", "zh-CN", "en-US"))
+                .expectNext("Hello everyone.")
+                .verifyComplete();
+
+        verify(provider, times(1)).translate(anyList(), anyString(), anyString());
+
+        Map<String, Object> stats = translationMemory.getStats().get("zh-cn->en-us");
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(1L, stats.get("misses"));
+    }
+
+    @Test
+    public void testOnlyMissesAreSentAndDuplicatesCollapsed() {
+        translationMemory.put("zh-CN", "en-US", "谢谢", "Thanks");
+        when(provider.translate(eq(List.of("开始开会", "散会")), eq("zh-CN"), eq("en-US")))
+                .thenReturn(Mono.just(List.of("Let's start the meeting", "Meeting adjourned")));
+
+        StepVerifier.create(pipeline.translate(List.of("开始开会", "谢谢", "散会", "开始开会。"), "zh-CN", "en-US"))
+                .expectNext(List.of("Let's start the meeting", "Thanks", "Meeting adjourned", "Let's start the meeting"))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testLanguagePairsAreSeparate() {
+        translationMemory.put("zh-CN", "en-US", "你好", "Hello");
+        when(provider.translate(eq(List.of("你好")), eq("zh-CN"), eq("ja-JP")))
+                .thenReturn(Mono.just(List.of("こんにちは")));
+
+        StepVerifier.create(pipeline.translate("你好", "zh-CN", "ja-JP"))
+                .expectNext("こんにちは")
+                .verifyComplete();
+    }
+
+    @Test
+    public void testProviderErrorIsNotCached() {
+        translationConfig.getFallback().setEnabled(false);
+        when(provider.translate(anyList(), anyString(), anyString()))
+                .thenReturn(Mono.error(new IllegalStateException("boom")))
+                .thenReturn(Mono.just(List.of("Hello")));
+
+        StepVerifier.create(pipeline.translate("你好", "zh-CN", "en-US"))
+                .expectError(IllegalStateException.class)
+                .verify();
+        StepVerifier.create(pipeline.translate("你好", "zh-CN", "en-US"))
+                .expectNext("Hello")
+                .verifyComplete();
+    }
+
+    @Test
+    public void testProviderErrorFallsBackOfflineAndCoolsDown() {
+        when(provider.translate(anyList(), anyString(), anyString()))
+                .thenReturn(Mono.error(new IllegalStateException("boom")));
+
+        StepVerifier.create(pipeline.translate("大家好", "zh-CN", "en-US"))
+                .expectNext("Hello everyone")
+                .verifyComplete();
+        // 冷却期内不再调用服务，兜底译文也不写入翻译记忆
+        StepVerifier.create(pipeline.translate("谢谢大家", "zh-CN", "en-US"))
+                .expectNext("Thank you all")
+                .verifyComplete();
+
+        verify(provider, times(1)).translate(anyList(), anyString(), anyString());
+        assertEquals(0, translationMemory.size());
+    }
+
+    @Test
+    public void testProviderRetriedAfterCooldown() {
+        translationConfig.getFallback().setCooldownMillis(0);
+        when(provider.translate(anyList(), anyString(), anyString()))
+                .thenReturn(Mono.error(new IllegalStateException("boom")))
+                .thenReturn(Mono.just(List.of("Hi there")));
+
+        StepVerifier.create(pipeline.translate("你好", "zh-CN", "en-US"))
+                .expectNext("Hello")
+                .verifyComplete();
+        StepVerifier.create(pipeline.translate("你好", "zh-CN", "en-US"))
+                .expectNext("Hi there")
+                .verifyComplete();
+        assertEquals(1, translationMemory.size());
+    }
+
+    @Test
+    public void testFuzzyStage() {
+        translationConfig.getFuzzy().setEnabled(true);
+        when(provider.translate(eq(List.of("Let's start today's weekly meeting")), anyString(), anyString()))
+                .thenReturn(Mono.just(List.of("我们开始今天的周会")));
+
+        pipeline.translate("Let's start today's weekly meeting", "en-US", "zh-CN").block();
+        // 只多了一个语气词，复用已有译文
+        StepVerifier.create(pipeline.translate("So, let's start today's weekly meeting", "en-US", "zh-CN"))
+                .expectNext("我们开始今天的周会")
+                .verifyComplete();
+
+        verify(provider, times(1)).translate(anyList(), anyString(), anyString());
+    }
+
+    @Test
+    public void testDisabled() {
+        translationConfig.getMemory().setEnabled(false);
+        when(provider.translate(anyList(), anyString(), anyString()))
+                .thenReturn(Mono.just(List.of("Hello")));
+
+        pipeline.translate("你好", "zh-CN", "en-US").block();
+        pipeline.translate("你好", "zh-CN", "en-US").block();
+
+        verify(provider, times(2)).translate(anyList(), anyString(), anyString());
+        assertEquals(0, translationMemory.size());
+    }
+
+    @Test
+    public void testEmptyTextNeverReachesProvider() {
+        StepVerifier.create(pipeline.translate("", "zh-CN", "en-US"))
+                .expectNext("")
+                .verifyComplete();
+        verify(provider, never()).translate(anyList(), anyString(), anyString());
+    }
+}
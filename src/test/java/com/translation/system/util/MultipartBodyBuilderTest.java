@@ -0,0 +1,130 @@
+package com.translation.system.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import reactor.adapter.JdkFlowAdapter;
+
+public class MultipartBodyBuilderTest {
+
+    private static final String BOUNDARY = "test-boundary";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testFieldsAndInMemoryFile() {
+        byte[] audio = {1, 2, 3, 4, 5};
+
+        MultipartBodyBuilder builder = new MultipartBodyBuilder(BOUNDARY)
+                .addField("model", "whisper-1")
+                .addField("language", "zh-CN")
+                .addFile("file", "audio.wav", "audio/wav", audio);
+        BodyPublisher publisher = builder.build();
+
+        byte[] body = readAll(publisher);
+        assertArrayEquals(expectedBody(audio), body);
+        assertEquals(body.length, publisher.contentLength());
+        assertEquals("multipart/form-data; boundary=" + BOUNDARY, builder.getContentType());
+    }
+
+    @Test
+    public void testInMemoryFileIsNotCopied() {
+        byte[] audio = new byte[40 * 1024 + 7];
+        for (int i = 0; i < audio.length; i++) {
+            audio[i] = (byte) i;
+        }
+
+        BodyPublisher publisher = new MultipartBodyBuilder(BOUNDARY)
+                .addFile("file", "audio.wav", "audio/wav", audio)
+                .build();
+        List<ByteBuffer> buffers = JdkFlowAdapter.flowPublisherToFlux(publisher)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        // 文件内容的分片直接包装调用方的数组，分片依次覆盖整个数组
+        List<ByteBuffer> contentBuffers = buffers.stream()
+                .filter(buffer -> buffer.hasArray() && buffer.array() == audio)
+                .toList();
+        assertTrue(contentBuffers.size() > 1);
+        int expectedOffset = 0;
+        for (ByteBuffer buffer : contentBuffers) {
+            assertSame(audio, buffer.array());
+            assertEquals(expectedOffset, buffer.arrayOffset() + buffer.position());
+            expectedOffset += buffer.remaining();
+        }
+        assertEquals(audio.length, expectedOffset);
+    }
+
+    @Test
+    public void testFileFromDisk() throws Exception {
+        byte[] audio = new byte[64 * 1024];
+        for (int i = 0; i < audio.length; i++) {
+            audio[i] = (byte) i;
+        }
+        Path file = tempDir.resolve("audio.wav");
+        Files.write(file, audio);
+
+        BodyPublisher publisher = new MultipartBodyBuilder(BOUNDARY)
+                .addField("model", "whisper-1")
+                .addField("language", "zh-CN")
+                .addFile("file", "audio.wav", "audio/wav", file)
+                .build();
+
+        byte[] body = readAll(publisher);
+        assertArrayEquals(expectedBody(audio), body);
+        assertEquals(body.length, publisher.contentLength());
+    }
+
+    @Test
+    public void testBodyCanBeReplayed() {
+        BodyPublisher publisher = new MultipartBodyBuilder(BOUNDARY)
+                .addFile("file", "audio.wav", "audio/wav", new byte[] {9, 8, 7})
+                .build();
+
+        // HttpClient在重定向或重试时会重新订阅请求体
+        assertArrayEquals(readAll(publisher), readAll(publisher));
+    }
+
+    private static byte[] expectedBody(byte[] audio) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"model\"\r\n\r\n"
+                + "whisper-1\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"language\"\r\n\r\n"
+                + "zh-CN\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"audio.wav\"\r\n"
+                + "Content-Type: audio/wav\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        out.writeBytes(audio);
+        out.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    private static byte[] readAll(BodyPublisher publisher) {
+        return JdkFlowAdapter.flowPublisherToFlux(publisher)
+                .reduce(new ByteArrayOutputStream(), (out, buffer) -> {
+                    byte[] chunk = new byte[buffer.remaining()];
+                    ByteBuffer.wrap(chunk).put(buffer);
+                    out.writeBytes(chunk);
+                    return out;
+                })
+                .map(ByteArrayOutputStream::toByteArray)
+                .block(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,114 @@
+package com.translation.system.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+public class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    public void testConcurrentIdenticalRequestsShareOneCall() {
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+
+        Mono<String> first = singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        });
+        Mono<String> second = singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            return Mono.just("unexpected");
+        });
+
+        StepVerifier.create(Flux.merge(first, second).collectList())
+                .then(() -> upstream.tryEmitValue("a"))
+                .assertNext(items -> assertEquals(List.of("a", "a"), items))
+                .verifyComplete();
+
+        assertEquals(1, calls.get());
+        assertEquals(1, singleFlight.getShared());
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    @Test
+    public void testLateSubscriberReceivesResult() {
+        Sinks.One<String> upstream = Sinks.one();
+        List<String> firstItems = new CopyOnWriteArrayList<>();
+
+        singleFlight.execute("key", upstream::asMono).subscribe(firstItems::add);
+
+        Mono<String> late = singleFlight.execute("key", () -> Mono.just("unexpected"));
+        StepVerifier.create(late)
+                .then(() -> upstream.tryEmitValue("result"))
+                .expectNext("result")
+                .verifyComplete();
+        assertEquals(List.of("result"), firstItems);
+    }
+
+    @Test
+    public void testUpstreamDoesNotSeeSubscriberContext() {
+        Mono<String> contextValue = Mono.deferContextual(context -> Mono.just(context.getOrDefault("caller", "none")));
+
+        StepVerifier.create(singleFlight.execute("key", () -> contextValue)
+                        .contextWrite(Context.of("caller", "first")))
+                .expectNext("none")
+                .verifyComplete();
+    }
+
+    @Test
+    public void testUpstreamCancelledOnlyWhenAllSubscribersCancel() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Mono<String> upstream = Mono.<String>never().doOnCancel(() -> cancelled.set(true));
+
+        Disposable first = singleFlight.execute("key", () -> upstream).subscribe();
+        Disposable second = singleFlight.execute("key", () -> upstream).subscribe();
+
+        first.dispose();
+        assertFalse(cancelled.get());
+        assertEquals(1, singleFlight.getInFlight());
+
+        second.dispose();
+        assertTrue(cancelled.get());
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    @Test
+    public void testCompletedRequestRunsAgainAndKeysAreIndependent() {
+        AtomicInteger calls = new AtomicInteger();
+
+        singleFlight.execute("a", () -> Mono.just(String.valueOf(calls.incrementAndGet()))).block(Duration.ofSeconds(1));
+        singleFlight.execute("a", () -> Mono.just(String.valueOf(calls.incrementAndGet()))).block(Duration.ofSeconds(1));
+        singleFlight.execute("b", () -> Mono.just(String.valueOf(calls.incrementAndGet()))).block(Duration.ofSeconds(1));
+
+        assertEquals(3, calls.get());
+        assertEquals(3, singleFlight.getExecutions());
+    }
+
+    @Test
+    public void testNothingRunsUntilSubscribed() {
+        AtomicInteger calls = new AtomicInteger();
+        singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            return Mono.just("x");
+        });
+        assertEquals(0, calls.get());
+        assertEquals(0, singleFlight.getInFlight());
+    }
+}
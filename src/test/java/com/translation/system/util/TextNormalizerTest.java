@@ -0,0 +1,35 @@
+package com.translation.system.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class TextNormalizerTest {
+
+    @Test
+    public void testCaseAndWhitespace() {
+        assertEquals("good morning everyone", TextNormalizer.normalize("  Good   Morning\teveryone "));
+    }
+
+    @Test
+    public void testFullWidthForms() {
+        assertEquals("hello, world", TextNormalizer.normalize("Ｈｅｌｌｏ，　Ｗｏｒｌｄ"));
+        assertEquals("会议开始 123", TextNormalizer.normalize("会议开始　１２３"));
+    }
+
+    @Test
+    public void testTrailingPunctuation() {
+        assertEquals("大家好", TextNormalizer.normalize("大家好。"));
+        assertEquals("大家好", TextNormalizer.normalize("大家好！！"));
+        assertEquals("are you ready", TextNormalizer.normalize("Are you ready ?"));
+        assertEquals("wait... what", TextNormalizer.normalize("Wait... what?"));
+        // 括号不是句末标点
+        assertEquals("see (appendix)", TextNormalizer.normalize("See (appendix)."));
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals("", TextNormalizer.normalize(null));
+        assertEquals("", TextNormalizer.normalize(" 。"));
+    }
+}